@@ -33,7 +33,7 @@ public final class Arrays {
         final int index = indexOf(array, value);
         if(index != -1) {
             final T[] copy = newArray(array.getClass(), array.length - 1);
-            if(index > 0 && copy.length > 0) System.arraycopy(array, 0, copy, index, index);
+            if(index > 0) System.arraycopy(array, 0, copy, 0, index);
             if(index < copy.length) System.arraycopy(array, index + 1, copy, index, copy.length - index);
             return copy;
         }
@@ -128,6 +128,14 @@ public abstract class AbstractCircularBlockingQueue<T> implements CircularBlocki
         return count;
     }
 
+    public int drainTo(final T[] values, final int offset, final int length) {
+        if(values == null) throw new IllegalArgumentException("values == null");
+        if(offset < 0 || length < 0 || offset + length > values.length) throw new IndexOutOfBoundsException();
+        final int count = Math.min(length, readIndex - removeIndex);
+        for(int i = 0; i != count; i++) values[offset + i] = remove();
+        return count;
+    }
+
     public T remove() {
         if(removeIndex == readIndex) throw new NoSuchElementException();
         final T value = queue[(++removeIndex % capacity)];
@@ -0,0 +1,262 @@
+package org.iterx.sora.collection.queue;
+
+import org.iterx.sora.collection.Arrays;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+public abstract class AbstractRingBlockingQueue<T> implements BlockingQueue<T> {
+
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+
+    private final WaitStrategy waitStrategy;
+    private final WaitStrategy.Barrier enqueueBarrier;
+    private final WaitStrategy.Barrier dequeueBarrier;
+
+    private final T[] ring;
+    private final int capacity;
+    private final int mask;
+
+    private volatile Iterator<T> iterator;
+
+    AbstractRingBlockingQueue(final WaitStrategy waitStrategy,
+                              final int capacity) {
+        if(waitStrategy == null) throw new IllegalArgumentException("waitStrategy == null");
+        this.capacity = toPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.ring = Arrays.newArray(Object.class, this.capacity);
+        this.enqueueBarrier = new EnqueueBarrier();
+        this.dequeueBarrier = new DequeueBarrier();
+        this.waitStrategy = waitStrategy;
+    }
+
+    public boolean offer(final T value) {
+        assertValue(value);
+        if(enqueue(value)) {
+            waitStrategy.signal();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean offer(final T value, final long timeout, final TimeUnit timeUnit) throws InterruptedException {
+        assertValue(value);
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        while(!enqueue(value)) {
+            final long remaining = deadline - System.nanoTime();
+            if(remaining <= 0 || !waitStrategy.await(dequeueBarrier, remaining, TimeUnit.NANOSECONDS)) return false;
+        }
+        waitStrategy.signal();
+        return true;
+    }
+
+    public void put(final T value) throws InterruptedException {
+        assertValue(value);
+        while(!enqueue(value)) waitStrategy.await(dequeueBarrier);
+        waitStrategy.signal();
+    }
+
+    public boolean add(final T value) {
+        return offer(value);
+    }
+
+    public boolean addAll(final Collection<? extends T> values) {
+        try {
+            for(final T value : values) {
+                assertValue(value);
+                if(!enqueue(value)) throw new IllegalStateException();
+            }
+            return !values.isEmpty();
+        }
+        finally {
+            waitStrategy.signal();
+        }
+    }
+
+    public T peek() {
+        return first();
+    }
+
+    public T poll() {
+        return signal(dequeue());
+    }
+
+    public T poll(final long timeout, final TimeUnit timeUnit) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        T value;
+        while((value = dequeue()) == null) {
+            final long remaining = deadline - System.nanoTime();
+            if(remaining <= 0 || !waitStrategy.await(enqueueBarrier, remaining, TimeUnit.NANOSECONDS)) return null;
+        }
+        return signal(value);
+    }
+
+    public T take() throws InterruptedException {
+        T value;
+        while((value = dequeue()) == null) waitStrategy.await(enqueueBarrier);
+        return signal(value);
+    }
+
+    public T element() {
+        final T value = first();
+        if(value == null) throw new NoSuchElementException();
+        return value;
+    }
+
+    public int drainTo(final Collection<? super T> values) {
+        return drainTo(values, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(final Collection<? super T> values, final int size) {
+        int count = 0;
+        for(T value; count != size && (value = dequeue()) != null; count++) values.add(value);
+        if(count != 0) waitStrategy.signal();
+        return count;
+    }
+
+    public int drainTo(final T[] values, final int offset, final int length) {
+        if(values == null) throw new IllegalArgumentException("values == null");
+        if(offset < 0 || length < 0 || offset + length > values.length) throw new IndexOutOfBoundsException();
+        final int count = (length != 0)? dequeue(values, offset, length) : 0;
+        if(count != 0) waitStrategy.signal();
+        return count;
+    }
+
+    public T remove() {
+        final T value = poll();
+        if(value == null) throw new NoSuchElementException();
+        return value;
+    }
+
+    public boolean remove(final Object object) {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean removeAll(final Collection<?> objects) {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean retainAll(final Collection<?> objects) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void clear() {
+        while(dequeue() != null);
+        waitStrategy.signal();
+    }
+
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(final Object object) {
+        for(long sequence = headSequence(), tailSequence = tailSequence(); sequence < tailSequence; sequence++) {
+            final T value = load(sequence);
+            if(value != null && value.equals(object)) return true;
+        }
+        return false;
+    }
+
+    public boolean containsAll(final Collection<?> objects) {
+        for(final Object object : objects) if(!contains(object)) return false;
+        return true;
+    }
+
+    public Iterator<T> iterator() {
+        return (iterator != null)? iterator : (iterator = new BlockingQueueIterator());
+    }
+
+    public Object[] toArray() {
+        return toArray(EMPTY_ARRAY);
+    }
+
+    public <V> V[] toArray(final V[] array) {
+        final long headSequence = headSequence();
+        final int size = (int) Math.min(capacity, tailSequence() - headSequence);
+        final V[] target = (array.length < size)? Arrays.<V>newArray(array.getClass(), size) : array;
+        int count = 0;
+        for(int i = 0; i != size; i++) {
+            @SuppressWarnings("unchecked")
+            final V value = (V) load(headSequence + i);
+            if(value != null) target[count++] = value;
+        }
+        if(count < target.length) target[count] = null;
+        return (count == size || target == array)? target : java.util.Arrays.copyOf(target, count);
+    }
+
+    public abstract int size();
+
+    abstract boolean enqueue(T value);
+
+    abstract T dequeue();
+
+    abstract int dequeue(T[] values, int offset, int length);
+
+    abstract T first();
+
+    abstract long headSequence();
+
+    abstract long tailSequence();
+
+    final int capacity() {
+        return capacity;
+    }
+
+    final T load(final long sequence) {
+        return ring[(int) sequence & mask];
+    }
+
+    final void store(final long sequence, final T value) {
+        ring[(int) sequence & mask] = value;
+    }
+
+    private static int toPowerOfTwo(final int capacity) {
+        if(capacity < 1) throw new IllegalArgumentException("capacity < 1");
+        if(capacity > (1 << 30)) throw new IllegalArgumentException("capacity > " + (1 << 30));
+        return 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+    }
+
+    private T signal(final T value) {
+        if(value != null) waitStrategy.signal();
+        return value;
+    }
+
+    private static void assertValue(final Object value) {
+        if(value == null) throw new IllegalArgumentException("value == null");
+    }
+
+    private final class EnqueueBarrier implements WaitStrategy.Barrier {
+
+        public boolean isOpen() {
+            return AbstractRingBlockingQueue.this.first() != null;
+        }
+    }
+
+    private final class DequeueBarrier implements WaitStrategy.Barrier {
+
+        public boolean isOpen() {
+            return AbstractRingBlockingQueue.this.size() < capacity;
+        }
+    }
+
+    private class BlockingQueueIterator implements Iterator<T> {
+
+        public boolean hasNext() {
+            return !AbstractRingBlockingQueue.this.isEmpty();
+        }
+
+        public T next() {
+            return AbstractRingBlockingQueue.this.remove();
+        }
+
+        public void remove() {
+            AbstractRingBlockingQueue.this.remove();
+        }
+    }
+}
@@ -1,4 +1,6 @@
 package org.iterx.sora.collection.queue;
 
 public interface BlockingQueue<T> extends java.util.concurrent.BlockingQueue<T> {
+
+    int drainTo(T[] values, int offset, int length);
 }
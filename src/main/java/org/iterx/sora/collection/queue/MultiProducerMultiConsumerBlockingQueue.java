@@ -2,189 +2,102 @@ package org.iterx.sora.collection.queue;
 
 import org.iterx.sora.util.Concurrent;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Concurrent
-public final class MultiProducerMultiConsumerBlockingQueue<T> extends AbstractBlockingQueue<T> {
+public final class MultiProducerMultiConsumerBlockingQueue<T> extends AbstractRingBlockingQueue<T> {
 
-    private final Lock lock;
+    private final AtomicLongArray slotSequences;
+    private final Sequence producerSequence;
+    private final Sequence consumerSequence;
+    private final int mask;
 
     public MultiProducerMultiConsumerBlockingQueue(final int capacity) {
-        this(new ReentrantLock(), capacity);
+        this(capacity, WaitStrategies.newSpinParkWaitStrategy());
     }
 
-    private MultiProducerMultiConsumerBlockingQueue(final Lock lock,
-                                                    final int capacity) {
-        super(lock, lock, capacity);
-        this.lock = lock;
+    public MultiProducerMultiConsumerBlockingQueue(final int capacity, final WaitStrategy waitStrategy) {
+        super(waitStrategy, capacity);
+        this.slotSequences = newSlotSequences(capacity());
+        this.producerSequence = new Sequence(0L);
+        this.consumerSequence = new Sequence(0L);
+        this.mask = capacity() - 1;
     }
 
-    @Override
-    public boolean offer(final T value) {
-        lock.lock();
-        try {
-            return super.offer(value);
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public boolean offer(final T value, final long timeout, final TimeUnit timeUnit) throws InterruptedException {
-        lock.lock();
-        try {
-            return super.offer(value, timeout, timeUnit);
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public void put(final T value) throws InterruptedException {
-        lock.lock();
-        try {
-            super.put(value);
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public boolean add(final T value) {
-        lock.lock();
-        try {
-            return super.add(value);
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public boolean addAll(final Collection<? extends T> values) {
-        lock.lock();
-        try {
-            return super.addAll(values);
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public Iterator<T> iterator() {
-        lock.lock();
-        try {
-            return super.iterator();
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public T poll() {
-        lock.lock();
-        try {
-            return super.poll();
-        }
-        finally {
-            lock.unlock();
+    public int size() {
+        for(long consumerIndex = consumerSequence.get();;) {
+            final long producerIndex = producerSequence.get();
+            final long previousConsumerIndex = consumerIndex;
+            consumerIndex = consumerSequence.get();
+            if(previousConsumerIndex == consumerIndex) return (int) Math.max(0L, producerIndex - consumerIndex);
         }
     }
 
-    @Override
-    public T poll(final long timeout, final TimeUnit timeUnit) throws InterruptedException {
-        lock.lock();
-        try {
-            return super.poll(timeout, timeUnit);
-        }
-        finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public T take() throws InterruptedException {
-        lock.lock();
-        try {
-            return super.take();
-        }
-        finally {
-            lock.unlock();
+    boolean enqueue(final T value) {
+        for(long producerIndex = producerSequence.get();; producerIndex = producerSequence.get()) {
+            final int index = (int) producerIndex & mask;
+            final long delta = slotSequences.get(index) - producerIndex;
+            if(delta == 0) {
+                if(producerSequence.compareAndSet(producerIndex, producerIndex + 1)) {
+                    store(producerIndex, value);
+                    slotSequences.lazySet(index, producerIndex + 1);
+                    return true;
+                }
+            }
+            else if(delta < 0) return false;
         }
     }
 
-    @Override
-    public T element() {
-        lock.lock();
-        try {
-            return super.element();
-        }
-        finally {
-            lock.unlock();
+    T dequeue() {
+        for(long consumerIndex = consumerSequence.get();; consumerIndex = consumerSequence.get()) {
+            final int index = (int) consumerIndex & mask;
+            final long delta = slotSequences.get(index) - (consumerIndex + 1);
+            if(delta == 0) {
+                if(consumerSequence.compareAndSet(consumerIndex, consumerIndex + 1)) {
+                    final T value = load(consumerIndex);
+                    store(consumerIndex, null);
+                    slotSequences.lazySet(index, consumerIndex + capacity());
+                    return value;
+                }
+            }
+            else if(delta < 0) return null;
         }
     }
 
-    @Override
-    public int drainTo(final Collection<? super T> values, final int size) {
-        lock.lock();
-        try {
-            return super.drainTo(values, size);
-        }
-        finally {
-            lock.unlock();
+    int dequeue(final T[] values, final int offset, final int length) {
+        for(long consumerIndex = consumerSequence.get();; consumerIndex = consumerSequence.get()) {
+            int count = 0;
+            while(count != length && slotSequences.get((int) (consumerIndex + count) & mask) == consumerIndex + count + 1) count++;
+            if(count == 0) {
+                if(slotSequences.get((int) consumerIndex & mask) - (consumerIndex + 1) < 0) return 0;
+            }
+            else if(consumerSequence.compareAndSet(consumerIndex, consumerIndex + count)) {
+                for(int i = 0; i != count; i++) {
+                    values[offset + i] = load(consumerIndex + i);
+                    store(consumerIndex + i, null);
+                    slotSequences.lazySet((int) (consumerIndex + i) & mask, consumerIndex + i + capacity());
+                }
+                return count;
+            }
         }
     }
 
-    @Override
-    public T remove() {
-        lock.lock();
-        try {
-            return super.remove();
-        }
-        finally {
-            lock.unlock();
-        }
+    T first() {
+        final long consumerIndex = consumerSequence.get();
+        return (slotSequences.get((int) consumerIndex & mask) == consumerIndex + 1)? load(consumerIndex) : null;
     }
 
-    @Override
-    public boolean contains(final Object object) {
-        lock.lock();
-        try {
-            return super.contains(object);
-        }
-        finally {
-            lock.unlock();
-        }
+    long headSequence() {
+        return consumerSequence.get();
     }
 
-    @Override
-    public boolean containsAll(final Collection<?> objects) {
-        lock.lock();
-        try {
-            return super.containsAll(objects);
-        }
-        finally {
-            lock.unlock();
-        }
+    long tailSequence() {
+        return producerSequence.get();
     }
 
-    @Override
-    public <T> T[] toArray(final T[] array) {
-        lock.lock();
-        try {
-            return super.toArray(array);
-        }
-        finally {
-            lock.unlock();
-        }
+    private static AtomicLongArray newSlotSequences(final int capacity) {
+        final AtomicLongArray slotSequences = new AtomicLongArray(capacity);
+        for(int i = 0; i != capacity; i++) slotSequences.set(i, i);
+        return slotSequences;
     }
-}
\ No newline at end of file
+}
@@ -1,89 +1,92 @@
 package org.iterx.sora.collection.queue;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import org.iterx.sora.util.Concurrent;
 
-public final class MultiProducerSingleConsumerBlockingQueue<T> extends AbstractBlockingQueue<T> {
+import java.util.concurrent.atomic.AtomicLongArray;
 
-    private final Lock enqueueLock;
+@Concurrent
+public final class MultiProducerSingleConsumerBlockingQueue<T> extends AbstractRingBlockingQueue<T> {
+
+    private final AtomicLongArray slotSequences;
+    private final Sequence producerSequence;
+    private final Sequence consumerSequence;
+    private final int mask;
 
     public MultiProducerSingleConsumerBlockingQueue(final int capacity) {
-        this(new ReentrantLock(), new ReentrantLock(), capacity);
+        this(capacity, WaitStrategies.newSpinParkWaitStrategy());
     }
 
-    private MultiProducerSingleConsumerBlockingQueue(final Lock enqueueLock,
-                                                    final Lock dequeueLock,
-                                                    final int capacity) {
-        super(enqueueLock, dequeueLock, capacity);
-        this.enqueueLock = enqueueLock;
+    public MultiProducerSingleConsumerBlockingQueue(final int capacity, final WaitStrategy waitStrategy) {
+        super(waitStrategy, capacity);
+        this.slotSequences = newSlotSequences(capacity());
+        this.producerSequence = new Sequence(0L);
+        this.consumerSequence = new Sequence(0L);
+        this.mask = capacity() - 1;
     }
 
-    @Override
-    public boolean offer(final T value) {
-        enqueueLock.lock();
-        try {
-            return super.offer(value);
-        }
-        finally {
-            enqueueLock.unlock();
+    public int size() {
+        for(long consumerIndex = consumerSequence.get();;) {
+            final long producerIndex = producerSequence.get();
+            final long previousConsumerIndex = consumerIndex;
+            consumerIndex = consumerSequence.get();
+            if(previousConsumerIndex == consumerIndex) return (int) (producerIndex - consumerIndex);
         }
     }
 
-    @Override
-    public boolean offer(final T value, final long timeout, final TimeUnit timeUnit) throws InterruptedException {
-        enqueueLock.lock();
-        try {
-            return super.offer(value, timeout, timeUnit);
-        }
-        finally {
-            enqueueLock.unlock();
+    boolean enqueue(final T value) {
+        for(long producerIndex = producerSequence.get();; producerIndex = producerSequence.get()) {
+            final int index = (int) producerIndex & mask;
+            final long delta = slotSequences.get(index) - producerIndex;
+            if(delta == 0) {
+                if(producerSequence.compareAndSet(producerIndex, producerIndex + 1)) {
+                    store(producerIndex, value);
+                    slotSequences.lazySet(index, producerIndex + 1);
+                    return true;
+                }
+            }
+            else if(delta < 0) return false;
         }
     }
 
-    @Override
-    public void put(final T value) throws InterruptedException {
-        enqueueLock.lock();
-        try {
-            super.put(value);
-        }
-        finally {
-            enqueueLock.unlock();
-        }
+    T dequeue() {
+        final long consumerIndex = consumerSequence.get();
+        final int index = (int) consumerIndex & mask;
+        if(slotSequences.get(index) != consumerIndex + 1) return null;
+        final T value = load(consumerIndex);
+        store(consumerIndex, null);
+        slotSequences.lazySet(index, consumerIndex + capacity());
+        consumerSequence.lazySet(consumerIndex + 1);
+        return value;
     }
 
-    @Override
-    public boolean add(final T value) {
-        enqueueLock.lock();
-        try {
-            return super.add(value);
-        }
-        finally {
-            enqueueLock.unlock();
+    int dequeue(final T[] values, final int offset, final int length) {
+        final long consumerIndex = consumerSequence.get();
+        int count = 0;
+        for(int index; count != length && slotSequences.get(index = (int) (consumerIndex + count) & mask) == consumerIndex + count + 1; count++) {
+            values[offset + count] = load(consumerIndex + count);
+            store(consumerIndex + count, null);
+            slotSequences.lazySet(index, consumerIndex + count + capacity());
         }
+        if(count != 0) consumerSequence.lazySet(consumerIndex + count);
+        return count;
     }
 
-    @Override
-    public boolean addAll(final Collection<? extends T> values) {
-        enqueueLock.lock();
-        try {
-            return super.addAll(values);
-        }
-        finally {
-            enqueueLock.unlock();
-        }
+    T first() {
+        final long consumerIndex = consumerSequence.get();
+        return (slotSequences.get((int) consumerIndex & mask) == consumerIndex + 1)? load(consumerIndex) : null;
     }
 
-    @Override
-    public Iterator<T> iterator() {
-        enqueueLock.lock();
-        try {
-            return super.iterator();
-        }
-        finally {
-            enqueueLock.unlock();
-        }
+    long headSequence() {
+        return consumerSequence.get();
+    }
+
+    long tailSequence() {
+        return producerSequence.get();
+    }
+
+    private static AtomicLongArray newSlotSequences(final int capacity) {
+        final AtomicLongArray slotSequences = new AtomicLongArray(capacity);
+        for(int i = 0; i != capacity; i++) slotSequences.set(i, i);
+        return slotSequences;
     }
 }
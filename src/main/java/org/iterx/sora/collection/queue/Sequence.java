@@ -0,0 +1,53 @@
+package org.iterx.sora.collection.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+final class Sequence extends SequenceRhsPadding {
+
+    private static final AtomicLongFieldUpdater<SequenceValue> VALUE_UPDATER = AtomicLongFieldUpdater.newUpdater(SequenceValue.class, "value");
+
+    Sequence(final long value) {
+        this.value = value;
+    }
+
+    long get() {
+        return value;
+    }
+
+    void set(final long value) {
+        this.value = value;
+    }
+
+    void lazySet(final long value) {
+        VALUE_UPDATER.lazySet(this, value);
+    }
+
+    boolean compareAndSet(final long expectedValue, final long newValue) {
+        return VALUE_UPDATER.compareAndSet(this, expectedValue, newValue);
+    }
+
+    long getAndAdd(final long delta) {
+        return VALUE_UPDATER.getAndAdd(this, delta);
+    }
+
+    long cache() {
+        return cache;
+    }
+
+    void cache(final long cache) {
+        this.cache = cache;
+    }
+}
+
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+    protected long cache;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
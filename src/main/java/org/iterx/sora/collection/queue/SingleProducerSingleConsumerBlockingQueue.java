@@ -1,10 +1,75 @@
 package org.iterx.sora.collection.queue;
 
-import java.util.concurrent.locks.ReentrantLock;
+public final class SingleProducerSingleConsumerBlockingQueue<T> extends AbstractRingBlockingQueue<T> {
 
-public final class SingleProducerSingleConsumerBlockingQueue<T> extends AbstractBlockingQueue<T> {
+    private final Sequence producerSequence;
+    private final Sequence consumerSequence;
 
     public SingleProducerSingleConsumerBlockingQueue(final int capacity) {
-        super(new ReentrantLock(), new ReentrantLock(), capacity);
+        this(capacity, WaitStrategies.newSpinParkWaitStrategy());
     }
-}
\ No newline at end of file
+
+    public SingleProducerSingleConsumerBlockingQueue(final int capacity, final WaitStrategy waitStrategy) {
+        super(waitStrategy, capacity);
+        this.producerSequence = new Sequence(0L);
+        this.consumerSequence = new Sequence(0L);
+    }
+
+    public int size() {
+        for(long consumerIndex = consumerSequence.get();;) {
+            final long producerIndex = producerSequence.get();
+            final long previousConsumerIndex = consumerIndex;
+            consumerIndex = consumerSequence.get();
+            if(previousConsumerIndex == consumerIndex) return (int) (producerIndex - consumerIndex);
+        }
+    }
+
+    boolean enqueue(final T value) {
+        final long producerIndex = producerSequence.get();
+        final long wrapIndex = producerIndex - capacity();
+        if(producerSequence.cache() <= wrapIndex) {
+            producerSequence.cache(consumerSequence.get());
+            if(producerSequence.cache() <= wrapIndex) return false;
+        }
+        store(producerIndex, value);
+        producerSequence.lazySet(producerIndex + 1);
+        return true;
+    }
+
+    T dequeue() {
+        final long consumerIndex = consumerSequence.get();
+        if(consumerIndex >= consumerSequence.cache()) {
+            consumerSequence.cache(producerSequence.get());
+            if(consumerIndex >= consumerSequence.cache()) return null;
+        }
+        final T value = load(consumerIndex);
+        store(consumerIndex, null);
+        consumerSequence.lazySet(consumerIndex + 1);
+        return value;
+    }
+
+    int dequeue(final T[] values, final int offset, final int length) {
+        final long consumerIndex = consumerSequence.get();
+        if(consumerIndex + length > consumerSequence.cache()) consumerSequence.cache(producerSequence.get());
+        final int count = (int) Math.min(length, consumerSequence.cache() - consumerIndex);
+        for(int i = 0; i < count; i++) {
+            values[offset + i] = load(consumerIndex + i);
+            store(consumerIndex + i, null);
+        }
+        if(count > 0) consumerSequence.lazySet(consumerIndex + count);
+        return count;
+    }
+
+    T first() {
+        final long consumerIndex = consumerSequence.get();
+        return (consumerIndex < producerSequence.get())? load(consumerIndex) : null;
+    }
+
+    long headSequence() {
+        return consumerSequence.get();
+    }
+
+    long tailSequence() {
+        return producerSequence.get();
+    }
+}
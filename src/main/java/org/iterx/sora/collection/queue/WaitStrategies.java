@@ -0,0 +1,226 @@
+package org.iterx.sora.collection.queue;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class WaitStrategies {
+
+    private static final int DEFAULT_SPINS = (Runtime.getRuntime().availableProcessors() > 1)? 256 : 0;
+    private static final long DEFAULT_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private WaitStrategies() {
+    }
+
+    public static WaitStrategy newBusySpinWaitStrategy() {
+        return new BusySpinWaitStrategy();
+    }
+
+    public static WaitStrategy newYieldingWaitStrategy() {
+        return new YieldingWaitStrategy();
+    }
+
+    public static WaitStrategy newTimedParkWaitStrategy(final long parkTime, final TimeUnit timeUnit) {
+        if(parkTime < 1) throw new IllegalArgumentException("parkTime < 1");
+        return new TimedParkWaitStrategy(timeUnit.toNanos(parkTime));
+    }
+
+    public static WaitStrategy newBlockingWaitStrategy() {
+        return new BlockingWaitStrategy();
+    }
+
+    public static WaitStrategy newSpinParkWaitStrategy() {
+        return new SpinParkWaitStrategy(DEFAULT_SPINS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    public static WaitStrategy newSpinParkWaitStrategy(final int spins, final long maxParkTime, final TimeUnit timeUnit) {
+        if(spins < 0) throw new IllegalArgumentException("spins < 0");
+        if(maxParkTime < 1) throw new IllegalArgumentException("maxParkTime < 1");
+        return new SpinParkWaitStrategy(spins, timeUnit.toNanos(maxParkTime));
+    }
+
+    private abstract static class AbstractWaitStrategy implements WaitStrategy {
+
+        public void await(final Barrier barrier) throws InterruptedException {
+            await(barrier, false, 0L);
+        }
+
+        public boolean await(final Barrier barrier, final long timeout, final TimeUnit timeUnit) throws InterruptedException {
+            return await(barrier, true, timeUnit.toNanos(timeout));
+        }
+
+        public void signal() {
+        }
+
+        abstract boolean await(Barrier barrier, boolean timed, long nanos) throws InterruptedException;
+    }
+
+    private static final class BusySpinWaitStrategy extends AbstractWaitStrategy {
+
+        boolean await(final Barrier barrier, final boolean timed, final long nanos) throws InterruptedException {
+            final long deadline = System.nanoTime() + nanos;
+            while(!barrier.isOpen()) {
+                if(Thread.interrupted()) throw new InterruptedException();
+                if(timed && deadline - System.nanoTime() <= 0) return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class YieldingWaitStrategy extends AbstractWaitStrategy {
+
+        boolean await(final Barrier barrier, final boolean timed, final long nanos) throws InterruptedException {
+            final long deadline = System.nanoTime() + nanos;
+            while(!barrier.isOpen()) {
+                if(Thread.interrupted()) throw new InterruptedException();
+                if(timed && deadline - System.nanoTime() <= 0) return false;
+                Thread.yield();
+            }
+            return true;
+        }
+    }
+
+    private static final class TimedParkWaitStrategy extends AbstractWaitStrategy {
+
+        private final long parkNanos;
+
+        private TimedParkWaitStrategy(final long parkNanos) {
+            this.parkNanos = parkNanos;
+        }
+
+        boolean await(final Barrier barrier, final boolean timed, final long nanos) throws InterruptedException {
+            final long deadline = System.nanoTime() + nanos;
+            while(!barrier.isOpen()) {
+                if(Thread.interrupted()) throw new InterruptedException();
+                if(timed) {
+                    final long remaining = deadline - System.nanoTime();
+                    if(remaining <= 0) return false;
+                    LockSupport.parkNanos(this, Math.min(parkNanos, remaining));
+                }
+                else LockSupport.parkNanos(this, parkNanos);
+            }
+            return true;
+        }
+    }
+
+    private static final class BlockingWaitStrategy extends AbstractWaitStrategy {
+
+        private final Lock lock;
+        private final Condition condition;
+        private final Sequence waiterCount;
+
+        private BlockingWaitStrategy() {
+            this.lock = new ReentrantLock();
+            this.condition = lock.newCondition();
+            this.waiterCount = new Sequence(0L);
+        }
+
+        public void signal() {
+            if(waiterCount.getAndAdd(0L) != 0L) {
+                lock.lock();
+                try {
+                    condition.signalAll();
+                }
+                finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        boolean await(final Barrier barrier, final boolean timed, final long nanos) throws InterruptedException {
+            if(barrier.isOpen()) return true;
+            lock.lockInterruptibly();
+            waiterCount.getAndAdd(1L);
+            try {
+                for(long remaining = nanos; !barrier.isOpen();) {
+                    if(!timed) condition.await();
+                    else if(remaining <= 0) return false;
+                    else remaining = condition.awaitNanos(remaining);
+                }
+                return true;
+            }
+            finally {
+                waiterCount.getAndAdd(-1L);
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class SpinParkWaitStrategy extends AbstractWaitStrategy {
+
+        private static final long MIN_PARK_NANOS = 1000L;
+
+        private final Queue<Waiter> waiters;
+        private final Sequence waiterCount;
+        private final int spins;
+        private final long maxParkNanos;
+
+        private SpinParkWaitStrategy(final int spins, final long maxParkNanos) {
+            this.waiters = new ConcurrentLinkedQueue<Waiter>();
+            this.waiterCount = new Sequence(0L);
+            this.spins = spins;
+            this.maxParkNanos = maxParkNanos;
+        }
+
+        public void signal() {
+            if(waiterCount.get() != 0L) {
+                for(final Waiter waiter : waiters) if(waiter.unpark()) break;
+            }
+        }
+
+        boolean await(final Barrier barrier, final boolean timed, final long nanos) throws InterruptedException {
+            for(int i = spins; i-- != 0;) if(barrier.isOpen()) return true;
+
+            final Waiter waiter = new Waiter(Thread.currentThread(), barrier);
+            final long deadline = System.nanoTime() + nanos;
+            waiters.add(waiter);
+            waiterCount.getAndAdd(1L);
+            try {
+                for(long parkNanos = MIN_PARK_NANOS; !barrier.isOpen(); parkNanos = Math.min(parkNanos << 1, maxParkNanos)) {
+                    if(Thread.interrupted()) throw new InterruptedException();
+                    if(timed) {
+                        final long remaining = deadline - System.nanoTime();
+                        if(remaining <= 0) return false;
+                        waiter.park(this, Math.min(parkNanos, remaining));
+                    }
+                    else waiter.park(this, parkNanos);
+                }
+                return true;
+            }
+            finally {
+                waiterCount.getAndAdd(-1L);
+                waiters.remove(waiter);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Waiter extends AtomicBoolean {
+
+        private final Thread thread;
+        private final WaitStrategy.Barrier barrier;
+
+        private Waiter(final Thread thread, final WaitStrategy.Barrier barrier) {
+            this.thread = thread;
+            this.barrier = barrier;
+        }
+
+        private void park(final Object blocker, final long nanos) {
+            LockSupport.parkNanos(blocker, nanos);
+            set(false);
+        }
+
+        private boolean unpark() {
+            if(!get() && barrier.isOpen() && compareAndSet(false, true)) {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+    }
+}
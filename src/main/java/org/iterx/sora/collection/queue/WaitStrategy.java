@@ -0,0 +1,17 @@
+package org.iterx.sora.collection.queue;
+
+import java.util.concurrent.TimeUnit;
+
+public interface WaitStrategy {
+
+    void await(Barrier barrier) throws InterruptedException;
+
+    boolean await(Barrier barrier, long timeout, TimeUnit timeUnit) throws InterruptedException;
+
+    void signal();
+
+    public interface Barrier {
+
+        boolean isOpen();
+    }
+}
@@ -8,6 +8,8 @@ import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
 import org.iterx.sora.collection.List;
 import org.iterx.sora.collection.list.LinkedList;
 
+import static org.iterx.sora.util.Exception.swallow;
+
 public final class Connector {
 
     private final List<SessionFactory<? extends Session<?, ?, ?>, ? extends Session<?, ?, ?>, ?, ?>> sessionFactories;
@@ -26,6 +28,17 @@ public final class Connector {
         return sessionFactory.newSession(this, sessionCallback, connectorEndpoint);
     }
 
+    public void destroy() {
+        for(final SessionFactory<? extends Session<?, ?, ?>, ? extends Session<?, ?, ?>, ?, ?> sessionFactory : sessionFactories) {
+            try {
+                sessionFactory.destroy();
+            }
+            catch(final Throwable throwable) {
+                swallow(throwable);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <S extends Session<?, ?, ?>, T extends Session<?, ?, ?>> SessionFactory<S, T, ?, ?> resolve(final Endpoint endpoint) {
         for(final SessionFactory<? extends Session, ? extends Session, ?, ?> sessionFactory : sessionFactories) {
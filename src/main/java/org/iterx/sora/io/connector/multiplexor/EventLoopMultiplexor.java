@@ -0,0 +1,175 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.iterx.sora.io.connector.multiplexor.selector.Selector;
+import org.iterx.sora.io.connector.multiplexor.selector.SelectorFactory;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.memory.Recycler;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.iterx.sora.util.Exception.rethrow;
+import static org.iterx.sora.util.Exception.swallow;
+
+public final class EventLoopMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>> implements Multiplexor<T> {
+
+    private final EventLoop<T>[] eventLoops;
+
+    private EventLoopMultiplexor(final EventLoop<T>[] eventLoops) {
+        this.eventLoops = eventLoops;
+    }
+
+    public static <T extends Channel<ByteBuffer, ByteBuffer>> EventLoopMultiplexor<T> newEventLoopMultiplexor(final ThreadFactory threadFactory,
+                                                                                                              final SelectorFactory<? super T> selectorFactory,
+                                                                                                              final int eventLoops) {
+        return newEventLoopMultiplexor(threadFactory, selectorFactory, eventLoops, PollPolicy.newDefaultPollPolicy());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Channel<ByteBuffer, ByteBuffer>> EventLoopMultiplexor<T> newEventLoopMultiplexor(final ThreadFactory threadFactory,
+                                                                                                              final SelectorFactory<? super T> selectorFactory,
+                                                                                                              final int eventLoops,
+                                                                                                              final PollPolicy pollPolicy) {
+        if(eventLoops < 1) throw new IllegalArgumentException("eventLoops < 1");
+        final EventLoop<T>[] newEventLoops = (EventLoop<T>[]) new EventLoop<?>[eventLoops];
+        try {
+            for(int i = 0; i != eventLoops; i++) newEventLoops[i] = new EventLoop<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy);
+            return new EventLoopMultiplexor<T>(newEventLoops);
+        }
+        catch(final Throwable throwable) {
+            for(final EventLoop<T> eventLoop : newEventLoops) if(eventLoop != null) eventLoop.destroy();
+            throw rethrow(throwable);
+        }
+    }
+
+    public PollStatistics[] getPollStatistics() {
+        final PollStatistics[] pollStatistics = new PollStatistics[eventLoops.length];
+        for(int i = 0; i != eventLoops.length; i++) pollStatistics[i] = eventLoops[i].poller;
+        return pollStatistics;
+    }
+
+    @Override
+    public void register(final Handler<? extends T> handler, final int ops) {
+        eventLoop(handler).register(handler, ops);
+    }
+
+    @Override
+    public void deregister(final Handler<? extends T> handler, final int ops) {
+        eventLoop(handler).deregister(handler, ops);
+    }
+
+    @Override
+    public void signal(final Handler<? extends T> handler, final int ops) {
+        eventLoop(handler).signal(handler, ops);
+    }
+
+    @Override
+    public HashedTimingWheel.Timeout schedule(final Handler<? extends T> handler,
+                                              final HashedTimingWheel.Task task,
+                                              final long delay,
+                                              final TimeUnit timeUnit) {
+        return eventLoop(handler).schedule(task, delay, timeUnit);
+    }
+
+    @Override
+    public void destroy() {
+        for(final EventLoop<T> eventLoop : eventLoops) eventLoop.destroy();
+    }
+
+    private EventLoop<T> eventLoop(final Handler<? extends T> handler) {
+        return eventLoops[(System.identityHashCode(handler) & Integer.MAX_VALUE) % eventLoops.length];
+    }
+
+    private static final class EventLoop<T extends Channel<ByteBuffer, ByteBuffer>> extends SelectorLoop<T> {
+
+        private final AtomicReference<Task<T>> tasks;
+        private final Recycler<Task<T>> taskRecycler;
+
+        private EventLoop(final ThreadFactory threadFactory,
+                          final Selector<T> selector,
+                          final PollPolicy pollPolicy) {
+            super(threadFactory, selector, pollPolicy);
+            this.tasks = new AtomicReference<Task<T>>();
+            this.taskRecycler = new Recycler<Task<T>>() {
+                protected Task<T> newObject() {
+                    return new Task<T>();
+                }
+
+                @Override
+                protected void reset(final Task<T> task) {
+                    task.multiplexorHandler = null;
+                    task.next = null;
+                }
+            };
+            start();
+        }
+
+        public void register(final Handler<? extends T> multiplexorHandler, final int ops) {
+            if(isLoopThread()) selector.register(multiplexorHandler, ops);
+            else submit(multiplexorHandler, ops, true);
+        }
+
+        public void deregister(final Handler<? extends T> multiplexorHandler, final int ops) {
+            if(isLoopThread()) selector.deregister(multiplexorHandler, ops);
+            else submit(multiplexorHandler, ops, false);
+        }
+
+        @Override
+        protected void onLoop() {
+            for(Task<T> task = reverse(tasks.getAndSet(null)); task != null;) {
+                final Task<T> nextTask = task.next;
+                try {
+                    if(task.register) selector.register(task.multiplexorHandler, task.ops);
+                    else selector.deregister(task.multiplexorHandler, task.ops);
+                }
+                catch(final Throwable throwable) {
+                    swallow(throwable);
+                }
+                finally {
+                    taskRecycler.recycle(task);
+                }
+                task = nextTask;
+            }
+        }
+
+        @Override
+        protected boolean isPending() {
+            return tasks.get() != null;
+        }
+
+        private void submit(final Handler<? extends T> multiplexorHandler, final int ops, final boolean register) {
+            final Task<T> task = taskRecycler.get();
+            task.multiplexorHandler = multiplexorHandler;
+            task.ops = ops;
+            task.register = register;
+            for(Task<T> headTask = tasks.get();; headTask = tasks.get()) {
+                task.next = headTask;
+                if(tasks.compareAndSet(headTask, task)) break;
+            }
+            wakeup();
+            selector.wakeup();
+        }
+
+        private static <T extends Channel<ByteBuffer, ByteBuffer>> Task<T> reverse(final Task<T> headTask) {
+            Task<T> previousTask = null;
+            for(Task<T> task = headTask; task != null;) {
+                final Task<T> nextTask = task.next;
+                task.next = previousTask;
+                previousTask = task;
+                task = nextTask;
+            }
+            return previousTask;
+        }
+    }
+
+    private static final class Task<T extends Channel<ByteBuffer, ByteBuffer>> {
+
+        private Handler<? extends T> multiplexorHandler;
+        private int ops;
+        private boolean register;
+        private Task<T> next;
+    }
+}
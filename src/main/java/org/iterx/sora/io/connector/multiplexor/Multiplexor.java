@@ -1,6 +1,7 @@
 package org.iterx.sora.io.connector.multiplexor;
 
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
 import org.iterx.sora.util.Concurrent;
 
 import java.util.concurrent.TimeUnit;
@@ -17,6 +18,10 @@ public interface Multiplexor<T extends Channel> {
 
     void deregister(Handler<? extends T> handler, int ops);
 
+    void signal(Handler<? extends T> handler, int ops);
+
+    HashedTimingWheel.Timeout schedule(Handler<? extends T> handler, HashedTimingWheel.Task task, long delay, TimeUnit timeUnit);
+
     void destroy();
 
     public interface Handler<T extends Channel> {
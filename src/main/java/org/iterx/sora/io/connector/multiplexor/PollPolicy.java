@@ -0,0 +1,100 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import java.util.concurrent.TimeUnit;
+
+public final class PollPolicy {
+
+    public static final int DEFAULT_BUSY_POLLS = (Runtime.getRuntime().availableProcessors() > 1)? 64 : 0;
+    public static final long DEFAULT_MIN_POLL_TIME = 1L;
+    public static final long DEFAULT_MAX_POLL_TIME = 1000L;
+
+    private static final PollPolicy DEFAULT_POLL_POLICY = new PollPolicy(DEFAULT_BUSY_POLLS, DEFAULT_MIN_POLL_TIME, DEFAULT_MAX_POLL_TIME, TimeUnit.MILLISECONDS);
+
+    private final int busyPolls;
+    private final long minPollNanos;
+    private final long maxPollNanos;
+
+    public PollPolicy(final int busyPolls, final long minPollTime, final long maxPollTime, final TimeUnit timeUnit) {
+        if(busyPolls < 0) throw new IllegalArgumentException("busyPolls < 0");
+        if(minPollTime < 1) throw new IllegalArgumentException("minPollTime < 1");
+        if(maxPollTime < minPollTime) throw new IllegalArgumentException("maxPollTime < minPollTime");
+        this.busyPolls = busyPolls;
+        this.minPollNanos = timeUnit.toNanos(minPollTime);
+        this.maxPollNanos = timeUnit.toNanos(maxPollTime);
+    }
+
+    public static PollPolicy newDefaultPollPolicy() {
+        return DEFAULT_POLL_POLICY;
+    }
+
+    Poller newPoller() {
+        return new Poller();
+    }
+
+    final class Poller implements PollStatistics {
+
+        private static final int INTER_ARRIVAL_WEIGHT = 3;
+
+        private volatile long busyPollCount;
+        private volatile long blockingPollCount;
+        private volatile long readyPollCount;
+        private volatile long idleWaitCount;
+
+        private int idlePolls;
+        private long pollNanos;
+        private long interArrivalNanos;
+        private long lastArrivalNanos;
+
+        private Poller() {
+            this.pollNanos = minPollNanos;
+            this.interArrivalNanos = maxPollNanos;
+            this.lastArrivalNanos = System.nanoTime();
+        }
+
+        public long getBusyPollCount() {
+            return busyPollCount;
+        }
+
+        public long getBlockingPollCount() {
+            return blockingPollCount;
+        }
+
+        public long getReadyPollCount() {
+            return readyPollCount;
+        }
+
+        public long getIdleWaitCount() {
+            return idleWaitCount;
+        }
+
+        long nextPollNanos() {
+            if(idlePolls < busyPolls) {
+                busyPollCount++;
+                return 0L;
+            }
+            blockingPollCount++;
+            return pollNanos;
+        }
+
+        long idleWaitNanos() {
+            idleWaitCount++;
+            return maxPollNanos;
+        }
+
+        void onPoll(final boolean ready) {
+            if(ready) {
+                final long now = System.nanoTime();
+                interArrivalNanos += ((now - lastArrivalNanos) - interArrivalNanos) >> INTER_ARRIVAL_WEIGHT;
+                lastArrivalNanos = now;
+                readyPollCount++;
+                idlePolls = 0;
+                pollNanos = clamp(interArrivalNanos << 1);
+            }
+            else if(++idlePolls > busyPolls) pollNanos = clamp(pollNanos << 1);
+        }
+
+        private long clamp(final long nanos) {
+            return Math.max(minPollNanos, Math.min(maxPollNanos, nanos));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+public interface PollStatistics {
+
+    long getBusyPollCount();
+
+    long getBlockingPollCount();
+
+    long getReadyPollCount();
+
+    long getIdleWaitCount();
+}
@@ -3,17 +3,12 @@ package org.iterx.sora.io.connector.multiplexor;
 import org.iterx.sora.io.connector.multiplexor.selector.Selector;
 import org.iterx.sora.io.connector.multiplexor.selector.SelectorFactory;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
 
 import java.nio.ByteBuffer;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
-import static org.iterx.sora.util.Exception.rethrow;
-import static org.iterx.sora.util.Exception.swallow;
 
 public final class PoolingMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>> implements Multiplexor<T> {
 
@@ -29,22 +24,40 @@ public final class PoolingMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>>
         this.readWorker = readWorker;
     }
 
-    @SuppressWarnings("unchecked")
     public static <T extends Channel<ByteBuffer, ByteBuffer>> PoolingMultiplexor<T> newSinglePoolingMultiplexor(final ThreadFactory threadFactory,
                                                                                                                 final SelectorFactory<? super T> selectorFactory) {
-        final Worker<T> readWriteOpenCloseWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), READ_OP|WRITE_OP|OPEN_OP|CLOSE_OP);
-        return new PoolingMultiplexor<T>(readWriteOpenCloseWorker, readWriteOpenCloseWorker, readWriteOpenCloseWorker);
+        return newSinglePoolingMultiplexor(threadFactory, selectorFactory, PollPolicy.newDefaultPollPolicy());
     }
 
     @SuppressWarnings("unchecked")
+    public static <T extends Channel<ByteBuffer, ByteBuffer>> PoolingMultiplexor<T> newSinglePoolingMultiplexor(final ThreadFactory threadFactory,
+                                                                                                                final SelectorFactory<? super T> selectorFactory,
+                                                                                                                final PollPolicy pollPolicy) {
+        final Worker<T> readWriteOpenCloseWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, READ_OP|WRITE_OP|OPEN_OP|CLOSE_OP);
+        return new PoolingMultiplexor<T>(readWriteOpenCloseWorker, readWriteOpenCloseWorker, readWriteOpenCloseWorker);
+    }
+
     public static <T extends Channel<ByteBuffer, ByteBuffer>> PoolingMultiplexor<T> newOpenReadWritePoolingMultiplexor(final ThreadFactory threadFactory,
                                                                                                                        final SelectorFactory<? super T> selectorFactory) {
-        final Worker<T> readWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), READ_OP);
-        final Worker<T> writeWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), WRITE_OP);
-        final Worker<T> openCloseWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), OPEN_OP|CLOSE_OP);
+        return newOpenReadWritePoolingMultiplexor(threadFactory, selectorFactory, PollPolicy.newDefaultPollPolicy());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Channel<ByteBuffer, ByteBuffer>> PoolingMultiplexor<T> newOpenReadWritePoolingMultiplexor(final ThreadFactory threadFactory,
+                                                                                                                       final SelectorFactory<? super T> selectorFactory,
+                                                                                                                       final PollPolicy pollPolicy) {
+        final Worker<T> readWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, READ_OP);
+        final Worker<T> writeWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, WRITE_OP);
+        final Worker<T> openCloseWorker = new Worker<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, OPEN_OP|CLOSE_OP);
         return new PoolingMultiplexor<T>(openCloseWorker, writeWorker, readWorker);
     }
 
+    public PollStatistics[] getPollStatistics() {
+        return (openCloseWorker == readWorker)?
+               new PollStatistics[] { readWorker.poller } :
+               new PollStatistics[] { openCloseWorker.poller, writeWorker.poller, readWorker.poller };
+    }
+
     @Override
     public void register(final Handler<? extends T> handler, final int ops) {
         if((ops & READ_OP) != 0) readWorker.register(handler, READ_OP);
@@ -54,9 +67,23 @@ public final class PoolingMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>>
 
     @Override
     public void deregister(final Handler<? extends T> handler, final int ops) {
-        if((ops & OPEN_OP) != 0 || (ops & CLOSE_OP) != 0) openCloseWorker.deregister(handler, OPEN_OP);
-        if((ops & WRITE_OP) != 0) writeWorker.deregister(handler, READ_OP);
-        if((ops & READ_OP) != 0 ) readWorker.deregister(handler, WRITE_OP);
+        if((ops & OPEN_OP) != 0 || (ops & CLOSE_OP) != 0) openCloseWorker.deregister(handler, ops & (OPEN_OP|CLOSE_OP));
+        if((ops & WRITE_OP) != 0) writeWorker.deregister(handler, WRITE_OP);
+        if((ops & READ_OP) != 0 ) readWorker.deregister(handler, READ_OP);
+    }
+
+    @Override
+    public void signal(final Handler<? extends T> handler, final int ops) {
+        if((ops & READ_OP) != 0) readWorker.signal(handler, READ_OP);
+        if((ops & WRITE_OP) != 0) writeWorker.signal(handler, WRITE_OP);
+    }
+
+    @Override
+    public HashedTimingWheel.Timeout schedule(final Handler<? extends T> handler,
+                                              final HashedTimingWheel.Task task,
+                                              final long delay,
+                                              final TimeUnit timeUnit) {
+        return openCloseWorker.schedule(task, delay, timeUnit);
     }
 
     @Override
@@ -66,55 +93,19 @@ public final class PoolingMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>>
         readWorker.destroy();
     }
 
-    private static final class Worker<T extends Channel<ByteBuffer, ByteBuffer>> implements Runnable {
+    private static final class Worker<T extends Channel<ByteBuffer, ByteBuffer>> extends SelectorLoop<T> {
 
-        private final Thread thread;
-        private final CountDownLatch startSignal;
-        private final CountDownLatch destroySignal;
-        private final Lock wakeupLock;
-        private final Condition wakeupCondition;
-
-        private final Selector<T> selector;
         private final int validOps;
 
-        private final long pollTime = 1000L; //TODO: read in via properties or self-tune
+        private volatile boolean pendingWakeup;
 
         private Worker(final ThreadFactory threadFactory,
                        final Selector<T> selector,
+                       final PollPolicy pollPolicy,
                        final int validOps) {
-            this.thread = threadFactory.newThread(this);
-            this.wakeupLock = new ReentrantLock();
-            this.wakeupCondition = wakeupLock.newCondition();
-            this.startSignal = new CountDownLatch(1);
-            this.destroySignal = new CountDownLatch(1);
-            this.selector = selector;
+            super(threadFactory, selector, pollPolicy);
             this.validOps = validOps;
-            init();
-        }
-
-        private void init() {
-             try {
-                thread.start();
-                startSignal.await();
-            }
-            catch(final Exception e) {
-                throw rethrow(e);
-            }
-        }
-
-        public void run() {
-            try {
-                startSignal.countDown();
-                while(!Thread.currentThread().isInterrupted()) {
-                    if(selector.isReady()) {
-                        if(selector.poll(pollTime, TimeUnit.MILLISECONDS)) continue;
-                    }
-                    sleep(pollTime, TimeUnit.MILLISECONDS);
-                }
-              }
-              finally {
-                  destroySignal.countDown();
-              }
+            start();
         }
 
         public void register(final Handler<? extends T> multiplexorHandler, final int ops) {
@@ -129,49 +120,20 @@ public final class PoolingMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>>
             }
         }
 
-        public void destroy() {
-            try {
-                if(destroySignal.getCount() != 0) {
-                    try {
-                        try {
-                            selector.destroy();
-                        }
-                        catch(final Throwable throwable) {
-                            swallow(throwable);
-                        }
-                     }
-                    finally {
-                        thread.interrupt();
-                    }
-                }
-                destroySignal.await();
-            }
-            catch(final InterruptedException e) {
-                swallow(e);
-            }
+        @Override
+        protected void wakeup() {
+            pendingWakeup = true;
+            super.wakeup();
         }
 
-        private void sleep(final long time, final TimeUnit timeUnit) {
-            wakeupLock.lock();
-            try {
-                wakeupCondition.await(time, timeUnit);
-            }
-            catch(final InterruptedException e) {
-                swallow(e);
-            }
-            finally {
-                wakeupLock.unlock();
-            }
+        @Override
+        protected void onLoop() {
+            pendingWakeup = false;
         }
 
-        private void wakeup() {
-            wakeupLock.lock();
-            try {
-                wakeupCondition.signalAll();
-            }
-            finally {
-                wakeupLock.unlock();
-            }
+        @Override
+        protected boolean isPending() {
+            return pendingWakeup;
         }
     }
 }
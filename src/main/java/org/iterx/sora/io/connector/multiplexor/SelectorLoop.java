@@ -0,0 +1,139 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.iterx.sora.collection.queue.WaitStrategies;
+import org.iterx.sora.collection.queue.WaitStrategy;
+import org.iterx.sora.io.connector.multiplexor.selector.Selector;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
+import org.iterx.sora.util.clock.Clock;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.iterx.sora.util.Exception.rethrow;
+import static org.iterx.sora.util.Exception.swallow;
+
+abstract class SelectorLoop<T extends Channel<ByteBuffer, ByteBuffer>> implements Runnable {
+
+    protected final Selector<T> selector;
+    protected final PollPolicy.Poller poller;
+    protected final HashedTimingWheel timingWheel;
+
+    private final Thread thread;
+    private final CountDownLatch startSignal;
+    private final CountDownLatch destroySignal;
+    private final WaitStrategy waitStrategy;
+    private final WaitStrategy.Barrier wakeupBarrier;
+
+    private volatile boolean signalled;
+
+    protected SelectorLoop(final ThreadFactory threadFactory,
+                           final Selector<T> selector,
+                           final PollPolicy pollPolicy) {
+        this.thread = threadFactory.newThread(this);
+        this.startSignal = new CountDownLatch(1);
+        this.destroySignal = new CountDownLatch(1);
+        this.waitStrategy = WaitStrategies.newSpinParkWaitStrategy();
+        this.wakeupBarrier = new WakeupBarrier();
+        this.selector = selector;
+        this.poller = pollPolicy.newPoller();
+        this.timingWheel = new HashedTimingWheel();
+    }
+
+    public final void run() {
+        try {
+            startSignal.countDown();
+            while(!Thread.currentThread().isInterrupted()) {
+                signalled = false;
+                onLoop();
+                timingWheel.expire(Clock.currentTime(TimeUnit.MILLISECONDS));
+                if(selector.isReady()) {
+                    final long pollNanos = timingWheel.nextTickNanos(poller.nextPollNanos());
+                    final long start = System.nanoTime();
+                    final boolean ready = selector.poll(pollNanos, TimeUnit.NANOSECONDS);
+                    poller.onPoll(ready);
+                    if(ready || pollNanos == 0 || signalled || isPending()) continue;
+                    final long remaining = pollNanos - (System.nanoTime() - start);
+                    if(remaining > 0) waitStrategy.await(wakeupBarrier, remaining, TimeUnit.NANOSECONDS);
+                }
+                else waitStrategy.await(wakeupBarrier, timingWheel.nextTickNanos(poller.idleWaitNanos()), TimeUnit.NANOSECONDS);
+            }
+        }
+        catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            destroySignal.countDown();
+        }
+    }
+
+    public HashedTimingWheel.Timeout schedule(final HashedTimingWheel.Task task, final long delay, final TimeUnit timeUnit) {
+        final boolean empty = timingWheel.isEmpty();
+        final HashedTimingWheel.Timeout timeout = timingWheel.schedule(task, delay, timeUnit);
+        if(empty && !isLoopThread()) {
+            wakeup();
+            selector.wakeup();
+        }
+        return timeout;
+    }
+
+    public void signal(final Multiplexor.Handler<? extends T> multiplexorHandler, final int ops) {
+        if(selector.signal(multiplexorHandler, ops) && !isLoopThread()) {
+            signalled = true;
+            wakeup();
+        }
+    }
+
+    public void destroy() {
+        try {
+            if(destroySignal.getCount() != 0) {
+                try {
+                    try {
+                        selector.destroy();
+                    }
+                    catch(final Throwable throwable) {
+                        swallow(throwable);
+                    }
+                }
+                finally {
+                    thread.interrupt();
+                }
+            }
+            destroySignal.await();
+        }
+        catch(final InterruptedException e) {
+            swallow(e);
+        }
+    }
+
+    protected final void start() {
+        try {
+            thread.start();
+            startSignal.await();
+        }
+        catch(final Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    protected final boolean isLoopThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    protected void wakeup() {
+        waitStrategy.signal();
+    }
+
+    protected abstract void onLoop();
+
+    protected abstract boolean isPending();
+
+    private final class WakeupBarrier implements WaitStrategy.Barrier {
+
+        public boolean isOpen() {
+            return signalled || isPending() || timingWheel.hasPending();
+        }
+    }
+}
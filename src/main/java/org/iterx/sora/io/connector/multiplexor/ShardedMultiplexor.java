@@ -0,0 +1,403 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.iterx.sora.io.connector.multiplexor.selector.Selector;
+import org.iterx.sora.io.connector.multiplexor.selector.SelectorFactory;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.iterx.sora.util.Exception.rethrow;
+
+public final class ShardedMultiplexor<T extends Channel<ByteBuffer, ByteBuffer>> implements Multiplexor<T> {
+
+    public static final long DEFAULT_REBALANCE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int REBALANCE_THRESHOLD_PERCENT = 125;
+
+    public enum Placement { HASH, LEAST_LOADED }
+
+    private final ConcurrentMap<Handler<? extends T>, ShardedHandler<T>> shardedHandlers;
+    private final Placement placement;
+
+    private final Shard<T> openCloseShard;
+    private final Shard<T>[] readShards;
+    private final Shard<T>[] writeShards;
+
+    private ShardedMultiplexor(final Placement placement,
+                               final Shard<T> openCloseShard,
+                               final Shard<T>[] readShards,
+                               final Shard<T>[] writeShards) {
+        this.shardedHandlers = new ConcurrentHashMap<Handler<? extends T>, ShardedHandler<T>>();
+        this.placement = placement;
+        this.openCloseShard = openCloseShard;
+        this.readShards = readShards;
+        this.writeShards = writeShards;
+    }
+
+    public static <T extends Channel<ByteBuffer, ByteBuffer>> ShardedMultiplexor<T> newShardedMultiplexor(final ThreadFactory threadFactory,
+                                                                                                          final SelectorFactory<? super T> selectorFactory,
+                                                                                                          final int readShards,
+                                                                                                          final int writeShards) {
+        return newShardedMultiplexor(threadFactory, selectorFactory, readShards, writeShards, Placement.LEAST_LOADED,
+                                     PollPolicy.newDefaultPollPolicy(), DEFAULT_REBALANCE_INTERVAL, TimeUnit.NANOSECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Channel<ByteBuffer, ByteBuffer>> ShardedMultiplexor<T> newShardedMultiplexor(final ThreadFactory threadFactory,
+                                                                                                          final SelectorFactory<? super T> selectorFactory,
+                                                                                                          final int readShards,
+                                                                                                          final int writeShards,
+                                                                                                          final Placement placement,
+                                                                                                          final PollPolicy pollPolicy,
+                                                                                                          final long rebalanceInterval,
+                                                                                                          final TimeUnit timeUnit) {
+        if(readShards < 1) throw new IllegalArgumentException("readShards < 1");
+        if(writeShards < 1) throw new IllegalArgumentException("writeShards < 1");
+        if(placement == null) throw new IllegalArgumentException("placement == null");
+        if(rebalanceInterval < 1) throw new IllegalArgumentException("rebalanceInterval < 1");
+
+        final long rebalanceNanos = timeUnit.toNanos(rebalanceInterval);
+        final Shard<T>[] newReadShards = (Shard<T>[]) new Shard<?>[readShards];
+        final Shard<T>[] newWriteShards = (Shard<T>[]) new Shard<?>[writeShards];
+        Shard<T> newOpenCloseShard = null;
+        try {
+            for(int i = 0; i != readShards; i++) newReadShards[i] = new Shard<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, READ_OP, newReadShards, rebalanceNanos);
+            for(int i = 0; i != writeShards; i++) newWriteShards[i] = new Shard<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, WRITE_OP, newWriteShards, rebalanceNanos);
+            newOpenCloseShard = new Shard<T>(threadFactory, (Selector<T>) selectorFactory.newSelector(), pollPolicy, OPEN_OP|CLOSE_OP, null, rebalanceNanos);
+            return new ShardedMultiplexor<T>(placement, newOpenCloseShard, newReadShards, newWriteShards);
+        }
+        catch(final Throwable throwable) {
+            for(final Shard<T> shard : newReadShards) if(shard != null) shard.destroy();
+            for(final Shard<T> shard : newWriteShards) if(shard != null) shard.destroy();
+            if(newOpenCloseShard != null) newOpenCloseShard.destroy();
+            throw rethrow(throwable);
+        }
+    }
+
+    public PollStatistics[] getPollStatistics() {
+        final PollStatistics[] pollStatistics = new PollStatistics[1 + readShards.length + writeShards.length];
+        int index = 0;
+        pollStatistics[index++] = openCloseShard.poller;
+        for(final Shard<T> shard : readShards) pollStatistics[index++] = shard.poller;
+        for(final Shard<T> shard : writeShards) pollStatistics[index++] = shard.poller;
+        return pollStatistics;
+    }
+
+    @Override
+    public void register(final Handler<? extends T> handler, final int ops) {
+        while(true) {
+            final ShardedHandler<T> shardedHandler = getShardedHandler(handler);
+            synchronized(shardedHandler) {
+                if(shardedHandlers.get(handler) == shardedHandler) {
+                    if((ops & READ_OP) != 0) register(shardedHandler, READ_OP, readShards);
+                    if((ops & WRITE_OP) != 0) register(shardedHandler, WRITE_OP, writeShards);
+                    if((ops & (OPEN_OP|CLOSE_OP)) != 0) {
+                        shardedHandler.ops |= (OPEN_OP|CLOSE_OP);
+                        openCloseShard.register(shardedHandler, OPEN_OP|CLOSE_OP);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deregister(final Handler<? extends T> handler, final int ops) {
+        final ShardedHandler<T> shardedHandler = shardedHandlers.get(handler);
+        if(shardedHandler != null) {
+            synchronized(shardedHandler) {
+                if((ops & (OPEN_OP|CLOSE_OP)) != 0) {
+                    openCloseShard.deregister(shardedHandler, ops & (OPEN_OP|CLOSE_OP));
+                    if((ops & CLOSE_OP) != 0) shardedHandler.ops &= ~(OPEN_OP|CLOSE_OP);
+                }
+                if((ops & WRITE_OP) != 0) deregister(shardedHandler, WRITE_OP);
+                if((ops & READ_OP) != 0) deregister(shardedHandler, READ_OP);
+                if((ops & CLOSE_OP) != 0 || shardedHandler.ops == 0) {
+                    unassign(shardedHandler, READ_OP);
+                    unassign(shardedHandler, WRITE_OP);
+                    shardedHandler.ops = 0;
+                    shardedHandlers.remove(handler, shardedHandler);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void signal(final Handler<? extends T> handler, final int ops) {
+        final ShardedHandler<T> shardedHandler = shardedHandlers.get(handler);
+        if(shardedHandler != null) {
+            if((ops & READ_OP) != 0) signal(shardedHandler, READ_OP);
+            if((ops & WRITE_OP) != 0) signal(shardedHandler, WRITE_OP);
+        }
+    }
+
+    @Override
+    public HashedTimingWheel.Timeout schedule(final Handler<? extends T> handler,
+                                              final HashedTimingWheel.Task task,
+                                              final long delay,
+                                              final TimeUnit timeUnit) {
+        return openCloseShard.schedule(task, delay, timeUnit);
+    }
+
+    @Override
+    public void destroy() {
+        openCloseShard.destroy();
+        for(final Shard<T> shard : writeShards) shard.destroy();
+        for(final Shard<T> shard : readShards) shard.destroy();
+        shardedHandlers.clear();
+    }
+
+    private ShardedHandler<T> getShardedHandler(final Handler<? extends T> handler) {
+        ShardedHandler<T> shardedHandler = shardedHandlers.get(handler);
+        if(shardedHandler == null) {
+            final ShardedHandler<T> newShardedHandler = new ShardedHandler<T>(handler);
+            shardedHandler = shardedHandlers.putIfAbsent(handler, newShardedHandler);
+            if(shardedHandler == null) shardedHandler = newShardedHandler;
+        }
+        return shardedHandler;
+    }
+
+    private void register(final ShardedHandler<T> shardedHandler, final int op, final Shard<T>[] shards) {
+        Shard<T> shard = shardedHandler.getShard(op);
+        if(shard == null) {
+            shard = place(shardedHandler, shards);
+            shardedHandler.setShard(op, shard);
+            shard.assign(shardedHandler);
+        }
+        shardedHandler.ops |= op;
+        shard.register(shardedHandler, op);
+    }
+
+    private void deregister(final ShardedHandler<T> shardedHandler, final int op) {
+        final Shard<T> shard = shardedHandler.getShard(op);
+        if(shard != null) {
+            shard.deregister(shardedHandler, op);
+            shardedHandler.ops &= ~op;
+        }
+    }
+
+    private void unassign(final ShardedHandler<T> shardedHandler, final int op) {
+        final Shard<T> shard = shardedHandler.getShard(op);
+        if(shard != null) {
+            if((shardedHandler.ops & op) != 0) shard.deregister(shardedHandler, op);
+            shard.unassign(shardedHandler);
+            shardedHandler.setShard(op, null);
+        }
+    }
+
+    private void signal(final ShardedHandler<T> shardedHandler, final int op) {
+        final Shard<T> shard = shardedHandler.getShard(op);
+        if(shard != null) shard.signal(shardedHandler, op);
+    }
+
+    private Shard<T> place(final ShardedHandler<T> shardedHandler, final Shard<T>[] shards) {
+        switch(placement) {
+            case HASH:
+                return shards[(System.identityHashCode(shardedHandler.handler) & Integer.MAX_VALUE) % shards.length];
+            default:
+                Shard<T> leastLoaded = shards[0];
+                for(int i = 1; i != shards.length; i++) {
+                    if(shards[i].count.get() < leastLoaded.count.get()) leastLoaded = shards[i];
+                }
+                return leastLoaded;
+        }
+    }
+
+    private static final class ShardedHandler<T extends Channel<ByteBuffer, ByteBuffer>> implements Handler<T> {
+
+        private final Handler<? extends T> handler;
+
+        private volatile Shard<T> readShard;
+        private volatile Shard<T> writeShard;
+        private int ops;
+
+        private long readBytes;
+        private long writeBytes;
+        private long readMark;
+        private long writeMark;
+        private long rate;
+
+        private ShardedHandler(final Handler<? extends T> handler) {
+            this.handler = handler;
+        }
+
+        public T getChannel() {
+            return handler.getChannel();
+        }
+
+        public void doOpen() {
+            handler.doOpen();
+        }
+
+        public int doRead(final int length) {
+            final int read = handler.doRead(length);
+            if(read > 0) readBytes += read;
+            return read;
+        }
+
+        public int doWrite(final int length) {
+            final int written = handler.doWrite(length);
+            if(written > 0) writeBytes += written;
+            return written;
+        }
+
+        public void doClose() {
+            handler.doClose();
+        }
+
+        private Shard<T> getShard(final int op) {
+            return (op == READ_OP)? readShard : writeShard;
+        }
+
+        private void setShard(final int op, final Shard<T> shard) {
+            if(op == READ_OP) readShard = shard;
+            else writeShard = shard;
+        }
+
+        private long sample(final int op) {
+            final long bytes = (op == READ_OP)? readBytes : writeBytes;
+            final long delta;
+            if(op == READ_OP) {
+                delta = bytes - readMark;
+                readMark = bytes;
+            }
+            else {
+                delta = bytes - writeMark;
+                writeMark = bytes;
+            }
+            return delta;
+        }
+    }
+
+    private static final class Shard<T extends Channel<ByteBuffer, ByteBuffer>> extends SelectorLoop<T> {
+
+        private final int validOps;
+
+        private final Shard<T>[] peers;
+        private final Set<ShardedHandler<T>> shardedHandlers;
+        private final AtomicInteger count;
+        private final AtomicLong load;
+        private final long rebalanceNanos;
+
+        private volatile boolean pendingWakeup;
+        private long lastRebalance;
+
+        private Shard(final ThreadFactory threadFactory,
+                      final Selector<T> selector,
+                      final PollPolicy pollPolicy,
+                      final int validOps,
+                      final Shard<T>[] peers,
+                      final long rebalanceNanos) {
+            super(threadFactory, selector, pollPolicy);
+            this.validOps = validOps;
+            this.peers = peers;
+            this.shardedHandlers = Collections.newSetFromMap(new ConcurrentHashMap<ShardedHandler<T>, Boolean>());
+            this.count = new AtomicInteger();
+            this.load = new AtomicLong();
+            this.rebalanceNanos = rebalanceNanos;
+            this.lastRebalance = System.nanoTime();
+            start();
+        }
+
+        public void register(final Handler<? extends T> multiplexorHandler, final int ops) {
+            if((ops & validOps) != 0) {
+                if(selector.register(multiplexorHandler, ops & validOps)) wakeup();
+            }
+        }
+
+        public void deregister(final Handler<? extends T> multiplexorHandler, final int ops) {
+            if((ops & validOps) != 0) {
+                selector.deregister(multiplexorHandler, ops & validOps);
+            }
+        }
+
+        @Override
+        protected void wakeup() {
+            pendingWakeup = true;
+            super.wakeup();
+        }
+
+        @Override
+        protected void onLoop() {
+            pendingWakeup = false;
+            if(peers != null) rebalance();
+        }
+
+        @Override
+        protected boolean isPending() {
+            return pendingWakeup;
+        }
+
+        private void assign(final ShardedHandler<T> shardedHandler) {
+            if(shardedHandlers.add(shardedHandler)) count.incrementAndGet();
+        }
+
+        private void unassign(final ShardedHandler<T> shardedHandler) {
+            if(shardedHandlers.remove(shardedHandler)) count.decrementAndGet();
+        }
+
+        private void rebalance() {
+            final long now = System.nanoTime();
+            final long elapsed = now - lastRebalance;
+            if(elapsed >= rebalanceNanos) {
+                lastRebalance = now;
+
+                long bytes = 0;
+                for(final ShardedHandler<T> shardedHandler : shardedHandlers) {
+                    shardedHandler.rate = toBytesPerSecond(shardedHandler.sample(validOps), elapsed);
+                    bytes += shardedHandler.rate;
+                }
+                load.set(bytes);
+
+                Shard<T> target = this;
+                long targetLoad = bytes;
+                for(final Shard<T> peer : peers) {
+                    final long peerLoad = peer.load.get();
+                    if(peerLoad < targetLoad) {
+                        target = peer;
+                        targetLoad = peerLoad;
+                    }
+                }
+                if(target != this && bytes * 100 > targetLoad * REBALANCE_THRESHOLD_PERCENT) {
+                    final long difference = bytes - targetLoad;
+                    ShardedHandler<T> candidate = null;
+                    for(final ShardedHandler<T> shardedHandler : shardedHandlers) {
+                        final long rate = shardedHandler.rate;
+                        if(rate > 0 && rate < difference &&
+                           (candidate == null || Math.abs(difference - (rate << 1)) < Math.abs(difference - (candidate.rate << 1)))) candidate = shardedHandler;
+                    }
+                    if(candidate != null) migrate(candidate, target);
+                }
+            }
+        }
+
+        private void migrate(final ShardedHandler<T> shardedHandler, final Shard<T> target) {
+            synchronized(shardedHandler) {
+                if(shardedHandler.getShard(validOps) == this) {
+                    selector.deregister(shardedHandler, validOps);
+                    unassign(shardedHandler);
+                    load.addAndGet(-shardedHandler.rate);
+                    target.load.addAndGet(shardedHandler.rate);
+                    shardedHandler.setShard(validOps, target);
+                    target.assign(shardedHandler);
+                    if((shardedHandler.ops & validOps) != 0) target.register(shardedHandler, validOps);
+                }
+            }
+        }
+
+        private static long toBytesPerSecond(final long bytes, final long elapsedNanos) {
+            return (bytes < Long.MAX_VALUE / TimeUnit.SECONDS.toNanos(1))?
+                   (bytes * TimeUnit.SECONDS.toNanos(1)) / elapsedNanos :
+                   bytes / Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.iterx.sora.io.connector.multiplexor.selector;
+
+public final class AdaptiveQuantum {
+
+    public static final int DEFAULT_MIN_QUANTUM = 1024;
+    public static final int DEFAULT_MAX_QUANTUM = 256 * 1024;
+    public static final int DEFAULT_BUDGET = 1024 * 1024;
+
+    private final int minQuantum;
+    private final int maxQuantum;
+
+    private int quantum;
+
+    public AdaptiveQuantum(final int quantum) {
+        this(DEFAULT_MIN_QUANTUM, quantum, DEFAULT_MAX_QUANTUM);
+    }
+
+    public AdaptiveQuantum(final int minQuantum, final int quantum, final int maxQuantum) {
+        if(minQuantum < 1) throw new IllegalArgumentException("minQuantum < 1");
+        if(quantum < minQuantum || quantum > maxQuantum) throw new IllegalArgumentException("quantum < minQuantum || quantum > maxQuantum");
+        this.minQuantum = minQuantum;
+        this.maxQuantum = maxQuantum;
+        this.quantum = quantum;
+    }
+
+    public int get() {
+        return quantum;
+    }
+
+    public int next(final int budget) {
+        return Math.min(quantum, Math.max(budget, minQuantum));
+    }
+
+    public int update(final int length, final int used) {
+        if(used >= length) {
+            if(length == quantum) quantum = Math.min(quantum << 1, maxQuantum);
+        }
+        else if(used < (length >> 2)) quantum = Math.max(quantum >> 1, minQuantum);
+        return Math.max(used, 0);
+    }
+}
@@ -1,13 +1,10 @@
 package org.iterx.sora.io.connector.multiplexor.selector;
 
-import org.iterx.sora.collection.Arrays;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.Channel;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 public final class GeneralSelectorFactory implements SelectorFactory<Channel<ByteBuffer, ByteBuffer>> {
 
@@ -17,15 +14,27 @@ public final class GeneralSelectorFactory implements SelectorFactory<Channel<Byt
 
     private static final class GeneralSelector implements Selector<Channel<ByteBuffer, ByteBuffer>> {
 
-        private final Lock lock;
+        private static final int READ_QUANTUM = AdaptiveQuantum.DEFAULT_MIN_QUANTUM;
+        private static final int WRITE_QUANTUM = AdaptiveQuantum.DEFAULT_MIN_QUANTUM;
 
-        private volatile Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>>[] readMultiplexorHandlers;
-        private volatile Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>>[] writeMultiplexorHandlers;
+        private final int budget = AdaptiveQuantum.DEFAULT_BUDGET;
+
+        private final ReadyList<Channel<ByteBuffer, ByteBuffer>> readReadyList;
+        private final ReadyList<Channel<ByteBuffer, ByteBuffer>> writeReadyList;
 
         private GeneralSelector() {
-            this.readMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-            this.writeMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-            this.lock = new ReentrantLock();
+            this.readReadyList = new ReadyList<Channel<ByteBuffer, ByteBuffer>>(READ_QUANTUM) {
+
+                protected int doReady(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler, final int length) {
+                    return multiplexorHandler.doRead(length);
+                }
+            };
+            this.writeReadyList = new ReadyList<Channel<ByteBuffer, ByteBuffer>>(WRITE_QUANTUM) {
+
+                protected int doReady(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler, final int length) {
+                    return multiplexorHandler.doWrite(length);
+                }
+            };
         }
 
         public boolean supports(final Multiplexor.Handler<?> multiplexorHandler) {
@@ -33,60 +42,38 @@ public final class GeneralSelectorFactory implements SelectorFactory<Channel<Byt
         }
 
         public boolean isReady() {
-            return (writeMultiplexorHandlers.length != 0 || readMultiplexorHandlers.length != 0);
+            return writeReadyList.isReady() || readReadyList.isReady();
         }
 
         public boolean poll(final long time, final TimeUnit timeUnit) {
-            return doWrite() | doRead();
+            return (writeReadyList.poll(budget) | readReadyList.poll(budget)) != 0;
         }
 
         public boolean register(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler, final int ops) {
-            lock.lock();
-            try {
-                if((ops & Multiplexor.READ_OP) != 0) readMultiplexorHandlers = Arrays.add(readMultiplexorHandlers, multiplexorHandler);
-                if((ops & Multiplexor.WRITE_OP) != 0) writeMultiplexorHandlers = Arrays.add(writeMultiplexorHandlers, multiplexorHandler);
-                return true;
-            }
-            finally {
-                lock.unlock();
-            }
+            if((ops & Multiplexor.READ_OP) != 0) readReadyList.add(multiplexorHandler);
+            if((ops & Multiplexor.WRITE_OP) != 0) writeReadyList.add(multiplexorHandler);
+            return true;
         }
 
         public boolean deregister(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler, final int ops) {
-            lock.lock();
-            try {
-                if((ops & Multiplexor.READ_OP) != 0) readMultiplexorHandlers = Arrays.remove(readMultiplexorHandlers, multiplexorHandler);
-                if((ops & Multiplexor.WRITE_OP) != 0) writeMultiplexorHandlers = Arrays.remove(writeMultiplexorHandlers, multiplexorHandler);
-                return true;
-            }
-            finally {
-                lock.unlock();
-            }
+            if((ops & Multiplexor.READ_OP) != 0) readReadyList.remove(multiplexorHandler);
+            if((ops & Multiplexor.WRITE_OP) != 0) writeReadyList.remove(multiplexorHandler);
+            return true;
         }
 
-        public void destroy() {
-            lock.lock();
-            try {
-                readMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-                writeMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-            }
-            finally {
-                lock.unlock();
-            }
+        public boolean signal(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler, final int ops) {
+            boolean signalled = false;
+            if((ops & Multiplexor.READ_OP) != 0) signalled |= readReadyList.signal(multiplexorHandler);
+            if((ops & Multiplexor.WRITE_OP) != 0) signalled |= writeReadyList.signal(multiplexorHandler);
+            return signalled;
         }
 
-        private boolean doRead() {
-            final Multiplexor.Handler[] multiplexorHandlers = readMultiplexorHandlers;
-            int read = 0;
-            for(final Multiplexor.Handler multiplexorHandler : multiplexorHandlers) read += multiplexorHandler.doRead(1024);
-            return (read != 0);
+        public void wakeup() {
         }
 
-        private boolean doWrite() {
-            final Multiplexor.Handler[] multiplexorHandlers = writeMultiplexorHandlers;
-            int written = 0;
-            for(final Multiplexor.Handler multiplexorHandler : multiplexorHandlers) written += multiplexorHandler.doWrite(1024);
-            return (written != 0);
+        public void destroy() {
+            readReadyList.clear();
+            writeReadyList.clear();
         }
     }
 }
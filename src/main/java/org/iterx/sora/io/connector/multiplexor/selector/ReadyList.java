@@ -0,0 +1,178 @@
+package org.iterx.sora.io.connector.multiplexor.selector;
+
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.Channel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public abstract class ReadyList<T extends Channel<?, ?>> {
+
+    public static final long DEFAULT_SWEEP_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final ConcurrentMap<Multiplexor.Handler<? extends T>, Entry<T>> entries;
+    private final AtomicReference<Entry<T>> signalled;
+    private final int quantum;
+    private final long sweepInterval;
+
+    private Entry<T>[] active;
+    private int activeSize;
+    private long lastSweep;
+
+    protected ReadyList(final int quantum) {
+        this(quantum, 0L);
+    }
+
+    protected ReadyList(final int quantum, final long sweepInterval, final TimeUnit timeUnit) {
+        this(quantum, toSweepInterval(sweepInterval, timeUnit));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReadyList(final int quantum, final long sweepInterval) {
+        this.entries = new ConcurrentHashMap<Multiplexor.Handler<? extends T>, Entry<T>>();
+        this.signalled = new AtomicReference<Entry<T>>();
+        this.active = (Entry<T>[]) new Entry<?>[DEFAULT_CAPACITY];
+        this.quantum = quantum;
+        this.sweepInterval = sweepInterval;
+        this.lastSweep = System.nanoTime();
+    }
+
+    public void add(final Multiplexor.Handler<? extends T> multiplexorHandler) {
+        Entry<T> entry = entries.get(multiplexorHandler);
+        if(entry == null) {
+            final Entry<T> newEntry = new Entry<T>(multiplexorHandler, quantum);
+            entry = entries.putIfAbsent(multiplexorHandler, newEntry);
+            if(entry == null) entry = newEntry;
+        }
+        signal(entry);
+    }
+
+    public boolean signal(final Multiplexor.Handler<? extends T> multiplexorHandler) {
+        final Entry<T> entry = entries.get(multiplexorHandler);
+        if(entry == null) return false;
+        signal(entry);
+        return true;
+    }
+
+    public void remove(final Multiplexor.Handler<? extends T> multiplexorHandler) {
+        final Entry<T> entry = entries.remove(multiplexorHandler);
+        if(entry != null) entry.registered = false;
+    }
+
+    public void clear() {
+        for(final Multiplexor.Handler<? extends T> multiplexorHandler : entries.keySet()) remove(multiplexorHandler);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public boolean isReady() {
+        return activeSize != 0 ||
+               signalled.get() != null ||
+               (sweepInterval != 0 && !entries.isEmpty() && System.nanoTime() - lastSweep >= sweepInterval);
+    }
+
+    public int poll(int budget) {
+        drain();
+        sweep();
+
+        int total = 0;
+        int size = 0;
+        for(int i = 0; i != activeSize; i++) {
+            final Entry<T> entry = active[i];
+            active[i] = null;
+            if(entry.registered) {
+                final int length = entry.quantum.next(budget);
+                final int used = entry.quantum.update(length, doReady(entry.multiplexorHandler, length));
+                if(used != 0) {
+                    budget -= used;
+                    total += used;
+                    active[size++] = entry;
+                    continue;
+                }
+            }
+            entry.active = false;
+        }
+        activeSize = size;
+        return total;
+    }
+
+    protected abstract int doReady(Multiplexor.Handler<? extends T> multiplexorHandler, int length);
+
+    protected boolean isIdleReady(final Multiplexor.Handler<? extends T> multiplexorHandler) {
+        return false;
+    }
+
+    private static long toSweepInterval(final long sweepInterval, final TimeUnit timeUnit) {
+        final long nanos = timeUnit.toNanos(sweepInterval);
+        if(nanos < 1) throw new IllegalArgumentException("sweepInterval < 1ns");
+        return nanos;
+    }
+
+    private void signal(final Entry<T> entry) {
+        if(entry.signalled.compareAndSet(false, true)) {
+            for(Entry<T> head = signalled.get(); ; head = signalled.get()) {
+                entry.next = head;
+                if(signalled.compareAndSet(head, entry)) break;
+            }
+        }
+    }
+
+    private void drain() {
+        Entry<T> entry = null;
+        for(Entry<T> head = signalled.getAndSet(null), next; head != null; head = next) {
+            next = head.next;
+            head.next = entry;
+            entry = head;
+        }
+        for(Entry<T> next; entry != null; entry = next) {
+            next = entry.next;
+            entry.next = null;
+            entry.signalled.set(false);
+            if(entry.registered) activate(entry);
+        }
+    }
+
+    private void sweep() {
+        if(sweepInterval == 0) return;
+        final long now = System.nanoTime();
+        if(now - lastSweep >= sweepInterval) {
+            lastSweep = now;
+            for(final Entry<T> entry : entries.values()) {
+                if(!entry.active && isIdleReady(entry.multiplexorHandler)) activate(entry);
+            }
+        }
+    }
+
+    private void activate(final Entry<T> entry) {
+        if(!entry.active) {
+            if(activeSize == active.length) active = java.util.Arrays.copyOf(active, activeSize << 1);
+            active[activeSize++] = entry;
+            entry.active = true;
+        }
+    }
+
+    private static final class Entry<T extends Channel<?, ?>> {
+
+        private final Multiplexor.Handler<? extends T> multiplexorHandler;
+        private final AdaptiveQuantum quantum;
+        private final AtomicBoolean signalled;
+
+        private volatile boolean registered;
+        private boolean active;
+        private Entry<T> next;
+
+        private Entry(final Multiplexor.Handler<? extends T> multiplexorHandler, final int quantum) {
+            this.multiplexorHandler = multiplexorHandler;
+            this.quantum = new AdaptiveQuantum(quantum);
+            this.signalled = new AtomicBoolean();
+            this.registered = true;
+        }
+    }
+}
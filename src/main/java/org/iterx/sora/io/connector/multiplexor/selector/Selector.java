@@ -18,5 +18,9 @@ public interface Selector<T extends Channel<ByteBuffer, ByteBuffer>> {
 
     boolean deregister(Multiplexor.Handler<? extends T> multiplexorHandler, int ops);
 
+    boolean signal(Multiplexor.Handler<? extends T> multiplexorHandler, int ops);
+
+    void wakeup();
+
     void destroy();
 }
@@ -20,6 +20,14 @@ public abstract class AbstractChannel<R, W> implements Channel<R, W> {
         return this;
     }
 
+    public <T> Channel<R, W> setOption(final ChannelOption<T> option, final T value) {
+        throw new UnsupportedOperationException(String.valueOf(option));
+    }
+
+    public <T> T getOption(final ChannelOption<T> option) {
+        throw new UnsupportedOperationException(String.valueOf(option));
+    }
+
     protected State onOpening() {
         return State.OPENED;
     }
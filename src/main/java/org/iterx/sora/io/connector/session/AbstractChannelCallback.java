@@ -15,6 +15,9 @@ public abstract class AbstractChannelCallback<C extends Channel<R, W>, R, W> imp
     public void onWrite(final C channel, final W value) {
     }
 
+    public void onWritabilityChanged(final C channel, final boolean writable) {
+    }
+
     public void onAbort(final C channel, final Throwable throwable) {
     }
 }
@@ -22,6 +22,10 @@ public abstract class AbstractSession<C extends Channel<R, W>, R, W> implements
         return this;
     }
 
+    public <T> Session<C, R, W> setOption(final ChannelOption<T> option, final T value) {
+        throw new UnsupportedOperationException(String.valueOf(option));
+    }
+
     protected State onOpening() {
         return State.OPENED;
     }
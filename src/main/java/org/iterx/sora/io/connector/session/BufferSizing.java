@@ -0,0 +1,39 @@
+package org.iterx.sora.io.connector.session;
+
+import java.util.concurrent.TimeUnit;
+
+public final class BufferSizing {
+
+    public static final int DEFAULT_MIN_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final int bufferSize;
+
+    public BufferSizing(final long bandwidth, final long rtt, final TimeUnit timeUnit) {
+        this(bandwidth, rtt, timeUnit, DEFAULT_MIN_BUFFER_SIZE, DEFAULT_MAX_BUFFER_SIZE);
+    }
+
+    public BufferSizing(final long bandwidth,
+                        final long rtt,
+                        final TimeUnit timeUnit,
+                        final int minBufferSize,
+                        final int maxBufferSize) {
+        if(bandwidth < 1) throw new IllegalArgumentException("bandwidth < 1");
+        if(timeUnit.toNanos(rtt) < 1) throw new IllegalArgumentException("rtt < 1ns");
+        if(minBufferSize < 1) throw new IllegalArgumentException("minBufferSize < 1");
+        if(maxBufferSize < minBufferSize) throw new IllegalArgumentException("maxBufferSize < minBufferSize");
+        this.bufferSize = toBufferSize((long) ((double) bandwidth * timeUnit.toNanos(rtt) / TimeUnit.SECONDS.toNanos(1)),
+                                       minBufferSize,
+                                       maxBufferSize);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    private static int toBufferSize(final long size, final int minBufferSize, final int maxBufferSize) {
+        if(size <= minBufferSize) return minBufferSize;
+        if(size >= maxBufferSize) return maxBufferSize;
+        return (int) Math.min(maxBufferSize, Long.highestOneBit(size - 1) << 1);
+    }
+}
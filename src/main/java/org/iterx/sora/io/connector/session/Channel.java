@@ -11,10 +11,16 @@ public interface Channel<R, W> {
 
     Channel<R, W> write(W value);
 
+    boolean tryWrite(W value);
+
     Channel<R, W> flush();
 
     Channel<R, W> close();
 
+    <T> Channel<R, W> setOption(ChannelOption<T> option, T value);
+
+    <T> T getOption(ChannelOption<T> option);
+
     //TODO: add destroy();   
 
     public interface ChannelCallback<C extends Channel<R, W>, R, W> { //TODO: Rename as ConnectorChannelCallback
@@ -25,6 +31,8 @@ public interface Channel<R, W> {
 
         void onWrite(C channel, W value);
 
+        void onWritabilityChanged(C channel, boolean writable);
+
         void onAbort(C channel, Throwable throwable);
 
         void onClose(C channel);
@@ -0,0 +1,37 @@
+package org.iterx.sora.io.connector.session;
+
+public final class ChannelOption<T> {
+
+    public static final ChannelOption<Boolean> TCP_NODELAY = new ChannelOption<Boolean>("TCP_NODELAY", Boolean.class);
+    public static final ChannelOption<Boolean> SO_KEEPALIVE = new ChannelOption<Boolean>("SO_KEEPALIVE", Boolean.class);
+    public static final ChannelOption<Integer> SO_SNDBUF = new ChannelOption<Integer>("SO_SNDBUF", Integer.class);
+    public static final ChannelOption<Integer> SO_RCVBUF = new ChannelOption<Integer>("SO_RCVBUF", Integer.class);
+    public static final ChannelOption<Integer> SO_LINGER = new ChannelOption<Integer>("SO_LINGER", Integer.class);
+    public static final ChannelOption<Integer> IP_TOS = new ChannelOption<Integer>("IP_TOS", Integer.class);
+    public static final ChannelOption<BufferSizing> BUFFER_SIZING = new ChannelOption<BufferSizing>("BUFFER_SIZING", BufferSizing.class);
+
+    private final String name;
+    private final Class<T> type;
+
+    private ChannelOption(final String name, final Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public T cast(final Object value) {
+        return type.cast(value);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
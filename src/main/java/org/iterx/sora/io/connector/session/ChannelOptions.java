@@ -0,0 +1,47 @@
+package org.iterx.sora.io.connector.session;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class ChannelOptions {
+
+    private final Map<ChannelOption<?>, Object> values;
+
+    public ChannelOptions() {
+        this.values = new LinkedHashMap<ChannelOption<?>, Object>();
+    }
+
+    public synchronized <T> ChannelOptions set(final ChannelOption<T> option, final T value) {
+        if(option == null) throw new IllegalArgumentException("option == null");
+        if(value == null) values.remove(option);
+        else values.put(option, option.cast(value));
+        return this;
+    }
+
+    public synchronized <T> T get(final ChannelOption<T> option) {
+        return option.cast(values.get(option));
+    }
+
+    public synchronized ChannelOptions clear() {
+        values.clear();
+        return this;
+    }
+
+    public synchronized boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public <C extends Channel<?, ?>> C applyTo(final C channel) {
+        final ChannelOption<?>[] options;
+        synchronized(this) {
+            options = values.keySet().toArray(new ChannelOption<?>[values.size()]);
+        }
+        for(final ChannelOption<?> option : options) applyTo(channel, option);
+        return channel;
+    }
+
+    private <T> void applyTo(final Channel<?, ?> channel, final ChannelOption<T> option) {
+        final T value = get(option);
+        if(value != null) channel.setOption(option, value);
+    }
+}
@@ -0,0 +1,42 @@
+package org.iterx.sora.io.connector.session;
+
+import java.util.concurrent.TimeUnit;
+
+public final class ChannelPoolPolicy {
+
+    public static final int DEFAULT_MAX_IDLE = 8;
+    public static final int DEFAULT_MIN_IDLE = 0;
+    public static final long DEFAULT_MAX_IDLE_TIME = 60L;
+
+    private static final ChannelPoolPolicy DEFAULT_CHANNEL_POOL_POLICY = new ChannelPoolPolicy(DEFAULT_MAX_IDLE, DEFAULT_MIN_IDLE, DEFAULT_MAX_IDLE_TIME, TimeUnit.SECONDS);
+
+    private final int maxIdle;
+    private final int minIdle;
+    private final long maxIdleTime;
+
+    public ChannelPoolPolicy(final int maxIdle, final int minIdle, final long maxIdleTime, final TimeUnit timeUnit) {
+        if(maxIdle < 0) throw new IllegalArgumentException("maxIdle < 0");
+        if(minIdle < 0) throw new IllegalArgumentException("minIdle < 0");
+        if(minIdle > maxIdle) throw new IllegalArgumentException("minIdle > maxIdle");
+        if(maxIdleTime < 1) throw new IllegalArgumentException("maxIdleTime < 1");
+        this.maxIdle = maxIdle;
+        this.minIdle = minIdle;
+        this.maxIdleTime = timeUnit.toMillis(maxIdleTime);
+    }
+
+    public static ChannelPoolPolicy newDefaultChannelPoolPolicy() {
+        return DEFAULT_CHANNEL_POOL_POLICY;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public long getMaxIdleTimeMillis() {
+        return maxIdleTime;
+    }
+}
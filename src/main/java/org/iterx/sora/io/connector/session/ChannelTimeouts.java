@@ -0,0 +1,48 @@
+package org.iterx.sora.io.connector.session;
+
+import java.util.concurrent.TimeUnit;
+
+public final class ChannelTimeouts {
+
+    private static final ChannelTimeouts DEFAULT_CHANNEL_TIMEOUTS = new ChannelTimeouts(0L, 0L, 0L, 0L, TimeUnit.MILLISECONDS);
+
+    private final long connectTimeout;
+    private final long readIdleTimeout;
+    private final long writeIdleTimeout;
+    private final long lifetime;
+
+    public ChannelTimeouts(final long connectTimeout,
+                           final long readIdleTimeout,
+                           final long writeIdleTimeout,
+                           final long lifetime,
+                           final TimeUnit timeUnit) {
+        if(connectTimeout < 0) throw new IllegalArgumentException("connectTimeout < 0");
+        if(readIdleTimeout < 0) throw new IllegalArgumentException("readIdleTimeout < 0");
+        if(writeIdleTimeout < 0) throw new IllegalArgumentException("writeIdleTimeout < 0");
+        if(lifetime < 0) throw new IllegalArgumentException("lifetime < 0");
+        this.connectTimeout = timeUnit.toMillis(connectTimeout);
+        this.readIdleTimeout = timeUnit.toMillis(readIdleTimeout);
+        this.writeIdleTimeout = timeUnit.toMillis(writeIdleTimeout);
+        this.lifetime = timeUnit.toMillis(lifetime);
+    }
+
+    public static ChannelTimeouts newDefaultChannelTimeouts() {
+        return DEFAULT_CHANNEL_TIMEOUTS;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeout;
+    }
+
+    public long getReadIdleTimeoutMillis() {
+        return readIdleTimeout;
+    }
+
+    public long getWriteIdleTimeoutMillis() {
+        return writeIdleTimeout;
+    }
+
+    public long getLifetimeMillis() {
+        return lifetime;
+    }
+}
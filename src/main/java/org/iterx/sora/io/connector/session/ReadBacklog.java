@@ -0,0 +1,42 @@
+package org.iterx.sora.io.connector.session;
+
+import org.iterx.sora.util.Watermarks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class ReadBacklog extends Watermarks {
+
+    private final List<Listener> listeners;
+
+    public ReadBacklog(final long lowWatermark, final long highWatermark) {
+        super(lowWatermark, highWatermark);
+        this.listeners = new CopyOnWriteArrayList<Listener>();
+    }
+
+    public boolean isReadable() {
+        return isOpen();
+    }
+
+    public long getBacklog() {
+        return getLevel();
+    }
+
+    public void addListener(final Listener listener) {
+        if(listener == null) throw new IllegalArgumentException("listener == null");
+        listeners.add(listener);
+    }
+
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    protected void onChanged(final boolean open) {
+        for(final Listener listener : listeners) listener.onReadableChanged(this, open);
+    }
+
+    public interface Listener {
+
+        void onReadableChanged(ReadBacklog readBacklog, boolean readable);
+    }
+}
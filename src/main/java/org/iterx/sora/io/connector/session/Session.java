@@ -6,10 +6,12 @@ public interface Session<C extends Channel<R, W>, R, W> {
     @SuppressWarnings("unchecked")
     public static SessionCallback<Session<?, ?, ?>> NO_OP_SESSION_CALLBACK = new AbstractSessionCallback(){};
 
-    //TODO: add void setOption() & destroy();
+    //TODO: add destroy();
 
     Session<C, R, W> open();
 
+    <T> Session<C, R, W> setOption(ChannelOption<T> option, T value);
+
     C newChannel(Channel.ChannelCallback<? super C, R, W> channelCallback);
 
     Session<C, R, W> close();
@@ -17,4 +17,6 @@ public interface SessionFactory<S extends Session<?, R, W>, T extends Session<?,
     T newSession(Connector connector,
                  Session.SessionCallback<? super T> sessionCallback,
                  ConnectorEndpoint connectorEndpoint);
+
+    void destroy();
 }
@@ -0,0 +1,31 @@
+package org.iterx.sora.io.connector.session;
+
+import org.iterx.sora.util.Watermarks;
+
+public abstract class WriteWatermarks extends Watermarks {
+
+    public static final long DEFAULT_LOW_WATERMARK = 32 * 1024;
+    public static final long DEFAULT_HIGH_WATERMARK = 64 * 1024;
+
+    protected WriteWatermarks() {
+        this(DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+    }
+
+    protected WriteWatermarks(final long lowWatermark, final long highWatermark) {
+        super(lowWatermark, highWatermark);
+    }
+
+    public boolean isWritable() {
+        return isOpen();
+    }
+
+    public long getPending() {
+        return getLevel();
+    }
+
+    protected abstract void onWritabilityChanged(boolean writable);
+
+    protected final void onChanged(final boolean open) {
+        onWritabilityChanged(open);
+    }
+}
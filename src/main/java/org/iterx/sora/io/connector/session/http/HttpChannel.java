@@ -4,8 +4,11 @@ import org.iterx.sora.collection.queue.CircularBlockingQueue;
 import org.iterx.sora.collection.queue.SingleProducerSingleConsumerCircularBlockingQueue;
 import org.iterx.sora.io.connector.session.AbstractChannel;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
 import org.iterx.sora.io.connector.session.Session;
 import org.iterx.sora.io.connector.session.http.message.HttpMessage;
+import org.iterx.sora.kernel.memory.ByteBufferPool;
+import org.iterx.sora.kernel.memory.PooledByteBuffer;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -46,12 +49,28 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
         return this;
     }
 
+    public boolean tryWrite(final W httpMessage) {
+        assertState(State.OPENED);
+        return delegateChannel.tryWrite(httpMessage);
+    }
+
     public Channel<R, W> flush() {
         assertState(State.OPENED);
         delegateChannel.flush();
         return this;
     }
 
+    @Override
+    public <T> Channel<R, W> setOption(final ChannelOption<T> option, final T value) {
+        delegateChannel.setOption(option, value);
+        return this;
+    }
+
+    @Override
+    public <T> T getOption(final ChannelOption<T> option) {
+        return delegateChannel.getOption(option);
+    }
+
     @Override
     protected State onOpening() {
         delegateChannel.open();
@@ -91,6 +110,15 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
         }
     }
 
+    private void doWritabilityChanged(final boolean writable) {
+        try {
+            channelCallback.onWritabilityChanged(this, writable);
+        }
+        catch(final Throwable throwable) {
+            swallow(throwable);
+        }
+    }
+
     private void doWrite(final W httpMessage) {
         try {
             channelCallback.onWrite(this, httpMessage);
@@ -105,13 +133,19 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
                                              ChannelCallback<Channel<ByteBuffer, ByteBuffer>, ByteBuffer, ByteBuffer> {
 
         private final Channel<ByteBuffer, ByteBuffer> channel;
+        private final PooledByteBuffer[] pooledByteBuffers;
         private final Decoder decoder;
         private final Encoder encoder;
 
+        private int pooledByteBufferCount;
+        private volatile boolean writable;
+
         private DelegateChannel(final Session<?, ByteBuffer, ByteBuffer> session, final int capacity) {
             this.channel = session.newChannel(this);
+            this.pooledByteBuffers = new PooledByteBuffer[2 * BUFFER_COUNT];
             this.decoder = new Decoder();
             this.encoder = new Encoder();
+            this.writable = true;
         }
 
         public Channel<R, W> open() {
@@ -129,11 +163,24 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
             return this;
         }
 
+        public boolean tryWrite(final W httpMessage) {
+            return writable && encoder.offer(httpMessage);
+        }
+
         public Channel<R, W> flush() {
             channel.flush();
             return this;
         }
 
+        public <T> Channel<R, W> setOption(final ChannelOption<T> option, final T value) {
+            channel.setOption(option, value);
+            return this;
+        }
+
+        public <T> T getOption(final ChannelOption<T> option) {
+            return channel.getOption(option);
+        }
+
         public Channel<R, W> close() {
             channel.close();
             return this;
@@ -147,18 +194,39 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
             encoder.dequeue(buffer);
         }
 
+        public void onWritabilityChanged(final Channel<ByteBuffer, ByteBuffer> channel, final boolean writable) {
+            this.writable = writable;
+            doWritabilityChanged(writable);
+        }
+
         public void onRead(final Channel<ByteBuffer, ByteBuffer> channel, final ByteBuffer buffer) {
             decoder.dequeue(buffer);
         }
 
         public void onClose(final Channel<ByteBuffer, ByteBuffer> channel) {
+            releaseByteBuffers();
             changeState(isState(State.OPENED)? State.CLOSING : State.CLOSED);
         }
 
         public void onAbort(final Channel<ByteBuffer, ByteBuffer> channel, final Throwable throwable) {
+            releaseByteBuffers();
             changeState(State.ABORTED, throwable);
         }
 
+        private ByteBuffer leaseByteBuffer() {
+            final PooledByteBuffer pooledByteBuffer = ByteBufferPool.getByteBufferPool().lease(BUFFER_SIZE);
+            pooledByteBuffers[pooledByteBufferCount++] = pooledByteBuffer;
+            return pooledByteBuffer.getByteBuffer();
+        }
+
+        private void releaseByteBuffers() {
+            for(int i = pooledByteBufferCount; i-- != 0;) {
+                pooledByteBuffers[i].release();
+                pooledByteBuffers[i] = null;
+            }
+            pooledByteBufferCount = 0;
+        }
+
         private void doRead(final ByteBuffer buffer) {
             channel.read((ByteBuffer) buffer.clear());
         }
@@ -277,7 +345,7 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
 
             private <T extends BlockingQueue<ByteBuffer>> T allocateByteBuffers(final T blockingQueue) {
                 while(blockingQueue.remainingCapacity() != 0) {
-                    blockingQueue.add(ByteBuffer.allocate(BUFFER_SIZE));
+                    blockingQueue.add(leaseByteBuffer());
                     blockingQueue.poll();
                 }
                 return blockingQueue;
@@ -375,6 +443,14 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
                 }
             }
 
+            private boolean offer(final W httpMessage) {
+                if(httpMessageCircularBlockingQueue.offer(httpMessage)) {
+                    doEncode();
+                    return true;
+                }
+                return false;
+            }
+
             private void dequeue(final ByteBuffer buffer) {
                 try {
                     byteBufferCircularBlockingQueue.put((ByteBuffer) buffer.clear());
@@ -445,7 +521,7 @@ public final class HttpChannel<R extends HttpMessage, W extends HttpMessage> ext
             }
 
             private <T extends BlockingQueue<ByteBuffer>> T allocateByteBuffers(final T blockingQueue) {
-                while(blockingQueue.remainingCapacity() != 0) blockingQueue.add(ByteBuffer.allocate(BUFFER_SIZE));
+                while(blockingQueue.remainingCapacity() != 0) blockingQueue.add(leaseByteBuffer());
                 return blockingQueue;
             }
 
@@ -6,6 +6,7 @@ import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
 import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
 import org.iterx.sora.io.connector.session.AbstractSession;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
 import org.iterx.sora.io.connector.session.Session;
 import org.iterx.sora.io.connector.session.http.message.HttpMessage;
 
@@ -30,6 +31,12 @@ public final class HttpSession<R extends HttpMessage, W extends HttpMessage> ext
         this.delegateSession = new DelegateSession(connector, newDelegateAcceptorConnector(acceptorEndpoint));
     }
 
+    @Override
+    public <T> HttpSession<R, W> setOption(final ChannelOption<T> option, final T value) {
+        delegateSession.setOption(option, value);
+        return this;
+    }
+
     public HttpChannel<R, W> newChannel(final Channel.ChannelCallback<? super HttpChannel<R, W>, R, W> channelCallback) {
         assertState(State.OPENED);
         return new HttpChannel<R, W>(delegateSession, channelCallback);
@@ -99,6 +106,11 @@ public final class HttpSession<R extends HttpMessage, W extends HttpMessage> ext
             return this;
         }
 
+        public <T> Session<Channel<ByteBuffer, ByteBuffer>, ByteBuffer, ByteBuffer> setOption(final ChannelOption<T> option, final T value) {
+            session.setOption(option, value);
+            return this;
+        }
+
         public Channel<ByteBuffer, ByteBuffer> newChannel(final Channel.ChannelCallback<? super Channel<ByteBuffer, ByteBuffer>, ByteBuffer, ByteBuffer> channelCallback) {
             return session.newChannel(channelCallback);
         }
@@ -32,6 +32,9 @@ public final class HttpSessionFactory implements SessionFactory<HttpSession<Http
         return new HttpSession<HttpResponse, HttpRequest>(connector, sessionCallback, connectorEndpoint);
     }
 
+    public void destroy() {
+    }
+
     private void assertEndpoint(final Endpoint endpoint) {
         if(!supports(endpoint)) throw new IllegalArgumentException("Invalid endpoint '" + endpoint + "'");
     }
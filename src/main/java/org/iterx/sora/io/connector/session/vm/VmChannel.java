@@ -4,9 +4,11 @@ import org.iterx.sora.collection.queue.SingleProducerSingleConsumerBlockingQueue
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.AbstractChannel;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.WriteWatermarks;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -16,6 +18,8 @@ import static org.iterx.sora.util.Exception.swallow;
 
 public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
 
+    private static final AtomicIntegerFieldUpdater<VmChannel> INTEREST_OPS_UPDATER = AtomicIntegerFieldUpdater.newUpdater(VmChannel.class, "interestOps");
+
     private final Multiplexor<? super VmChannel> multiplexor;
     private final ChannelCallback<? super VmChannel, ByteBuffer, ByteBuffer> channelCallback;
     private final MultiplexorHandler multiplexorHandler;
@@ -25,8 +29,9 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
 
     private final Lock queueLock;
     private final Condition emptyQueueCondition;
+    private final WriteWatermarks writeWatermarks;
 
-    private final VmChannel vmChannel;
+    private volatile VmChannel vmChannel;
     private volatile int interestOps;
 
     public VmChannel(final Multiplexor<? super VmChannel> multiplexor,
@@ -36,11 +41,18 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
         this.writeBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<ByteBuffer>(128);
         this.queueLock = new ReentrantLock();
         this.emptyQueueCondition = queueLock.newCondition();
+        this.writeWatermarks = new WriteWatermarks() {
+            @Override
+            protected void onWritabilityChanged(final boolean writable) {
+                doWritabilityChanged(writable);
+            }
+        };
         this.multiplexorHandler = new MultiplexorHandler();
 
         this.multiplexor = multiplexor;
         this.channelCallback = channelCallback;
         this.vmChannel = vmChannel;
+        if(vmChannel != null) vmChannel.vmChannel = this;
     }
 
     public Channel<ByteBuffer,ByteBuffer> read(final ByteBuffer buffer) {
@@ -51,7 +63,39 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
 
     public Channel<ByteBuffer, ByteBuffer> write(final ByteBuffer buffer) {
         assertState(State.OPENED);
-        enqueue(writeBlockingQueue, buffer, Multiplexor.WRITE_OP);
+        final int length = buffer.remaining();
+        writeWatermarks.increment(length);
+        try {
+            writeBlockingQueue.put(buffer);
+        }
+        catch(final InterruptedException e) {
+            writeWatermarks.decrement(length);
+            throw rethrow(e);
+        }
+        signal(vmChannel);
+        return this;
+    }
+
+    @Override
+    public boolean tryWrite(final ByteBuffer buffer) {
+        assertState(State.OPENED);
+        final int length = buffer.remaining();
+        if(!writeWatermarks.isWritable()) return false;
+        writeWatermarks.increment(length);
+        if(writeBlockingQueue.offer(buffer)) {
+            signal(vmChannel);
+            return true;
+        }
+        writeWatermarks.decrement(length);
+        return false;
+    }
+
+    public boolean isWritable() {
+        return writeWatermarks.isWritable();
+    }
+
+    public VmChannel setWriteWatermarks(final long lowWatermark, final long highWatermark) {
+        writeWatermarks.set(lowWatermark, highWatermark);
         return this;
     }
 
@@ -64,32 +108,61 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
     private void enqueue(final BlockingQueue<ByteBuffer> blockingQueue, final ByteBuffer buffer, final int ops) {
         try {
             blockingQueue.put(buffer);
-            if((interestOps & ops) == 0) {
-                queueLock.lock();
-                try {
-                    if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
-                        multiplexor.register(multiplexorHandler, interestOps ^ ops);
-                        interestOps |= ops;
-                    }
-                }
-                finally {
-                    queueLock.unlock();
-                }
-            }
+            register(blockingQueue, ops);
         }
         catch(final InterruptedException e) {
             throw rethrow(e);
         }
     }
 
+    private void register(final BlockingQueue<?> blockingQueue, final int ops) {
+        if((INTEREST_OPS_UPDATER.getAndAdd(this, 0) & ops) == 0) {
+            queueLock.lock();
+            try {
+                if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
+                    interestOps |= ops;
+                    multiplexor.register(multiplexorHandler, interestOps);
+                }
+            }
+            finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    private static void signal(final VmChannel vmChannel) {
+        if(vmChannel != null && (vmChannel.interestOps & Multiplexor.READ_OP) != 0) {
+            vmChannel.multiplexor.signal(vmChannel.multiplexorHandler, Multiplexor.READ_OP);
+        }
+    }
+
+    private int drain(final ByteBuffer buffer, final int length) {
+        final int requested = Math.min(length, buffer.remaining());
+        int remaining = requested;
+        for(ByteBuffer source = writeBlockingQueue.peek(); source != null && remaining > 0; source = writeBlockingQueue.peek()) {
+            final int size = Math.min(remaining, source.remaining());
+            final int limit = source.limit();
+            source.limit(source.position() + size);
+            buffer.put(source);
+            source.limit(limit);
+            remaining -= size;
+            writeWatermarks.decrement(size);
+            if(!source.hasRemaining()) doWrite(dequeue(writeBlockingQueue, Multiplexor.WRITE_OP));
+        }
+        return requested - remaining;
+    }
+
     private ByteBuffer dequeue(final BlockingQueue<ByteBuffer> blockingQueue, final int ops) {
         final ByteBuffer buffer = blockingQueue.poll();
         if(blockingQueue.isEmpty()) {
             queueLock.lock();
             try {
-                if(blockingQueue.isEmpty() && (interestOps & ops) != 0) {
-                    multiplexor.deregister(multiplexorHandler, interestOps & ops);
-                    interestOps ^= ops;
+                if(blockingQueue.isEmpty()) {
+                    if((interestOps & ops) != 0) {
+                        interestOps ^= ops;
+                        if(!blockingQueue.isEmpty()) interestOps |= ops;
+                        else multiplexor.deregister(multiplexorHandler, ops);
+                    }
                     emptyQueueCondition.signalAll();
                 }
             }
@@ -122,7 +195,7 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
     protected State onOpen() {
         channelCallback.onOpen(this);
         multiplexor.deregister(multiplexorHandler, Multiplexor.OPEN_OP);
-        interestOps ^= Multiplexor.OPEN_OP;
+        interestOps &= ~Multiplexor.OPEN_OP;
         return super.onOpen();
     }
 
@@ -147,6 +220,15 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
         }
     }
 
+    private void doWritabilityChanged(final boolean writable) {
+        try {
+            channelCallback.onWritabilityChanged(this, writable);
+        }
+        catch(final Throwable throwable) {
+            swallow(throwable);
+        }
+    }
+
     private void doWrite(final ByteBuffer buffer) {
         try {
             channelCallback.onWrite(this, buffer);
@@ -167,21 +249,12 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
         }
 
         public int doRead(final int length) {
+            final VmChannel vmChannel = VmChannel.this.vmChannel;
+            if(vmChannel == null) return 0;
             int remaining = length;
             try {
                 for(ByteBuffer buffer = readBlockingQueue.peek(); buffer != null; buffer = readBlockingQueue.peek()) {
-                    OUTER: while(true) {
-                        final int position = buffer.position();
-                        vmChannel.read(buffer);
-
-                        final int size = buffer.position() - position;
-                        switch(size) {
-                            case 0:
-                                break OUTER;
-                            default:
-                                remaining -= size;
-                        }
-                    }
+                    remaining -= vmChannel.drain(buffer, remaining);
                     if(buffer.position() != 0) {
                         VmChannel.this.doRead((ByteBuffer) dequeue(readBlockingQueue, Multiplexor.READ_OP).flip());
                         if(!buffer.hasRemaining() && (remaining > 0)) continue;
@@ -197,33 +270,7 @@ public final class VmChannel extends AbstractChannel<ByteBuffer, ByteBuffer> {
         }
 
         public int doWrite(final int length) {
-            int remaining = length;
-            try {
-                for(ByteBuffer buffer = writeBlockingQueue.peek(); buffer != null; buffer = writeBlockingQueue.peek()) {
-                    OUTER: while(true) {
-                        final int position = buffer.position();
-                        vmChannel.write(buffer);
-
-                        final int size = buffer.position() - position;
-                        switch(size) {
-                            case 0:
-                                break OUTER;
-                            default:
-                                remaining -= size;
-                        }
-                    }
-                    if(buffer.position() != 0) {
-                        VmChannel.this.doWrite(dequeue(writeBlockingQueue, Multiplexor.WRITE_OP));
-                        if(!buffer.hasRemaining() && (remaining > 0)) continue;
-                    }
-                    break;
-                }
-            }
-            catch(final Throwable throwable) {
-                changeState(State.ABORTED, throwable);
-                swallow(throwable);
-            }
-            return length - remaining;
+            return 0;
         }
 
         public void doClose() {
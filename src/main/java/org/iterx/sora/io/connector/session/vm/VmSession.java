@@ -6,6 +6,7 @@ import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.AbstractSession;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
 
 import java.nio.ByteBuffer;
 
@@ -146,10 +147,22 @@ public final class VmSession extends AbstractSession<VmChannel, ByteBuffer, Byte
                 throw new UnsupportedOperationException();
             }
 
+            public boolean tryWrite(final ByteBuffer value) {
+                throw new UnsupportedOperationException();
+            }
+
             public Channel<ByteBuffer, ByteBuffer> flush() {
                 throw new UnsupportedOperationException();
             }
 
+            public <T> Channel<ByteBuffer, ByteBuffer> setOption(final ChannelOption<T> option, final T value) {
+                throw new UnsupportedOperationException();
+            }
+
+            public <T> T getOption(final ChannelOption<T> option) {
+                throw new UnsupportedOperationException();
+            }
+
             @Override
             public Channel<ByteBuffer, ByteBuffer> close() {
                 multiplexor.deregister(multiplexorHandler, Multiplexor.OPEN_OP| Multiplexor.CLOSE_OP);
@@ -40,6 +40,9 @@ public final class VmSessionFactory implements SessionFactory<VmSession, VmSessi
         return new VmSession(multiplexor, sessionCallback, connectorEndpoint);
     }
 
+    public void destroy() {
+    }
+
     private void assertEndpoint(final Endpoint endpoint) {
         if(!supports(endpoint)) throw new IllegalArgumentException("Invalid endpoint '" + endpoint + "'");
     }
@@ -1,7 +1,8 @@
 package org.iterx.sora.io.connector.support.nio.multiplexor.selector;
 
-import org.iterx.sora.collection.Arrays;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.multiplexor.selector.AdaptiveQuantum;
+import org.iterx.sora.io.connector.multiplexor.selector.ReadyList;
 import org.iterx.sora.io.connector.multiplexor.selector.Selector;
 import org.iterx.sora.io.connector.multiplexor.selector.SelectorFactory;
 import org.iterx.sora.io.connector.session.Channel;
@@ -10,8 +11,6 @@ import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static org.iterx.sora.util.Exception.swallow;
 
@@ -24,15 +23,39 @@ public final class FileChannelNioSelectorFactory implements SelectorFactory<NioC
 
     private static final class FileChannelNioSelector implements Selector<NioChannel<FileChannel>> {
 
-        private final Lock lock;
+        private static final int READ_QUANTUM = AdaptiveQuantum.DEFAULT_MIN_QUANTUM;
+        private static final int WRITE_QUANTUM = AdaptiveQuantum.DEFAULT_MIN_QUANTUM;
 
-        private volatile Multiplexor.Handler<? extends NioChannel<FileChannel>>[] readMultiplexorHandlers;
-        private volatile Multiplexor.Handler<? extends NioChannel<FileChannel>>[] writeMultiplexorHandlers;
+        private final int budget = AdaptiveQuantum.DEFAULT_BUDGET;
+
+        private final ReadyList<NioChannel<FileChannel>> readReadyList;
+        private final ReadyList<NioChannel<FileChannel>> writeReadyList;
 
         public FileChannelNioSelector() {
-            this.readMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-            this.writeMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-            this.lock = new ReentrantLock();
+            this.readReadyList = new ReadyList<NioChannel<FileChannel>>(READ_QUANTUM, ReadyList.DEFAULT_SWEEP_INTERVAL, TimeUnit.NANOSECONDS) {
+
+                protected int doReady(final Multiplexor.Handler<? extends NioChannel<FileChannel>> multiplexorHandler, final int length) {
+                    return multiplexorHandler.doRead(length);
+                }
+
+                protected boolean isIdleReady(final Multiplexor.Handler<? extends NioChannel<FileChannel>> multiplexorHandler) {
+                    try {
+                        final NioChannel<FileChannel> channel = multiplexorHandler.getChannel();
+                        final FileChannel fileChannel = channel.getChannel();
+                        return fileChannel.position() < fileChannel.size();
+                    }
+                    catch(final IOException e) {
+                        swallow(e);
+                    }
+                    return false;
+                }
+            };
+            this.writeReadyList = new ReadyList<NioChannel<FileChannel>>(WRITE_QUANTUM) {
+
+                protected int doReady(final Multiplexor.Handler<? extends NioChannel<FileChannel>> multiplexorHandler, final int length) {
+                    return multiplexorHandler.doWrite(length);
+                }
+            };
         }
 
         public boolean supports(final Multiplexor.Handler<?> multiplexorHandler) {
@@ -42,75 +65,38 @@ public final class FileChannelNioSelectorFactory implements SelectorFactory<NioC
         }
 
         public boolean isReady() {
-            if(writeMultiplexorHandlers.length == 0) {
-                if(readMultiplexorHandlers.length != 0) {
-                    for(final Multiplexor.Handler<? extends NioChannel<FileChannel>> readHandler : readMultiplexorHandlers) {
-                        try {
-                            final NioChannel<FileChannel> channel = readHandler.getChannel();
-                            final FileChannel fileChannel = channel.getChannel();
-                            if(fileChannel.position() < fileChannel.size()) return true;
-                        }
-                        catch(final IOException e) {
-                            swallow(e);
-                        }
-                    }
-                }
-                return false;
-            }
-            return true;
+            return writeReadyList.isReady() || readReadyList.isReady();
         }
 
         public boolean poll(final long time, final TimeUnit timeUnit) {
-            return doWrite() | doRead();
+            return (writeReadyList.poll(budget) | readReadyList.poll(budget)) != 0;
         }
 
         public boolean register(final Multiplexor.Handler<? extends NioChannel<FileChannel>> multiplexorHandler, final int ops) {
-            lock.lock();
-            try {
-                if((ops & Multiplexor.READ_OP) != 0) readMultiplexorHandlers = Arrays.add(readMultiplexorHandlers, multiplexorHandler);
-                if((ops & Multiplexor.WRITE_OP) != 0) writeMultiplexorHandlers = Arrays.add(writeMultiplexorHandlers, multiplexorHandler);
-                return true;
-            }
-            finally {
-                lock.unlock();
-            }
+            if((ops & Multiplexor.READ_OP) != 0) readReadyList.add(multiplexorHandler);
+            if((ops & Multiplexor.WRITE_OP) != 0) writeReadyList.add(multiplexorHandler);
+            return true;
         }
 
         public boolean deregister(final Multiplexor.Handler<? extends NioChannel<FileChannel>> multiplexorHandler, final int ops) {
-            lock.lock();
-            try {
-                if((ops & Multiplexor.READ_OP) != 0) readMultiplexorHandlers = Arrays.remove(readMultiplexorHandlers, multiplexorHandler);
-                if((ops & Multiplexor.WRITE_OP) != 0) writeMultiplexorHandlers = Arrays.remove(writeMultiplexorHandlers, multiplexorHandler);
-                return true;
-            }
-            finally {
-                lock.unlock();
-            }
+            if((ops & Multiplexor.READ_OP) != 0) readReadyList.remove(multiplexorHandler);
+            if((ops & Multiplexor.WRITE_OP) != 0) writeReadyList.remove(multiplexorHandler);
+            return true;
         }
 
-        public void destroy() {
-            lock.lock();
-            try {
-                readMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-                writeMultiplexorHandlers = Arrays.newArray(Multiplexor.Handler.class, 0);
-            }
-            finally {
-                lock.unlock();
-            }
+        public boolean signal(final Multiplexor.Handler<? extends NioChannel<FileChannel>> multiplexorHandler, final int ops) {
+            boolean signalled = false;
+            if((ops & Multiplexor.READ_OP) != 0) signalled |= readReadyList.signal(multiplexorHandler);
+            if((ops & Multiplexor.WRITE_OP) != 0) signalled |= writeReadyList.signal(multiplexorHandler);
+            return signalled;
         }
 
-        private boolean doRead() {
-            final Multiplexor.Handler[] multiplexorHandlers = readMultiplexorHandlers;
-            int read = 0;
-            for(final Multiplexor.Handler multiplexorHandler : multiplexorHandlers) read += multiplexorHandler.doRead(1024);
-            return (read != 0);
+        public void wakeup() {
         }
 
-        private boolean doWrite() {
-            final Multiplexor.Handler[] multiplexorHandlers = writeMultiplexorHandlers;
-            int written = 0;
-            for(final Multiplexor.Handler multiplexorHandler : multiplexorHandlers) written += multiplexorHandler.doWrite(1024);
-            return (written != 0);
+        public void destroy() {
+            readReadyList.clear();
+            writeReadyList.clear();
         }
     }
 }
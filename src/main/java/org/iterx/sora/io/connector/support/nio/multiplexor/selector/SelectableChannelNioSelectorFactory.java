@@ -2,39 +2,64 @@ package org.iterx.sora.io.connector.support.nio.multiplexor.selector;
 
 import org.iterx.sora.io.IoException;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.multiplexor.selector.AdaptiveQuantum;
 import org.iterx.sora.io.connector.multiplexor.selector.Selector;
 import org.iterx.sora.io.connector.multiplexor.selector.SelectorFactory;
 import org.iterx.sora.io.connector.session.Channel;
 import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 
 import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class SelectableChannelNioSelectorFactory implements SelectorFactory<NioChannel<? extends SelectableChannel>> {
 
+    private final boolean optimizeSelectedKeys;
+
+    public SelectableChannelNioSelectorFactory() {
+        this(true);
+    }
+
+    public SelectableChannelNioSelectorFactory(final boolean optimizeSelectedKeys) {
+        this.optimizeSelectedKeys = optimizeSelectedKeys;
+    }
+
     public Selector<NioChannel<? extends SelectableChannel>> newSelector() {
-        return new SelectableChannelNioSelector();
+        return new SelectableChannelNioSelector(optimizeSelectedKeys);
     }
 
     private static final class SelectableChannelNioSelector implements Selector<NioChannel<? extends SelectableChannel>> {
 
         private static final int OP_CLOSE = 2;
 
+        private static final int READ_QUANTUM = 4096;
+        private static final int WRITE_QUANTUM = 4096;
+
         private final java.nio.channels.Selector selector;
 
-        private final int readPollSize = 4096; //TODO: read in via properties.... or self tune???
-        private final int writePollSize = 4096;
+        private final int budget = AdaptiveQuantum.DEFAULT_BUDGET;
+
+        private final SelectedSelectionKeySet selectedSelectionKeys;
+        private final AtomicReference<Registration> commandStack;
+        private final ConcurrentMap<SelectableChannel, Registration> pendingRegistrations;
 
-        private final AtomicInteger pendingRegister;
+        private volatile Thread pollThread;
 
-        public SelectableChannelNioSelector() {
+        public SelectableChannelNioSelector(final boolean optimizeSelectedKeys) {
             try {
-                this.pendingRegister = new AtomicInteger();
+                this.commandStack = new AtomicReference<Registration>();
+                this.pendingRegistrations = new ConcurrentHashMap<SelectableChannel, Registration>();
                 this.selector = java.nio.channels.Selector.open();
+                this.selectedSelectionKeys = (optimizeSelectedKeys)? SelectedSelectionKeySet.install(selector) : null;
             }
             catch(final IOException e) {
                 throw new IoException(e);
@@ -48,41 +73,43 @@ public final class SelectableChannelNioSelectorFactory implements SelectorFactor
         }
 
         public boolean isReady() {
-            return !selector.keys().isEmpty();
+            return commandStack.get() != null || !selector.keys().isEmpty();
         }
 
-        @SuppressWarnings("unchecked")
         public boolean poll(final long time, final TimeUnit timeUnit) {
             try {
-                try {
-                    if(selector.select(timeUnit.toMillis(time)) != 0) {
+                pollThread = Thread.currentThread();
+                for(Registration registration = reverse(commandStack.getAndSet(null)); registration != null;) {
+                    final Registration nextRegistration = registration.next;
+                    registration.next = null;
+                    registration.pending.set(false);
+                    apply(registration);
+                    registration = nextRegistration;
+                }
+                if(((time > 0)? selector.select(Math.max(1L, timeUnit.toMillis(time))) : selector.selectNow()) != 0) {
+                    int remaining = budget;
+                    if(selectedSelectionKeys != null) {
+                        try {
+                            for(int i = 0, size = selectedSelectionKeys.size(); i != size; i++) {
+                                remaining = dispatch(selectedSelectionKeys.get(i), remaining);
+                            }
+                        }
+                        finally {
+                            selectedSelectionKeys.reset();
+                        }
+                    }
+                    else {
                         for(final Iterator<SelectionKey> selectionKeyIterator = selector.selectedKeys().iterator();
                             selectionKeyIterator.hasNext();) {
                             try {
-                                final SelectionKey selectionKey = selectionKeyIterator.next();
-                                final Multiplexor.Handler<? extends SelectableChannel> handler = (Multiplexor.Handler<? extends SelectableChannel>) selectionKey.attachment();
-                                final SelectableChannel selectableChannel = selectionKey.channel();
-                                if(selectionKey.isValid() && selectableChannel.isOpen()) {
-                                    final int readyOps = selectionKey.readyOps();
-                                    if((readyOps & SelectionKey.OP_CONNECT) != 0) handler.doOpen();
-                                    if((readyOps & SelectionKey.OP_ACCEPT) != 0) handler.doOpen();
-                                    if((readyOps & SelectionKey.OP_READ) != 0) handler.doRead(readPollSize);
-                                    if((readyOps & SelectionKey.OP_WRITE) != 0) handler.doWrite(writePollSize);
-                                }
-                                else  {
-                                    handler.doClose();
-                                    selectionKey.cancel();
-                                }
+                                remaining = dispatch(selectionKeyIterator.next(), remaining);
                             }
                             finally {
                                 selectionKeyIterator.remove();
                             }
                         }
-                        return true;
                     }
-                }
-                finally {
-                    while(pendingRegister.get() != 0) Thread.yield();
+                    return true;
                 }
             }
             catch(final IOException e) {
@@ -92,30 +119,13 @@ public final class SelectableChannelNioSelectorFactory implements SelectorFactor
         }
 
         public boolean register(final Multiplexor.Handler<? extends NioChannel<? extends SelectableChannel>> multiplexorHandler, final int ops) {
-            try {
-                final NioChannel<? extends SelectableChannel> channel = multiplexorHandler.getChannel();
-                final SelectableChannel selectableChannel = channel.getChannel();
-                final int interestOps = toSelectorOps(ops) & selectableChannel.validOps();
-                if(interestOps != 0) {
-                    final SelectionKey selectionKey = selectableChannel.keyFor(selector);
-                    if(selectionKey != null && selectionKey.isValid()) {
-                        selectionKey.interestOps(selectionKey.interestOps() | interestOps);
-                    }
-                    else {
-                        pendingRegister.incrementAndGet();
-                        try {
-                            selector.wakeup();
-                            selectableChannel.register(selector, interestOps, multiplexorHandler);
-                        }
-                        finally {
-                            pendingRegister.decrementAndGet();
-                        }
-                    }
-                    return true;
-                }
-            }
-            catch(final IOException e) {
-                throw new IoException(e);
+            final NioChannel<? extends SelectableChannel> channel = multiplexorHandler.getChannel();
+            final SelectableChannel selectableChannel = channel.getChannel();
+            if((toSelectorOps(ops) & selectableChannel.validOps()) != 0) {
+                final Registration registration = getRegistration(multiplexorHandler, selectableChannel, true);
+                registration.addOps(ops);
+                schedule(registration);
+                return true;
             }
             return false;
         }
@@ -123,23 +133,161 @@ public final class SelectableChannelNioSelectorFactory implements SelectorFactor
         public boolean deregister(final Multiplexor.Handler<? extends NioChannel<? extends SelectableChannel>> multiplexorHandler, final int ops) {
             final NioChannel<? extends SelectableChannel> channel = multiplexorHandler.getChannel();
             final SelectableChannel selectableChannel = channel.getChannel();
-            final SelectionKey selectionKey = selectableChannel.keyFor(selector);
-            if(selectionKey != null && selectionKey.isValid()) {
-                final int interestOps = (toSelectorOps(ops) & selectableChannel.validOps()) ^ selectionKey.interestOps();
-                selectionKey.interestOps(interestOps);
+            final Registration registration = getRegistration(multiplexorHandler, selectableChannel, false);
+            if(registration != null) {
+                registration.removeOps(ops);
+                schedule(registration);
             }
             return false;
         }
 
+        public boolean signal(final Multiplexor.Handler<? extends NioChannel<? extends SelectableChannel>> multiplexorHandler, final int ops) {
+            return false;
+        }
+
+        public void wakeup() {
+            selector.wakeup();
+        }
+
         public void destroy() {
             try {
                 selector.close();
+                commandStack.set(null);
+                pendingRegistrations.clear();
             }
             catch(final IOException e) {
                 throw new IoException(e);
             }
         }
 
+        private Registration getRegistration(final Multiplexor.Handler<?> multiplexorHandler,
+                                             final SelectableChannel selectableChannel,
+                                             final boolean create) {
+            Registration registration = pendingRegistrations.get(selectableChannel);
+            if(registration == null) {
+                final SelectionKey selectionKey = selectableChannel.keyFor(selector);
+                if(selectionKey != null) return (Registration) selectionKey.attachment();
+                if(create) {
+                    final Registration newRegistration = new Registration(multiplexorHandler, selectableChannel);
+                    registration = pendingRegistrations.putIfAbsent(selectableChannel, newRegistration);
+                    if(registration == null) {
+                        final SelectionKey registeredSelectionKey = selectableChannel.keyFor(selector);
+                        if(registeredSelectionKey == null) return newRegistration;
+                        pendingRegistrations.remove(selectableChannel, newRegistration);
+                        return (Registration) registeredSelectionKey.attachment();
+                    }
+                }
+            }
+            return registration;
+        }
+
+        private void schedule(final Registration registration) {
+            if(Thread.currentThread() == pollThread) apply(registration);
+            else if(registration.pending.compareAndSet(false, true)) {
+                for(Registration headRegistration = commandStack.get();; headRegistration = commandStack.get()) {
+                    registration.next = headRegistration;
+                    if(commandStack.compareAndSet(headRegistration, registration)) break;
+                }
+                selector.wakeup();
+            }
+        }
+
+        private static Registration reverse(final Registration headRegistration) {
+            Registration previousRegistration = null;
+            for(Registration registration = headRegistration; registration != null;) {
+                final Registration nextRegistration = registration.next;
+                registration.next = previousRegistration;
+                previousRegistration = registration;
+                registration = nextRegistration;
+            }
+            return previousRegistration;
+        }
+
+        private void apply(final Registration registration) {
+            final SelectableChannel selectableChannel = registration.selectableChannel;
+            final SelectionKey selectionKey = selectableChannel.keyFor(selector);
+            if(selectionKey != null && selectionKey.attachment() != registration) {
+                final Registration attachedRegistration = (Registration) selectionKey.attachment();
+                pendingRegistrations.remove(selectableChannel, registration);
+                attachedRegistration.addOps(registration.ops.get());
+                apply(attachedRegistration);
+                return;
+            }
+            final int interestOps = toSelectorOps(registration.ops.get()) & selectableChannel.validOps();
+            try {
+                if(selectionKey != null) {
+                    if(selectionKey.isValid()) selectionKey.interestOps(interestOps);
+                }
+                else if(interestOps != 0) selectableChannel.register(selector, interestOps, registration);
+            }
+            catch(final CancelledKeyException e) {
+                registration.multiplexorHandler.doClose();
+            }
+            catch(final ClosedChannelException e) {
+                registration.multiplexorHandler.doClose();
+            }
+            finally {
+                if(selectionKey == null) pendingRegistrations.remove(selectableChannel, registration);
+            }
+        }
+
+        private static int dispatch(final SelectionKey selectionKey, int remaining) {
+            final Registration registration = (Registration) selectionKey.attachment();
+            final Multiplexor.Handler<?> handler = registration.multiplexorHandler;
+            final SelectableChannel selectableChannel = selectionKey.channel();
+            if(selectionKey.isValid() && selectableChannel.isOpen()) {
+                final int readyOps = selectionKey.readyOps();
+                if((readyOps & SelectionKey.OP_CONNECT) != 0) handler.doOpen();
+                if((readyOps & SelectionKey.OP_ACCEPT) != 0) handler.doOpen();
+                if((readyOps & SelectionKey.OP_READ) != 0) remaining -= registration.doRead(remaining);
+                if((readyOps & SelectionKey.OP_WRITE) != 0) remaining -= registration.doWrite(remaining);
+            }
+            else  {
+                handler.doClose();
+                selectionKey.cancel();
+            }
+            return remaining;
+        }
+
+        private static final class Registration {
+
+            private final Multiplexor.Handler<?> multiplexorHandler;
+            private final SelectableChannel selectableChannel;
+            private final AdaptiveQuantum readQuantum;
+            private final AdaptiveQuantum writeQuantum;
+            private final AtomicInteger ops;
+            private final AtomicBoolean pending;
+
+            private Registration next;
+
+            private Registration(final Multiplexor.Handler<?> multiplexorHandler, final SelectableChannel selectableChannel) {
+                this.multiplexorHandler = multiplexorHandler;
+                this.selectableChannel = selectableChannel;
+                this.readQuantum = new AdaptiveQuantum(READ_QUANTUM);
+                this.writeQuantum = new AdaptiveQuantum(WRITE_QUANTUM);
+                this.ops = new AtomicInteger();
+                this.pending = new AtomicBoolean();
+            }
+
+            private void addOps(final int ops) {
+                for(int current = this.ops.get(); !this.ops.compareAndSet(current, current | ops); current = this.ops.get());
+            }
+
+            private void removeOps(final int ops) {
+                for(int current = this.ops.get(); !this.ops.compareAndSet(current, current & ~ops); current = this.ops.get());
+            }
+
+            private int doRead(final int budget) {
+                final int length = readQuantum.next(budget);
+                return readQuantum.update(length, multiplexorHandler.doRead(length));
+            }
+
+            private int doWrite(final int budget) {
+                final int length = writeQuantum.next(budget);
+                return writeQuantum.update(length, multiplexorHandler.doWrite(length));
+            }
+        }
+
         private static int toSelectorOps(final int ops) {
             int selectorOps = 0;
             if((ops & Multiplexor.OPEN_OP) != 0) selectorOps |= (SelectionKey.OP_ACCEPT|SelectionKey.OP_CONNECT);
@@ -0,0 +1,95 @@
+package org.iterx.sora.io.connector.support.nio.multiplexor.selector;
+
+import java.lang.reflect.Field;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.iterx.sora.util.Exception.swallow;
+
+final class SelectedSelectionKeySet extends AbstractSet<SelectionKey> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private static volatile boolean supported = true;
+
+    private SelectionKey[] selectionKeys;
+    private int size;
+
+    private SelectedSelectionKeySet() {
+        this.selectionKeys = new SelectionKey[DEFAULT_CAPACITY];
+    }
+
+    static SelectedSelectionKeySet install(final Selector selector) {
+        if(!supported) return null;
+        try {
+            final Class<?> selectorClass = Class.forName("sun.nio.ch.SelectorImpl", false, ClassLoader.getSystemClassLoader());
+            if(selectorClass.isInstance(selector)) {
+                final Field selectedKeysField = selectorClass.getDeclaredField("selectedKeys");
+                final Field publicSelectedKeysField = selectorClass.getDeclaredField("publicSelectedKeys");
+                selectedKeysField.setAccessible(true);
+                publicSelectedKeysField.setAccessible(true);
+
+                final SelectedSelectionKeySet selectedSelectionKeySet = new SelectedSelectionKeySet();
+                selectedKeysField.set(selector, selectedSelectionKeySet);
+                publicSelectedKeysField.set(selector, selectedSelectionKeySet);
+                return selectedSelectionKeySet;
+            }
+        }
+        catch(final Exception e) {
+            supported = false;
+            swallow(e);
+        }
+        return null;
+    }
+
+    SelectionKey get(final int index) {
+        return selectionKeys[index];
+    }
+
+    void reset() {
+        java.util.Arrays.fill(selectionKeys, 0, size, null);
+        size = 0;
+    }
+
+    public boolean add(final SelectionKey selectionKey) {
+        if(selectionKey == null) return false;
+        if(size == selectionKeys.length) selectionKeys = java.util.Arrays.copyOf(selectionKeys, size << 1);
+        selectionKeys[size++] = selectionKey;
+        return true;
+    }
+
+    public boolean remove(final Object object) {
+        return false;
+    }
+
+    public boolean contains(final Object object) {
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Iterator<SelectionKey> iterator() {
+        return new Iterator<SelectionKey>() {
+
+            private int index;
+
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            public SelectionKey next() {
+                if(!hasNext()) throw new NoSuchElementException();
+                return selectionKeys[index++];
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
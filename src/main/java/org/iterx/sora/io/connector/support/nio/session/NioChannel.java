@@ -2,19 +2,81 @@ package org.iterx.sora.io.connector.support.nio.session;
 
 import org.iterx.sora.io.IoException;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
 
 import java.io.IOException;
+import java.net.SocketOption;
+import java.net.StandardSocketOption;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.NetworkChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 public interface NioChannel<C extends java.nio.channels.Channel> extends Channel<ByteBuffer, ByteBuffer> {
 
     C getChannel();
 
+    public interface TransferTarget {
+
+        Channel<ByteBuffer, ByteBuffer> transferFrom(FileChannel fileChannel, long position, long count, TransferCallback transferCallback);
+    }
+
+    public interface TransferCallback {
+
+        void onTransfer(Channel<ByteBuffer, ByteBuffer> channel, FileChannel fileChannel, long position, long count);
+
+        void onAbort(Channel<ByteBuffer, ByteBuffer> channel, FileChannel fileChannel, long position, long count, Throwable throwable);
+    }
+
     public static final class Helper {
 
+        private static final Map<ChannelOption<?>, SocketOption<?>> SOCKET_OPTIONS = newSocketOptions();
+
+        private static Map<ChannelOption<?>, SocketOption<?>> newSocketOptions() {
+            final Map<ChannelOption<?>, SocketOption<?>> socketOptions = new IdentityHashMap<ChannelOption<?>, SocketOption<?>>();
+            socketOptions.put(ChannelOption.TCP_NODELAY, StandardSocketOption.TCP_NODELAY);
+            socketOptions.put(ChannelOption.SO_KEEPALIVE, StandardSocketOption.SO_KEEPALIVE);
+            socketOptions.put(ChannelOption.SO_SNDBUF, StandardSocketOption.SO_SNDBUF);
+            socketOptions.put(ChannelOption.SO_RCVBUF, StandardSocketOption.SO_RCVBUF);
+            socketOptions.put(ChannelOption.SO_LINGER, StandardSocketOption.SO_LINGER);
+            socketOptions.put(ChannelOption.IP_TOS, StandardSocketOption.IP_TOS);
+            return socketOptions;
+        }
+
+        public static <T> void setOption(final NetworkChannel channel, final ChannelOption<T> option, final T value) {
+            if(option == null) throw new IllegalArgumentException("option == null");
+            if(value == null) throw new IllegalArgumentException("value == null");
+            try {
+                channel.setOption(toSocketOption(option), value);
+            }
+            catch(final IOException e) {
+                throw new IoException(e);
+            }
+        }
+
+        public static <T> T getOption(final NetworkChannel channel, final ChannelOption<T> option) {
+            if(option == null) throw new IllegalArgumentException("option == null");
+            try {
+                return channel.getOption(toSocketOption(option));
+            }
+            catch(final IOException e) {
+                throw new IoException(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> SocketOption<T> toSocketOption(final ChannelOption<T> option) {
+            final SocketOption<?> socketOption = SOCKET_OPTIONS.get(option);
+            if(socketOption == null) throw new UnsupportedOperationException(String.valueOf(option));
+            return (SocketOption<T>) socketOption;
+        }
+
         public static int read(final ReadableByteChannel channel, final ByteBuffer buffer) {
             try {
                 return channel.read(buffer);
@@ -27,6 +89,31 @@ public interface NioChannel<C extends java.nio.channels.Channel> extends Channel
             }
         }
 
+        public static long read(final ScatteringByteChannel channel, final ByteBuffer[] buffers, final int offset, final int length) {
+            try {
+                return channel.read(buffers, offset, length);
+            }
+            catch(final ClosedChannelException e) {
+                return -1;
+            }
+            catch(final IOException e) {
+                throw new IoException(e);
+            }
+        }
+
+        public static long transfer(final FileChannel fileChannel, final long position, final long count, final WritableByteChannel channel) {
+            try {
+                return fileChannel.transferTo(position, count, channel);
+            }
+            catch(final ClosedChannelException e) {
+                if(channel.isOpen()) throw new IoException(e);
+                return -1;
+            }
+            catch(final IOException e) {
+                throw new IoException(e);
+            }
+        }
+
         public static int write(final WritableByteChannel channel, final ByteBuffer buffer) {
             try {
                 return channel.write(buffer);
@@ -38,5 +125,17 @@ public interface NioChannel<C extends java.nio.channels.Channel> extends Channel
                 throw new IoException(e);
             }
         }
+
+        public static long write(final GatheringByteChannel channel, final ByteBuffer[] buffers, final int offset, final int length) {
+            try {
+                return channel.write(buffers, offset, length);
+            }
+            catch(final ClosedChannelException e) {
+                return -1;
+            }
+            catch(final IOException e) {
+                throw new IoException(e);
+            }
+        }
     }
 }
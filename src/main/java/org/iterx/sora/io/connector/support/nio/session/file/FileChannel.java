@@ -10,6 +10,7 @@ import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -19,6 +20,8 @@ import static org.iterx.sora.util.Exception.swallow;
 
 public final class FileChannel extends AbstractChannel<ByteBuffer, ByteBuffer> implements NioChannel<java.nio.channels.FileChannel> {
 
+    private static final AtomicIntegerFieldUpdater<FileChannel> INTEREST_OPS_UPDATER = AtomicIntegerFieldUpdater.newUpdater(FileChannel.class, "interestOps");
+
     private final Multiplexor<? super FileChannel> multiplexor;
     private final ChannelCallback<? super FileChannel, ByteBuffer, ByteBuffer> channelCallback;
     private final java.nio.channels.FileChannel fileChannel;
@@ -62,6 +65,25 @@ public final class FileChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
         return this;
     }
 
+    public boolean tryWrite(final ByteBuffer buffer) {
+        assertState(State.OPENED);
+        return offer(writeBlockingQueue, buffer, Multiplexor.WRITE_OP);
+    }
+
+    public FileChannel transferTo(final Channel<ByteBuffer, ByteBuffer> channel, final long position, final long count) {
+        return transferTo(channel, position, count, null);
+    }
+
+    public FileChannel transferTo(final Channel<ByteBuffer, ByteBuffer> channel,
+                                  final long position,
+                                  final long count,
+                                  final TransferCallback transferCallback) {
+        assertState(State.OPENED);
+        if(!(channel instanceof TransferTarget)) throw new IllegalArgumentException("Unsupported channel '" + channel + "'");
+        ((TransferTarget) channel).transferFrom(fileChannel, position, count, transferCallback);
+        return this;
+    }
+
     public Channel<ByteBuffer, ByteBuffer> flush() {
         assertState(State.OPENED);
         flush(writeBlockingQueue);
@@ -71,33 +93,48 @@ public final class FileChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
     private void enqueue(final BlockingQueue<ByteBuffer> blockingQueue, final ByteBuffer buffer, final int ops) {
         try {
             blockingQueue.put(buffer);
-            if((interestOps & ops) == 0) {
-                queueLock.lock();
-                try {
-                    if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
-                        multiplexor.register(multiplexorHandler, interestOps ^ ops);
-                        interestOps |= ops;
-                    }
-                }
-                finally {
-                    queueLock.unlock();
-                }
-            }
+            register(blockingQueue, ops);
         }
         catch(final InterruptedException e) {
             throw rethrow(e);
         }
     }
 
+    private boolean offer(final BlockingQueue<ByteBuffer> blockingQueue, final ByteBuffer buffer, final int ops) {
+        if(blockingQueue.offer(buffer)) {
+            register(blockingQueue, ops);
+            return true;
+        }
+        return false;
+    }
+
+    private void register(final BlockingQueue<?> blockingQueue, final int ops) {
+        if((INTEREST_OPS_UPDATER.getAndAdd(this, 0) & ops) == 0) {
+            queueLock.lock();
+            try {
+                if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
+                    multiplexor.register(multiplexorHandler, interestOps ^ ops);
+                    interestOps |= ops;
+                }
+            }
+            finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
     private ByteBuffer dequeue(final BlockingQueue<ByteBuffer> blockingQueue, final int ops) {
         final ByteBuffer buffer = blockingQueue.poll();
         if(blockingQueue.isEmpty()) {
             queueLock.lock();
             try {
                 if(blockingQueue.isEmpty() && (interestOps & ops) != 0) {
-                    multiplexor.deregister(multiplexorHandler, interestOps & ops);
                     interestOps ^= ops;
-                    emptyQueueCondition.signalAll();
+                    if(!blockingQueue.isEmpty()) interestOps |= ops;
+                    else {
+                        multiplexor.deregister(multiplexorHandler, ops);
+                        emptyQueueCondition.signalAll();
+                    }
                 }
             }
             finally {
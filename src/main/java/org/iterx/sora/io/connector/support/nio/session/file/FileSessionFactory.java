@@ -38,6 +38,9 @@ public final class FileSessionFactory implements SessionFactory<FileSession, Fil
         return new FileSession(multiplexor, sessionCallback, connectorEndpoint);
     }
 
+    public void destroy() {
+    }
+
     private void assertEndpoint(final Endpoint endpoint) {
         if(!supports(endpoint)) throw new IllegalArgumentException("Invalid endpoint '" + endpoint + "'");
     }
@@ -4,19 +4,28 @@ import org.iterx.sora.collection.queue.MultiProducerSingleConsumerBlockingQueue;
 import org.iterx.sora.io.IoException;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.AbstractChannel;
+import org.iterx.sora.io.connector.session.BufferSizing;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelOptions;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
+import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 
 import java.io.IOException;
 import java.net.SocketAddress;
-import java.net.StandardSocketOption;
 import java.nio.ByteBuffer;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.iterx.sora.util.Exception.swallow;
 
 final class AcceptorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> implements TcpChannel {
 
+    static final int ACCEPT_QUEUE_CAPACITY = 256;
+    private static final int ACCEPT_BATCH_SIZE = 64;
+    private static final int ACCEPT_BACKLOG = 1024;
+
     private final MultiProducerSingleConsumerBlockingQueue<SocketChannel> acceptBlockingQueue;
     private final ServerSocketChannel serverSocketChannel;
     private final SocketAddress socketAddress;
@@ -24,31 +33,83 @@ final class AcceptorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
     private final MultiplexorHandler multiplexorHandler;
     private final Multiplexor<? super TcpChannel> multiplexor;
 
+    private final Multiplexor<? super TcpChannel>[] channelMultiplexors;
+    private final AtomicInteger nextChannelMultiplexor;
+    private final ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback;
+    private final ChannelOptions channelOptions;
+
+    private volatile ChannelTimeouts channelTimeouts;
+    private volatile BufferSizing bufferSizing;
 
+    @SuppressWarnings("unchecked")
     AcceptorTcpChannel(final Multiplexor<? super TcpChannel> multiplexor,
                        final AcceptorChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> acceptorChannelCallback,
                        final ServerSocketChannel serverSocketChannel,
                        final SocketAddress socketAddress) {
-        this.acceptBlockingQueue = new MultiProducerSingleConsumerBlockingQueue<SocketChannel>(32);
+        this(multiplexor, acceptorChannelCallback, serverSocketChannel, socketAddress, (Multiplexor<? super TcpChannel>[]) new Multiplexor<?>[] { multiplexor }, new AtomicInteger(), null);
+    }
+
+    AcceptorTcpChannel(final Multiplexor<? super TcpChannel> multiplexor,
+                       final AcceptorChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> acceptorChannelCallback,
+                       final ServerSocketChannel serverSocketChannel,
+                       final SocketAddress socketAddress,
+                       final Multiplexor<? super TcpChannel>[] channelMultiplexors,
+                       final AtomicInteger nextChannelMultiplexor,
+                       final ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
+        this.acceptBlockingQueue = new MultiProducerSingleConsumerBlockingQueue<SocketChannel>(ACCEPT_QUEUE_CAPACITY);
         this.multiplexorHandler = new MultiplexorHandler();
 
         this.multiplexor = multiplexor;
         this.acceptorChannelCallback = acceptorChannelCallback;
         this.serverSocketChannel = serverSocketChannel;
         this.socketAddress = socketAddress;
+        this.channelMultiplexors = channelMultiplexors;
+        this.nextChannelMultiplexor = nextChannelMultiplexor;
+        this.channelCallback = channelCallback;
+        this.channelTimeouts = ChannelTimeouts.newDefaultChannelTimeouts();
+        this.channelOptions = new ChannelOptions();
     }
 
     public ServerSocketChannel getChannel() {
         return serverSocketChannel;
     }
 
+    @Override
+    public <T> TcpChannel setOption(final ChannelOption<T> option, final T value) {
+        if(option == ChannelOption.BUFFER_SIZING) return setBufferSizing(ChannelOption.BUFFER_SIZING.cast(value));
+        if(option == ChannelOption.SO_RCVBUF) NioChannel.Helper.setOption(serverSocketChannel, option, value);
+        channelOptions.set(option, value);
+        return this;
+    }
+
+    @Override
+    public <T> T getOption(final ChannelOption<T> option) {
+        if(option == ChannelOption.BUFFER_SIZING) return option.cast(bufferSizing);
+        return channelOptions.get(option);
+    }
+
+    private synchronized TcpChannel setBufferSizing(final BufferSizing bufferSizing) {
+        if(serverSocketChannel.socket().isBound()) throw new IllegalStateException("buffers must be sized before listen");
+        if(bufferSizing != null) {
+            setOption(ChannelOption.SO_RCVBUF, bufferSizing.getBufferSize());
+            setOption(ChannelOption.SO_SNDBUF, bufferSizing.getBufferSize());
+        }
+        this.bufferSizing = bufferSizing;
+        return this;
+    }
+
+    public TcpChannel setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+        if(channelTimeouts == null) throw new IllegalArgumentException("channelTimeouts == null");
+        this.channelTimeouts = channelTimeouts;
+        return this;
+    }
+
     public TcpChannel accept(final ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
         assertState(State.OPENED);
         try {
             final SocketChannel socketChannel = acceptBlockingQueue.poll();
             if(socketChannel != null) {
-                socketChannel.setOption(StandardSocketOption.SO_REUSEADDR, true);
-                return new ConnectorTcpChannel(multiplexor, channelCallback, socketChannel, socketChannel.getRemoteAddress());
+                return channelOptions.applyTo(new ConnectorTcpChannel(multiplexor, channelCallback, socketChannel, socketChannel.getRemoteAddress()).setChannelTimeouts(channelTimeouts));
             }
             return null;
         }
@@ -65,6 +126,10 @@ final class AcceptorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
         throw new UnsupportedOperationException();
     }
 
+    public boolean tryWrite(final ByteBuffer value) {
+        throw new UnsupportedOperationException();
+    }
+
     public Channel<ByteBuffer, ByteBuffer> flush() {
         throw new UnsupportedOperationException();
     }
@@ -72,7 +137,7 @@ final class AcceptorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
     @Override
     protected State onOpening() {
         try {
-            serverSocketChannel.bind(socketAddress);
+            serverSocketChannel.bind(socketAddress, ACCEPT_BACKLOG);
             multiplexor.register(multiplexorHandler, Multiplexor.OPEN_OP| Multiplexor.CLOSE_OP);
             return super.onOpening();
         }
@@ -96,8 +161,24 @@ final class AcceptorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
         }
     }
 
-    private void doAccept() {
-        acceptorChannelCallback.onAccept(this);
+    private void doAccept(final SocketChannel socketChannel) throws IOException {
+        socketChannel.configureBlocking(false);
+        if(channelCallback != null) {
+            final Multiplexor<? super TcpChannel> channelMultiplexor =
+                    channelMultiplexors[(nextChannelMultiplexor.getAndIncrement() & Integer.MAX_VALUE) % channelMultiplexors.length];
+            channelOptions.applyTo(new ConnectorTcpChannel(channelMultiplexor, channelCallback, socketChannel, socketChannel.getRemoteAddress()).setChannelTimeouts(channelTimeouts)).open();
+        }
+        else if(acceptBlockingQueue.offer(socketChannel)) acceptorChannelCallback.onAccept(this);
+        else socketChannel.close();
+    }
+
+    private static void close(final SocketChannel socketChannel) {
+        try {
+            socketChannel.close();
+        }
+        catch(final IOException e) {
+            swallow(e);
+        }
     }
 
     private class MultiplexorHandler implements Multiplexor.Handler<AcceptorTcpChannel> {
@@ -108,12 +189,16 @@ final class AcceptorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> i
 
         public void doOpen() {
             try {
-                for(SocketChannel socketChannel = serverSocketChannel.accept();
-                    socketChannel != null;
-                    socketChannel = serverSocketChannel.accept()) {
-                    socketChannel.configureBlocking(false);
-                    acceptBlockingQueue.add(socketChannel);
-                    doAccept();
+                for(int i = 0; i != ACCEPT_BATCH_SIZE; i++) {
+                    final SocketChannel socketChannel = serverSocketChannel.accept();
+                    if(socketChannel == null) break;
+                    try {
+                        doAccept(socketChannel);
+                    }
+                    catch(final Throwable throwable) {
+                        close(socketChannel);
+                        swallow(throwable);
+                    }
                 }
             }
             catch(final Throwable throwable) {
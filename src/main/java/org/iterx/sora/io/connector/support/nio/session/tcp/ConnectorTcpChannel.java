@@ -4,14 +4,26 @@ import org.iterx.sora.collection.queue.SingleProducerSingleConsumerBlockingQueue
 import org.iterx.sora.io.IoException;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.AbstractChannel;
+import org.iterx.sora.io.connector.session.BufferSizing;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
+import org.iterx.sora.io.connector.session.ReadBacklog;
+import org.iterx.sora.io.connector.session.WriteWatermarks;
 import org.iterx.sora.io.connector.support.nio.session.NioChannel;
+import org.iterx.sora.kernel.memory.ByteBufferPool;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
+import org.iterx.sora.util.clock.Clock;
 
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -19,31 +31,69 @@ import java.util.concurrent.locks.ReentrantLock;
 import static org.iterx.sora.util.Exception.rethrow;
 import static org.iterx.sora.util.Exception.swallow;
 
-final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> implements TcpChannel {
+final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> implements TcpConnectorChannel {
+
+    private static final AtomicIntegerFieldUpdater<ConnectorTcpChannel> INTEREST_OPS_UPDATER = AtomicIntegerFieldUpdater.newUpdater(ConnectorTcpChannel.class, "interestOps");
+
+    public static final int DEFAULT_WRITE_LIMIT = 64 * 1024;
+
+    private static final int QUEUE_CAPACITY = 128;
 
     private final Multiplexor<? super TcpChannel> multiplexor;
     private final ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback;
     private final SocketChannel socketChannel;
     private final SocketAddress socketAddress;
     private final MultiplexorHandler multiplexorHandler;
+    private final ReadBacklogListener readBacklogListener;
 
     private final BlockingQueue<ByteBuffer> readBlockingQueue;
     private final BlockingQueue<ByteBuffer> writeBlockingQueue;
+    private final BlockingQueue<Transfer> transferBlockingQueue;
 
     private final Lock queueLock;
+    private final Lock readLock;
     private final Condition emptyQueueCondition;
+    private final WriteWatermarks writeWatermarks;
+
+    private final HashedTimingWheel.Timeout[] timeouts;
 
+    private final ByteBuffer[] writeBuffers;
+    private int writeBufferCount;
+    private long completedWrites;
+    private long enqueuedWrites;
+    private Runnable writesDrainedTask;
+
+    private volatile ReceiveBufferRing receiveBufferRing;
+    private volatile BufferSizing bufferSizing;
+    private volatile ReadBacklog readBacklog;
+    private volatile ChannelTimeouts channelTimeouts;
+    private volatile long lastReadTime;
+    private volatile long lastWriteTime;
+    private volatile int writeLimit;
     private volatile int interestOps;
 
     ConnectorTcpChannel(final Multiplexor<? super TcpChannel> multiplexor,
                         final ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback,
                         final SocketChannel socketChannel,
                         final SocketAddress socketAddress) {
-        this.readBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<ByteBuffer>(128);
-        this.writeBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<ByteBuffer>(128);
+        this.readBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<ByteBuffer>(QUEUE_CAPACITY);
+        this.writeBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<ByteBuffer>(QUEUE_CAPACITY);
+        this.transferBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<Transfer>(QUEUE_CAPACITY);
+        this.writeBuffers = new ByteBuffer[QUEUE_CAPACITY];
+        this.writeLimit = DEFAULT_WRITE_LIMIT;
+        this.timeouts = new HashedTimingWheel.Timeout[Deadline.values().length];
+        this.channelTimeouts = ChannelTimeouts.newDefaultChannelTimeouts();
         this.queueLock = new ReentrantLock();
+        this.readLock = new ReentrantLock();
         this.emptyQueueCondition = queueLock.newCondition();
+        this.writeWatermarks = new WriteWatermarks() {
+            @Override
+            protected void onWritabilityChanged(final boolean writable) {
+                doWritabilityChanged(writable);
+            }
+        };
         this.multiplexorHandler = new MultiplexorHandler();
+        this.readBacklogListener = new ReadBacklogListener();
 
         this.multiplexor = multiplexor;
         this.channelCallback = channelCallback;
@@ -55,69 +105,283 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
         return socketChannel;
     }
 
+    public TcpConnectorChannel setWriteLimit(final int writeLimit) {
+        if(writeLimit < 1) throw new IllegalArgumentException("writeLimit < 1");
+        this.writeLimit = writeLimit;
+        return this;
+    }
+
+    public TcpConnectorChannel setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+        if(channelTimeouts == null) throw new IllegalArgumentException("channelTimeouts == null");
+        this.channelTimeouts = channelTimeouts;
+        return this;
+    }
+
+    public TcpConnectorChannel setWriteWatermarks(final long lowWatermark, final long highWatermark) {
+        writeWatermarks.set(lowWatermark, highWatermark);
+        return this;
+    }
+
+    @Override
+    public <T> TcpConnectorChannel setOption(final ChannelOption<T> option, final T value) {
+        if(option == ChannelOption.BUFFER_SIZING) setBufferSizing(ChannelOption.BUFFER_SIZING.cast(value));
+        else NioChannel.Helper.setOption(socketChannel, option, value);
+        return this;
+    }
+
+    @Override
+    public <T> T getOption(final ChannelOption<T> option) {
+        if(option == ChannelOption.BUFFER_SIZING) return option.cast(bufferSizing);
+        return NioChannel.Helper.getOption(socketChannel, option);
+    }
+
+    public boolean isWritable() {
+        return writeWatermarks.isWritable();
+    }
+
+    public synchronized TcpConnectorChannel setReceiveBufferRing(final int bufferSize, final int buffers, final int maxBuffers) {
+        if(receiveBufferRing != null) throw new IllegalStateException("receiveBufferRing already set");
+        if(!readBlockingQueue.isEmpty()) throw new IllegalStateException("read buffers pending");
+        receiveBufferRing = new ReceiveBufferRing(ByteBufferPool.getByteBufferPool(), bufferSize, buffers, maxBuffers);
+        if(isState(State.OPENED)) doReadableChanged();
+        return this;
+    }
+
+    public synchronized TcpConnectorChannel setReadBacklog(final ReadBacklog readBacklog) {
+        if(this.readBacklog != null) this.readBacklog.removeListener(readBacklogListener);
+        if(readBacklog != null) readBacklog.addListener(readBacklogListener);
+        this.readBacklog = readBacklog;
+        if(isState(State.OPENED)) doReadableChanged();
+        return this;
+    }
+
+    public TcpConnectorChannel release(final ByteBuffer buffer) {
+        final ReceiveBufferRing receiveBufferRing = this.receiveBufferRing;
+        if(receiveBufferRing == null) throw new IllegalStateException("receiveBufferRing not set");
+        if(!receiveBufferRing.release(buffer)) throw new IllegalArgumentException("buffer not owned by channel");
+        if(isState(State.OPENED)) doReadableChanged();
+        return this;
+    }
+
     public Channel<ByteBuffer,ByteBuffer> read(final ByteBuffer buffer) {
         assertState(State.OPENED);
+        if(receiveBufferRing != null) throw new IllegalStateException("receiveBufferRing set");
         enqueue(readBlockingQueue, buffer, Multiplexor.READ_OP);
         return this;
     }
 
     public Channel<ByteBuffer, ByteBuffer> write(final ByteBuffer buffer) {
         assertState(State.OPENED);
-        enqueue(writeBlockingQueue, buffer, Multiplexor.WRITE_OP);
+        final int length = buffer.remaining();
+        writeWatermarks.increment(length);
+        try {
+            writeBlockingQueue.put(buffer);
+        }
+        catch(final InterruptedException e) {
+            writeWatermarks.decrement(length);
+            throw rethrow(e);
+        }
+        register(writeBlockingQueue, Multiplexor.WRITE_OP);
+        enqueuedWrites++;
+        return this;
+    }
+
+    @Override
+    public boolean tryWrite(final ByteBuffer buffer) {
+        assertState(State.OPENED);
+        final int length = buffer.remaining();
+        if(!writeWatermarks.isWritable()) return false;
+        writeWatermarks.increment(length);
+        if(offer(writeBlockingQueue, buffer, Multiplexor.WRITE_OP)) {
+            enqueuedWrites++;
+            return true;
+        }
+        writeWatermarks.decrement(length);
+        return false;
+    }
+
+    public TcpConnectorChannel transferFrom(final java.nio.channels.FileChannel fileChannel,
+                                            final long position,
+                                            final long count,
+                                            final TransferCallback transferCallback) {
+        assertState(State.OPENED);
+        if(fileChannel == null) throw new IllegalArgumentException("fileChannel == null");
+        if(position < 0) throw new IllegalArgumentException("position < 0");
+        if(count < 0) throw new IllegalArgumentException("count < 0");
+        enqueue(transferBlockingQueue, new Transfer(fileChannel, position, count, transferCallback, enqueuedWrites), Multiplexor.WRITE_OP);
         return this;
     }
 
     public Channel<ByteBuffer, ByteBuffer> flush() {
         assertState(State.OPENED);
-        flush(writeBlockingQueue);
+        flush(Multiplexor.WRITE_OP);
         return this;
     }
 
-    private void enqueue(final BlockingQueue<ByteBuffer> blockingQueue, final ByteBuffer buffer, final int ops) {
+    private <T> void enqueue(final BlockingQueue<T> blockingQueue, final T value, final int ops) {
         try {
-            blockingQueue.put(buffer);
-            if((interestOps & ops) == 0) {
-                queueLock.lock();
-                try {
-                    if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
-                        multiplexor.register(multiplexorHandler, interestOps ^ ops);
-                        interestOps |= ops;
-                    }
-                }
-                finally {
-                    queueLock.unlock();
-                }
-            }
+            blockingQueue.put(value);
+            register(blockingQueue, ops);
         }
         catch(final InterruptedException e) {
             throw rethrow(e);
         }
     }
 
+    private <T> boolean offer(final BlockingQueue<T> blockingQueue, final T value, final int ops) {
+        if(blockingQueue.offer(value)) {
+            register(blockingQueue, ops);
+            return true;
+        }
+        return false;
+    }
+
+    private void register(final BlockingQueue<?> blockingQueue, final int ops) {
+        if((INTEREST_OPS_UPDATER.getAndAdd(this, 0) & ops) == 0) {
+            queueLock.lock();
+            try {
+                if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
+                    multiplexor.register(multiplexorHandler, interestOps ^ ops);
+                    interestOps |= ops;
+                }
+            }
+            finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
     private ByteBuffer dequeue(final BlockingQueue<ByteBuffer> blockingQueue, final int ops) {
         final ByteBuffer buffer = blockingQueue.poll();
-        if(blockingQueue.isEmpty()) {
+        release(ops);
+        return buffer;
+    }
+
+    private boolean isEmpty(final int ops) {
+        return (ops == Multiplexor.READ_OP)?
+               readBlockingQueue.isEmpty() :
+               writeBlockingQueue.isEmpty() && transferBlockingQueue.isEmpty();
+    }
+
+    ReceiveBufferRing getReceiveBufferRing() {
+        return receiveBufferRing;
+    }
+
+    boolean cancelReads() {
+        readLock.lock();
+        try {
+            boolean clean = true;
+            for(ByteBuffer buffer = readBlockingQueue.poll(); buffer != null; buffer = readBlockingQueue.poll()) {
+                if(buffer.position() != 0) clean = false;
+            }
+            final ReceiveBufferRing receiveBufferRing = this.receiveBufferRing;
+            if(receiveBufferRing != null) {
+                this.receiveBufferRing = null;
+                receiveBufferRing.destroy();
+            }
+            release(Multiplexor.READ_OP);
+            return clean;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    boolean whenWritesDrained(final Runnable task) {
+        queueLock.lock();
+        try {
+            if(isEmpty(Multiplexor.WRITE_OP) && (interestOps & Multiplexor.WRITE_OP) == 0) return false;
+            writesDrainedTask = task;
+            return true;
+        }
+        finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void release(final int ops) {
+        if(isEmpty(ops)) {
+            Runnable task = null;
             queueLock.lock();
             try {
-                if(blockingQueue.isEmpty() && (interestOps & ops) != 0) {
-                    multiplexor.deregister(multiplexorHandler, interestOps & ops);
+                if(isEmpty(ops) && (interestOps & ops) != 0) {
                     interestOps ^= ops;
-                    emptyQueueCondition.signalAll();
+                    if(!isEmpty(ops)) interestOps |= ops;
+                    else {
+                        multiplexor.deregister(multiplexorHandler, ops);
+                        emptyQueueCondition.signalAll();
+                        if(ops == Multiplexor.WRITE_OP) {
+                            task = writesDrainedTask;
+                            writesDrainedTask = null;
+                        }
+                    }
                 }
             }
             finally {
                 queueLock.unlock();
             }
+            if(task != null) task.run();
         }
-        return buffer;
     }
 
-    private void flush(final BlockingQueue<ByteBuffer> blockingQueue)
+    private void deregister(final int ops) {
+        queueLock.lock();
+        try {
+            if((interestOps & ops) != 0) {
+                multiplexor.deregister(multiplexorHandler, interestOps & ops);
+                interestOps &= ~ops;
+            }
+        }
+        finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void resumeRead() {
+        queueLock.lock();
+        try {
+            if((interestOps & Multiplexor.READ_OP) == 0) {
+                multiplexor.register(multiplexorHandler, interestOps | Multiplexor.READ_OP);
+                interestOps |= Multiplexor.READ_OP;
+            }
+        }
+        finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void suspendRead() {
+        queueLock.lock();
+        try {
+            if((interestOps & Multiplexor.READ_OP) != 0) {
+                interestOps ^= Multiplexor.READ_OP;
+                if(!isReadable()) multiplexor.deregister(multiplexorHandler, Multiplexor.READ_OP);
+                else interestOps |= Multiplexor.READ_OP;
+            }
+        }
+        finally {
+            queueLock.unlock();
+        }
+    }
+
+    private boolean isReadable() {
+        final ReadBacklog readBacklog = this.readBacklog;
+        final ReceiveBufferRing receiveBufferRing = this.receiveBufferRing;
+        return (readBacklog == null || readBacklog.isReadable()) &&
+               (receiveBufferRing == null || receiveBufferRing.isAvailable());
+    }
+
+    private void doReadableChanged() {
+        if(isReadable() && (interestOps & Multiplexor.READ_OP) == 0 &&
+           (receiveBufferRing != null || !readBlockingQueue.isEmpty())) resumeRead();
+    }
+
+    private void flush(final int ops)
     {
-        if(!blockingQueue.isEmpty()) {
+        if(!isEmpty(ops) || (interestOps & ops) != 0) {
             queueLock.lock();
             try {
-                while(!blockingQueue.isEmpty()) {
+                while(!isEmpty(ops) || (interestOps & ops) != 0) {
                     emptyQueueCondition.await();
                 }
             }
@@ -142,6 +406,7 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
                 else if(!socketChannel.isConnectionPending()) {
                     multiplexor.register(multiplexorHandler, Multiplexor.OPEN_OP| Multiplexor.CLOSE_OP);
                     interestOps |= Multiplexor.OPEN_OP| Multiplexor.CLOSE_OP;
+                    schedule(Deadline.CONNECT, channelTimeouts.getConnectTimeoutMillis());
                     socketChannel.connect(socketAddress);
                 }
                 return State.OPENING;
@@ -159,7 +424,9 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
             socketChannel.finishConnect();
             channelCallback.onOpen(this);
             multiplexor.deregister(multiplexorHandler, Multiplexor.OPEN_OP);
-            interestOps ^= Multiplexor.OPEN_OP;
+            interestOps &= ~Multiplexor.OPEN_OP;
+            scheduleTimeouts();
+            if(receiveBufferRing != null && isReadable()) resumeRead();
             return super.onOpen();
         }
         catch(final IOException e) {
@@ -169,6 +436,7 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
 
     @Override
     protected State onAbort(final Throwable throwable) {
+        cancelTimeouts();
         channelCallback.onAbort(this, throwable);
         return super.onAbort(throwable);
     }
@@ -176,7 +444,11 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
     @Override
     protected State onClosing() {
         try {
+            cancelTimeouts();
             socketChannel.close();
+            deregister(Multiplexor.CLOSE_OP);
+            if(receiveBufferRing != null) receiveBufferRing.destroy();
+            if(readBacklog != null) readBacklog.removeListener(readBacklogListener);
             return super.onClosing();
         }
         catch(final IOException e) {
@@ -190,7 +462,80 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
         return super.onClose();
     }
 
+    private synchronized void setBufferSizing(final BufferSizing bufferSizing) {
+        if(socketChannel.isConnected() || socketChannel.isConnectionPending()) throw new IllegalStateException("buffers must be sized before connect");
+        if(bufferSizing != null) {
+            NioChannel.Helper.setOption(socketChannel, ChannelOption.SO_RCVBUF, bufferSizing.getBufferSize());
+            NioChannel.Helper.setOption(socketChannel, ChannelOption.SO_SNDBUF, bufferSizing.getBufferSize());
+        }
+        this.bufferSizing = bufferSizing;
+    }
+
+    private void scheduleTimeouts() {
+        final ChannelTimeouts channelTimeouts = this.channelTimeouts;
+        lastReadTime = lastWriteTime = Clock.currentTime(TimeUnit.MILLISECONDS);
+        cancel(Deadline.CONNECT);
+        schedule(Deadline.READ_IDLE, channelTimeouts.getReadIdleTimeoutMillis());
+        schedule(Deadline.WRITE_IDLE, channelTimeouts.getWriteIdleTimeoutMillis());
+        schedule(Deadline.LIFETIME, channelTimeouts.getLifetimeMillis());
+    }
+
+    private void schedule(final Deadline deadline, final long delay) {
+        if(delay != 0) {
+            synchronized(timeouts) {
+                timeouts[deadline.ordinal()] = multiplexor.schedule(multiplexorHandler, new DeadlineTask(deadline), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void cancel(final Deadline deadline) {
+        synchronized(timeouts) {
+            final HashedTimingWheel.Timeout timeout = timeouts[deadline.ordinal()];
+            if(timeout != null) {
+                timeout.cancel();
+                timeouts[deadline.ordinal()] = null;
+            }
+        }
+    }
+
+    private void cancelTimeouts() {
+        for(final Deadline deadline : Deadline.values()) cancel(deadline);
+    }
+
+    private void doTimeout(final Deadline deadline) {
+        if(isState(State.OPENING) || isState(State.OPENED)) {
+            final ChannelTimeouts channelTimeouts = this.channelTimeouts;
+            switch(deadline) {
+                case CONNECT:
+                    if(!isState(State.OPENED)) doTimeout(deadline, 0L);
+                    break;
+                case READ_IDLE:
+                    doTimeout(deadline, lastReadTime + channelTimeouts.getReadIdleTimeoutMillis() - Clock.currentTime(TimeUnit.MILLISECONDS));
+                    break;
+                case WRITE_IDLE:
+                    doTimeout(deadline, lastWriteTime + channelTimeouts.getWriteIdleTimeoutMillis() - Clock.currentTime(TimeUnit.MILLISECONDS));
+                    break;
+                case LIFETIME:
+                    doTimeout(deadline, 0L);
+            }
+        }
+    }
+
+    private void doTimeout(final Deadline deadline, final long remaining) {
+        if(remaining > 0) schedule(deadline, remaining);
+        else {
+            try {
+                changeState(State.ABORTED, new IoException(new SocketTimeoutException(deadline.message)));
+                close();
+            }
+            catch(final Throwable throwable) {
+                swallow(throwable);
+            }
+        }
+    }
+
     private void doRead(final ByteBuffer buffer) {
+        if(channelTimeouts.getReadIdleTimeoutMillis() != 0) lastReadTime = Clock.currentTime(TimeUnit.MILLISECONDS);
         try {
             channelCallback.onRead(this, buffer);
         }
@@ -199,6 +544,15 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
         }
     }
 
+    private void doWritabilityChanged(final boolean writable) {
+        try {
+            channelCallback.onWritabilityChanged(this, writable);
+        }
+        catch(final Throwable throwable) {
+            swallow(throwable);
+        }
+    }
+
     private void doWrite(final ByteBuffer buffer) {
         try {
             channelCallback.onWrite(this, buffer);
@@ -208,6 +562,51 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
         }
     }
 
+    private void doTransfer(final Transfer transfer) {
+        try {
+            if(transfer.transferCallback != null) {
+                if(transfer.throwable != null) transfer.transferCallback.onAbort(this, transfer.fileChannel, transfer.position, transfer.transferred, transfer.throwable);
+                else transfer.transferCallback.onTransfer(this, transfer.fileChannel, transfer.position, transfer.transferred);
+            }
+        }
+        catch(final Throwable throwable) {
+            swallow(throwable);
+        }
+    }
+
+    private enum Deadline {
+        CONNECT("connect timeout"),
+        READ_IDLE("read idle timeout"),
+        WRITE_IDLE("write idle timeout"),
+        LIFETIME("lifetime exceeded");
+
+        private final String message;
+
+        private Deadline(final String message) {
+            this.message = message;
+        }
+    }
+
+    private final class DeadlineTask implements HashedTimingWheel.Task {
+
+        private final Deadline deadline;
+
+        private DeadlineTask(final Deadline deadline) {
+            this.deadline = deadline;
+        }
+
+        public void onTimeout(final HashedTimingWheel.Timeout timeout) {
+            doTimeout(deadline);
+        }
+    }
+
+    private class ReadBacklogListener implements ReadBacklog.Listener {
+
+        public void onReadableChanged(final ReadBacklog readBacklog, final boolean readable) {
+            if(readable && isState(State.OPENED)) doReadableChanged();
+        }
+    }
+
     private class MultiplexorHandler implements Multiplexor.Handler<ConnectorTcpChannel> {
 
         public ConnectorTcpChannel getChannel() {
@@ -219,7 +618,16 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
         }
 
         public int doRead(final int length) {
+            final ReadBacklog readBacklog = ConnectorTcpChannel.this.readBacklog;
+            if(readBacklog != null && !readBacklog.isReadable()) {
+                suspendRead();
+                return 0;
+            }
+            final ReceiveBufferRing receiveBufferRing = ConnectorTcpChannel.this.receiveBufferRing;
+            if(receiveBufferRing != null) return doRead(receiveBufferRing, length);
+
             int remaining = length;
+            readLock.lock();
             try {
                 for(ByteBuffer buffer = readBlockingQueue.peek(); buffer != null; buffer = readBlockingQueue.peek()) {
                     OUTER: while(true) {
@@ -244,29 +652,92 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
                 changeState(State.ABORTED, throwable);
                 swallow(throwable);
             }
+            finally {
+                readLock.unlock();
+            }
+            return length - remaining;
+        }
+
+        private int doRead(final ReceiveBufferRing receiveBufferRing, final int length) {
+            int remaining = length;
+            readLock.lock();
+            try {
+                while(remaining > 0 && receiveBufferRing == ConnectorTcpChannel.this.receiveBufferRing) {
+                    final int count = (isReadable())? receiveBufferRing.claim(remaining) : 0;
+                    if(count == 0) {
+                        suspendRead();
+                        break;
+                    }
+                    final ByteBuffer[] buffers = receiveBufferRing.getBuffers();
+                    final long size = NioChannel.Helper.read(socketChannel, buffers, 0, count);
+                    int filled = 0;
+                    for(; filled != count && buffers[filled].position() != 0; filled++) {
+                        ConnectorTcpChannel.this.doRead((ByteBuffer) buffers[filled].flip());
+                    }
+                    for(int i = filled; i != count; i++) receiveBufferRing.unclaim(i);
+                    if(size == -1) {
+                        doClose();
+                        break;
+                    }
+                    remaining -= size;
+                    if(size < (long) count * receiveBufferRing.getBufferSize()) break;
+                }
+            }
+            catch(final Throwable throwable) {
+                changeState(State.ABORTED, throwable);
+                swallow(throwable);
+            }
+            finally {
+                readLock.unlock();
+            }
             return length - remaining;
         }
 
         public int doWrite(final int length) {
             int remaining = length;
             try {
-                for(ByteBuffer buffer = writeBlockingQueue.peek(); buffer != null; buffer = writeBlockingQueue.peek()) {
-                    OUTER: while(true) {
-                        final int size = NioChannel.Helper.write(socketChannel, buffer);
-                        switch(size) {
-                            case -1:
-                                doClose();
-                            case 0:
-                                break OUTER;
-                            default:
-                                remaining -= size;
+                while(remaining > 0) {
+                    int available = fillWriteBuffers();
+                    final Transfer transfer = transferBlockingQueue.peek();
+                    if(transfer != null && transfer.writes < completedWrites) throw new IllegalStateException();
+                    if(transfer != null && transfer.writes == completedWrites) {
+                        final long requested = Math.min(Math.min(remaining, writeLimit), transfer.count - transfer.transferred);
+                        final long size = transfer(transfer, requested);
+                        if(size == -1) {
+                            doClose();
+                            break;
                         }
+                        remaining -= size;
+                        if(transfer.isComplete()) {
+                            transferBlockingQueue.poll();
+                            ConnectorTcpChannel.this.doTransfer(transfer);
+                        }
+                        else if(size < requested) break;
+                        continue;
                     }
-                    if(buffer.position() != 0) {
-                        ConnectorTcpChannel.this.doWrite(dequeue(writeBlockingQueue, Multiplexor.WRITE_OP));
-                        if(!buffer.hasRemaining() && (remaining > 0)) continue;
+
+                    if(transfer != null) available = (int) Math.max(0, Math.min(available, transfer.writes - completedWrites));
+                    if(available == 0) break;
+
+                    final long limit = Math.min(remaining, writeLimit);
+                    long requested = writeBuffers[0].remaining();
+                    int count = 1;
+                    for(; count != available && requested + writeBuffers[count].remaining() <= limit; count++) {
+                        requested += writeBuffers[count].remaining();
                     }
-                    break;
+                    final long size = NioChannel.Helper.write(socketChannel, writeBuffers, 0, count);
+                    if(size == -1) {
+                        doClose();
+                        break;
+                    }
+                    remaining -= size;
+                    writeWatermarks.decrement(size);
+                    completeWriteBuffers();
+                    if(size < requested) break;
+                }
+                if(writeBufferCount == 0) release(Multiplexor.WRITE_OP);
+                if(remaining != length && channelTimeouts.getWriteIdleTimeoutMillis() != 0) {
+                    lastWriteTime = Clock.currentTime(TimeUnit.MILLISECONDS);
                 }
             }
             catch(final Throwable throwable) {
@@ -279,5 +750,73 @@ final class ConnectorTcpChannel extends AbstractChannel<ByteBuffer, ByteBuffer>
         public void doClose() {
             changeState(State.CLOSED);
         }
+
+        private long transfer(final Transfer transfer, final long count) {
+            try {
+                final long size = NioChannel.Helper.transfer(transfer.fileChannel,
+                                                             transfer.position + transfer.transferred,
+                                                             count,
+                                                             socketChannel);
+                if(size > 0) transfer.transferred += size;
+                else if(size == 0 && transfer.position + transfer.transferred >= transfer.fileChannel.size()) transfer.truncated = true;
+                return size;
+            }
+            catch(final IoException e) {
+                if(transfer.fileChannel.isOpen()) throw e;
+                transfer.throwable = e;
+            }
+            catch(final IOException e) {
+                transfer.throwable = e;
+            }
+            return 0;
+        }
+
+        private int fillWriteBuffers() {
+            for(ByteBuffer buffer; writeBufferCount != writeBuffers.length && (buffer = writeBlockingQueue.poll()) != null;) {
+                writeBuffers[writeBufferCount++] = buffer;
+            }
+            return writeBufferCount;
+        }
+
+        private void completeWriteBuffers() {
+            int count = 0;
+            while(count != writeBufferCount && !writeBuffers[count].hasRemaining()) count++;
+            if(count != 0) {
+                for(int i = 0; i != count; i++) ConnectorTcpChannel.this.doWrite(writeBuffers[i]);
+                System.arraycopy(writeBuffers, count, writeBuffers, 0, writeBufferCount - count);
+                Arrays.fill(writeBuffers, writeBufferCount - count, writeBufferCount, null);
+                writeBufferCount -= count;
+                completedWrites += count;
+            }
+        }
+    }
+
+    private static final class Transfer {
+
+        private final java.nio.channels.FileChannel fileChannel;
+        private final long position;
+        private final long count;
+        private final TransferCallback transferCallback;
+        private final long writes;
+
+        private long transferred;
+        private boolean truncated;
+        private Throwable throwable;
+
+        private Transfer(final java.nio.channels.FileChannel fileChannel,
+                         final long position,
+                         final long count,
+                         final TransferCallback transferCallback,
+                         final long writes) {
+            this.fileChannel = fileChannel;
+            this.position = position;
+            this.count = count;
+            this.transferCallback = transferCallback;
+            this.writes = writes;
+        }
+
+        private boolean isComplete() {
+            return transferred == count || truncated || throwable != null;
+        }
     }
 }
\ No newline at end of file
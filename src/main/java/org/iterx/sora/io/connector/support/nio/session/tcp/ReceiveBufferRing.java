@@ -0,0 +1,136 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.kernel.memory.ByteBufferPool;
+import org.iterx.sora.kernel.memory.PooledByteBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class ReceiveBufferRing {
+
+    private static final int FREE = 0;
+    private static final int CLAIMED = 1;
+    private static final int DESTROYED = 2;
+
+    private final ByteBufferPool byteBufferPool;
+    private final int bufferSize;
+    private final int maxBuffers;
+
+    private volatile Slot[] slots;
+    private volatile boolean destroyed;
+
+    private Slot[] claimedSlots;
+    private ByteBuffer[] claimedBuffers;
+    private int cursor;
+    private int releaseHint;
+
+    ReceiveBufferRing(final ByteBufferPool byteBufferPool, final int bufferSize, final int buffers, final int maxBuffers) {
+        if(byteBufferPool == null) throw new IllegalArgumentException("byteBufferPool == null");
+        if(bufferSize < 1) throw new IllegalArgumentException("bufferSize < 1");
+        if(buffers < 1) throw new IllegalArgumentException("buffers < 1");
+        if(maxBuffers < buffers) throw new IllegalArgumentException("maxBuffers < buffers");
+        this.byteBufferPool = byteBufferPool;
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.slots = new Slot[0];
+        grow(buffers);
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    ByteBuffer[] getBuffers() {
+        return claimedBuffers;
+    }
+
+    int claim(final int limit) {
+        final int count = Math.max(1, limit / bufferSize);
+        int claimed = claim(slots, count);
+        if(claimed == 0 && slots.length != maxBuffers) {
+            grow(Math.min(maxBuffers, slots.length << 1));
+            claimed = claim(slots, count);
+        }
+        return claimed;
+    }
+
+    void unclaim(final int index) {
+        free(claimedSlots[index]);
+    }
+
+    boolean release(final ByteBuffer buffer) {
+        final Slot[] slots = this.slots;
+        final int length = slots.length;
+        final int hint = releaseHint;
+        for(int i = 0; i != length; i++) {
+            final int index = (hint + i) % length;
+            final Slot slot = slots[index];
+            if(slot.byteBuffer == buffer) {
+                if(slot.state.get() != CLAIMED) throw new IllegalStateException("buffer not claimed");
+                releaseHint = index + 1;
+                buffer.clear().limit(bufferSize);
+                free(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isAvailable() {
+        final Slot[] slots = this.slots;
+        if(slots.length != maxBuffers) return !destroyed;
+        for(final Slot slot : slots) {
+            if(slot.state.get() == FREE) return true;
+        }
+        return false;
+    }
+
+    void destroy() {
+        destroyed = true;
+        for(final Slot slot : slots) destroy(slot);
+    }
+
+    private int claim(final Slot[] slots, final int count) {
+        final int length = slots.length;
+        int claimed = 0;
+        for(int i = 0; i != length && claimed != count; i++) {
+            final Slot slot = slots[(cursor + i) % length];
+            if(slot.state.compareAndSet(FREE, CLAIMED)) {
+                claimedSlots[claimed] = slot;
+                claimedBuffers[claimed++] = slot.byteBuffer;
+            }
+        }
+        cursor = (cursor + claimed) % length;
+        return claimed;
+    }
+
+    private void free(final Slot slot) {
+        if(slot.state.compareAndSet(CLAIMED, FREE) && destroyed) destroy(slot);
+    }
+
+    private void grow(final int capacity) {
+        final Slot[] slots = java.util.Arrays.copyOf(this.slots, capacity);
+        for(int i = this.slots.length; i != capacity; i++) slots[i] = new Slot(byteBufferPool.lease(bufferSize));
+        this.claimedSlots = new Slot[capacity];
+        this.claimedBuffers = new ByteBuffer[capacity];
+        this.slots = slots;
+        if(destroyed) destroy();
+    }
+
+    private static void destroy(final Slot slot) {
+        if(slot.state.compareAndSet(FREE, DESTROYED)) slot.pooledByteBuffer.release();
+    }
+
+    private static final class Slot {
+
+        private final PooledByteBuffer pooledByteBuffer;
+        private final ByteBuffer byteBuffer;
+        private final AtomicInteger state;
+
+        private Slot(final PooledByteBuffer pooledByteBuffer) {
+            this.pooledByteBuffer = pooledByteBuffer;
+            this.byteBuffer = pooledByteBuffer.getByteBuffer();
+            this.state = new AtomicInteger(FREE);
+        }
+    }
+}
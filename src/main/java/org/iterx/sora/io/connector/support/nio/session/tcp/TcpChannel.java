@@ -1,9 +1,16 @@
 package org.iterx.sora.io.connector.support.nio.session.tcp;
 
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
 import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectableChannel;
 
-public interface TcpChannel extends Channel<ByteBuffer, ByteBuffer>, NioChannel<SelectableChannel> {}
\ No newline at end of file
+public interface TcpChannel extends Channel<ByteBuffer, ByteBuffer>, NioChannel<SelectableChannel> {
+
+    <T> TcpChannel setOption(ChannelOption<T> option, T value);
+
+    TcpChannel setChannelTimeouts(ChannelTimeouts channelTimeouts);
+}
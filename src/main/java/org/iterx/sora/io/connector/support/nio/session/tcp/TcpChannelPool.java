@@ -0,0 +1,519 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.io.IoException;
+import org.iterx.sora.io.Uri;
+import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelOptions;
+import org.iterx.sora.io.connector.session.ChannelPoolPolicy;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
+import org.iterx.sora.io.connector.session.ReadBacklog;
+import org.iterx.sora.io.connector.session.WriteWatermarks;
+import org.iterx.sora.util.clock.Clock;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.iterx.sora.util.Exception.swallow;
+
+public final class TcpChannelPool {
+
+    private final Multiplexor<? super TcpChannel> multiplexor;
+    private final SocketAddress socketAddress;
+    private final ChannelPoolPolicy channelPoolPolicy;
+    private final Deque<Entry> idleEntries;
+    private final ChannelOptions channelOptions;
+
+    private volatile ChannelTimeouts channelTimeouts;
+
+    private int leasedCount;
+    private int warmingCount;
+    private boolean closed;
+
+    public TcpChannelPool(final Multiplexor<? super TcpChannel> multiplexor,
+                          final ConnectorEndpoint connectorEndpoint,
+                          final ChannelPoolPolicy channelPoolPolicy) {
+        if(multiplexor == null) throw new IllegalArgumentException("multiplexor == null");
+        if(connectorEndpoint == null) throw new IllegalArgumentException("connectorEndpoint == null");
+        if(channelPoolPolicy == null) throw new IllegalArgumentException("channelPoolPolicy == null");
+        this.multiplexor = multiplexor;
+        this.socketAddress = toSocketAddress(connectorEndpoint.getUri());
+        this.channelPoolPolicy = channelPoolPolicy;
+        this.idleEntries = new ArrayDeque<Entry>();
+        this.channelOptions = new ChannelOptions();
+        this.channelTimeouts = ChannelTimeouts.newDefaultChannelTimeouts();
+    }
+
+    public TcpChannelPool setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+        if(channelTimeouts == null) throw new IllegalArgumentException("channelTimeouts == null");
+        this.channelTimeouts = channelTimeouts;
+        return this;
+    }
+
+    public <T> TcpChannelPool setOption(final ChannelOption<T> option, final T value) {
+        channelOptions.set(option, value);
+        return this;
+    }
+
+    public TcpChannelPool open() {
+        warm();
+        return this;
+    }
+
+    public TcpConnectorChannel lease(final Channel.ChannelCallback<? super TcpConnectorChannel, ByteBuffer, ByteBuffer> channelCallback) {
+        if(channelCallback == null) throw new IllegalArgumentException("channelCallback == null");
+        final Lease lease;
+        synchronized(this) {
+            if(closed) throw new IllegalStateException("closed");
+            evict();
+            Entry entry;
+            for(entry = idleEntries.pollFirst(); entry != null && !entry.probe(); entry = idleEntries.pollFirst()) {
+                entry.close();
+            }
+            if(entry == null) entry = new Entry(false);
+            lease = new Lease(entry, channelCallback);
+            entry.lease = lease;
+            leasedCount++;
+        }
+        warm();
+        return lease;
+    }
+
+    public void release(final TcpChannel channel) {
+        if(!(channel instanceof Lease) || ((Lease) channel).getPool() != this) throw new IllegalArgumentException("channel not leased from pool");
+        ((Lease) channel).close();
+    }
+
+    public synchronized int getIdleCount() {
+        return idleEntries.size();
+    }
+
+    public synchronized int getLeasedCount() {
+        return leasedCount;
+    }
+
+    public void close() {
+        final Entry[] entries;
+        synchronized(this) {
+            closed = true;
+            entries = idleEntries.toArray(new Entry[idleEntries.size()]);
+            idleEntries.clear();
+        }
+        for(final Entry entry : entries) entry.close();
+    }
+
+    private void doRelease(final Lease lease) {
+        final Entry entry = lease.entry;
+        if(entry.opened && entry.isHealthy()) {
+            try {
+                if(entry.connectorTcpChannel.whenWritesDrained(new Runnable() {
+                    public void run() {
+                        doRecycle(lease);
+                    }
+                })) return;
+            }
+            catch(final Throwable throwable) {
+                swallow(throwable);
+            }
+        }
+        doRecycle(lease);
+    }
+
+    private void doRecycle(final Lease lease) {
+        if(!lease.recycle()) return;
+        final Entry entry = lease.entry;
+        boolean reusable = entry.opened && entry.isHealthy();
+        if(reusable) {
+            try {
+                reusable = entry.connectorTcpChannel.cancelReads() && entry.isHealthy();
+                entry.reset();
+            }
+            catch(final Throwable throwable) {
+                reusable = false;
+                swallow(throwable);
+            }
+        }
+        entry.lease = null;
+        try {
+            lease.channelCallback.onClose(lease);
+        }
+        catch(final Throwable throwable) {
+            swallow(throwable);
+        }
+        synchronized(this) {
+            leasedCount--;
+            if(reusable && !closed && idleEntries.size() < channelPoolPolicy.getMaxIdle()) {
+                entry.idleTime = Clock.currentTime(TimeUnit.MILLISECONDS);
+                idleEntries.addFirst(entry);
+                return;
+            }
+        }
+        entry.close();
+    }
+
+    private void doDetach(final Lease lease) {
+        if(lease.release()) {
+            lease.recycle();
+            synchronized(this) {
+                leasedCount--;
+            }
+        }
+    }
+
+    private void doIdle(final Entry entry) {
+        synchronized(this) {
+            if(!unwarm(entry)) return;
+            if(!closed && idleEntries.size() < channelPoolPolicy.getMaxIdle()) {
+                entry.idleTime = Clock.currentTime(TimeUnit.MILLISECONDS);
+                idleEntries.addFirst(entry);
+                return;
+            }
+        }
+        entry.close();
+    }
+
+    private Lease doEvict(final Entry entry) {
+        synchronized(this) {
+            final Lease lease = entry.lease;
+            if(lease == null && !idleEntries.remove(entry)) unwarm(entry);
+            return lease;
+        }
+    }
+
+    private boolean unwarm(final Entry entry) {
+        if(!entry.warming) return false;
+        entry.warming = false;
+        warmingCount--;
+        return true;
+    }
+
+    private void evict() {
+        final long evictTime = Clock.currentTime(TimeUnit.MILLISECONDS) - channelPoolPolicy.getMaxIdleTimeMillis();
+        for(final Iterator<Entry> iterator = idleEntries.descendingIterator(); iterator.hasNext();) {
+            final Entry entry = iterator.next();
+            if(entry.idleTime <= evictTime || !entry.isHealthy()) {
+                iterator.remove();
+                entry.close();
+            }
+        }
+    }
+
+    private void warm() {
+        final int count;
+        synchronized(this) {
+            if(closed) return;
+            count = Math.max(0, channelPoolPolicy.getMinIdle() - idleEntries.size() - warmingCount);
+            warmingCount += count;
+        }
+        for(int i = 0; i != count; i++) {
+            Entry entry = null;
+            try {
+                entry = new Entry(true);
+                entry.connectorTcpChannel.open();
+            }
+            catch(final Throwable throwable) {
+                synchronized(this) {
+                    if(entry == null) warmingCount--;
+                    else unwarm(entry);
+                }
+                swallow(throwable);
+            }
+        }
+    }
+
+    private SocketChannel newSocketChannel() {
+        try {
+            final SocketChannel socketChannel = SocketChannel.open();
+            socketChannel.configureBlocking(false);
+            socketChannel.setOption(StandardSocketOption.SO_REUSEADDR, true);
+            return socketChannel;
+        }
+        catch(final IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    private static SocketAddress toSocketAddress(final Uri uri) {
+        return new InetSocketAddress(uri.getHost(), uri.getPort());
+    }
+
+    private final class Entry implements Channel.ChannelCallback<TcpChannel, ByteBuffer, ByteBuffer> {
+
+        private final ConnectorTcpChannel connectorTcpChannel;
+        private final ChannelOptions leaseOptions;
+        private final ByteBuffer probeBuffer;
+
+        private volatile Lease lease;
+        private volatile boolean opened;
+        private volatile boolean closed;
+        private long idleTime;
+        private boolean warming;
+
+        private Entry(final boolean warming) {
+            this.connectorTcpChannel = new ConnectorTcpChannel(multiplexor, this, newSocketChannel(), socketAddress);
+            this.connectorTcpChannel.setChannelTimeouts(channelTimeouts);
+            channelOptions.applyTo(connectorTcpChannel);
+            this.leaseOptions = new ChannelOptions();
+            this.probeBuffer = ByteBuffer.allocate(1);
+            this.warming = warming;
+        }
+
+        public void onOpen(final TcpChannel channel) {
+            opened = true;
+            final Lease lease = this.lease;
+            if(lease != null) lease.channelCallback.onOpen(lease);
+            else doIdle(this);
+        }
+
+        public void onRead(final TcpChannel channel, final ByteBuffer buffer) {
+            final Lease lease = this.lease;
+            if(lease != null) lease.channelCallback.onRead(lease, buffer);
+        }
+
+        public void onWrite(final TcpChannel channel, final ByteBuffer buffer) {
+            final Lease lease = this.lease;
+            if(lease != null) lease.channelCallback.onWrite(lease, buffer);
+        }
+
+        public void onWritabilityChanged(final TcpChannel channel, final boolean writable) {
+            final Lease lease = this.lease;
+            if(lease != null) lease.channelCallback.onWritabilityChanged(lease, writable);
+        }
+
+        public void onAbort(final TcpChannel channel, final Throwable throwable) {
+            closed = true;
+            final Lease lease = doEvict(this);
+            if(lease == null) return;
+            if(lease.isReleased()) doRecycle(lease);
+            else lease.channelCallback.onAbort(lease, throwable);
+        }
+
+        public void onClose(final TcpChannel channel) {
+            closed = true;
+            final Lease lease = doEvict(this);
+            if(lease == null) return;
+            if(lease.isReleased()) doRecycle(lease);
+            else {
+                doDetach(lease);
+                lease.channelCallback.onClose(lease);
+            }
+        }
+
+        private boolean isHealthy() {
+            final SocketChannel socketChannel = connectorTcpChannel.getChannel();
+            return !closed && socketChannel.isOpen() && (!opened || socketChannel.isConnected());
+        }
+
+        private boolean probe() {
+            if(!isHealthy()) return false;
+            try {
+                probeBuffer.clear();
+                return connectorTcpChannel.getChannel().read(probeBuffer) == 0;
+            }
+            catch(final IOException e) {
+                return false;
+            }
+        }
+
+        private <T> void setOption(final ChannelOption<T> option, final T value) {
+            if(option == ChannelOption.BUFFER_SIZING) throw new IllegalStateException("buffers sized by pool");
+            if(leaseOptions.get(option) == null) leaseOptions.set(option, connectorTcpChannel.getOption(option));
+            connectorTcpChannel.setOption(option, value);
+        }
+
+        private void reset() {
+            connectorTcpChannel.setReadBacklog(null);
+            connectorTcpChannel.setWriteLimit(ConnectorTcpChannel.DEFAULT_WRITE_LIMIT);
+            connectorTcpChannel.setWriteWatermarks(WriteWatermarks.DEFAULT_LOW_WATERMARK, WriteWatermarks.DEFAULT_HIGH_WATERMARK);
+            connectorTcpChannel.setChannelTimeouts(channelTimeouts);
+            if(!leaseOptions.isEmpty()) {
+                leaseOptions.applyTo(connectorTcpChannel);
+                leaseOptions.clear();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            try {
+                connectorTcpChannel.close();
+            }
+            catch(final Throwable throwable) {
+                swallow(throwable);
+            }
+            try {
+                connectorTcpChannel.getChannel().close();
+            }
+            catch(final Throwable throwable) {
+                swallow(throwable);
+            }
+        }
+    }
+
+    private final class Lease implements TcpConnectorChannel {
+
+        private final Entry entry;
+        private final Channel.ChannelCallback<? super TcpConnectorChannel, ByteBuffer, ByteBuffer> channelCallback;
+        private final AtomicBoolean released;
+        private final AtomicBoolean recycled;
+
+        private volatile ReceiveBufferRing receiveBufferRing;
+
+        private Lease(final Entry entry, final Channel.ChannelCallback<? super TcpConnectorChannel, ByteBuffer, ByteBuffer> channelCallback) {
+            this.entry = entry;
+            this.channelCallback = channelCallback;
+            this.released = new AtomicBoolean();
+            this.recycled = new AtomicBoolean();
+        }
+
+        public SelectableChannel getChannel() {
+            return entry.connectorTcpChannel.getChannel();
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> open() {
+            assertLeased();
+            if(entry.opened) channelCallback.onOpen(this);
+            else entry.connectorTcpChannel.open();
+            return this;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> read(final ByteBuffer buffer) {
+            assertLeased();
+            entry.connectorTcpChannel.read(buffer);
+            return this;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> write(final ByteBuffer buffer) {
+            assertLeased();
+            entry.connectorTcpChannel.write(buffer);
+            return this;
+        }
+
+        public boolean tryWrite(final ByteBuffer buffer) {
+            assertLeased();
+            return entry.connectorTcpChannel.tryWrite(buffer);
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> flush() {
+            assertLeased();
+            entry.connectorTcpChannel.flush();
+            return this;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> close() {
+            if(release()) doRelease(this);
+            return this;
+        }
+
+        public TcpConnectorChannel setWriteLimit(final int writeLimit) {
+            assertLeased();
+            entry.connectorTcpChannel.setWriteLimit(writeLimit);
+            return this;
+        }
+
+        public TcpConnectorChannel setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+            assertLeased();
+            entry.connectorTcpChannel.setChannelTimeouts(channelTimeouts);
+            return this;
+        }
+
+        public <T> TcpConnectorChannel setOption(final ChannelOption<T> option, final T value) {
+            assertLeased();
+            entry.setOption(option, value);
+            return this;
+        }
+
+        public <T> T getOption(final ChannelOption<T> option) {
+            return entry.connectorTcpChannel.getOption(option);
+        }
+
+        public TcpConnectorChannel setWriteWatermarks(final long lowWatermark, final long highWatermark) {
+            assertLeased();
+            entry.connectorTcpChannel.setWriteWatermarks(lowWatermark, highWatermark);
+            return this;
+        }
+
+        public boolean isWritable() {
+            return entry.connectorTcpChannel.isWritable();
+        }
+
+        public TcpConnectorChannel setReceiveBufferRing(final int bufferSize, final int buffers, final int maxBuffers) {
+            assertLeased();
+            entry.connectorTcpChannel.setReceiveBufferRing(bufferSize, buffers, maxBuffers);
+            receiveBufferRing = entry.connectorTcpChannel.getReceiveBufferRing();
+            return this;
+        }
+
+        public TcpConnectorChannel release(final ByteBuffer buffer) {
+            if(!released.get()) entry.connectorTcpChannel.release(buffer);
+            else {
+                final ReceiveBufferRing receiveBufferRing = this.receiveBufferRing;
+                if(receiveBufferRing == null) throw new IllegalStateException("receiveBufferRing not set");
+                if(!receiveBufferRing.release(buffer)) throw new IllegalArgumentException("buffer not owned by channel");
+            }
+            return this;
+        }
+
+        public TcpConnectorChannel setReadBacklog(final ReadBacklog readBacklog) {
+            assertLeased();
+            entry.connectorTcpChannel.setReadBacklog(readBacklog);
+            return this;
+        }
+
+        public TcpConnectorChannel transferFrom(final FileChannel fileChannel,
+                                                final long position,
+                                                final long count,
+                                                final TransferCallback transferCallback) {
+            assertLeased();
+            entry.connectorTcpChannel.transferFrom(fileChannel, position, count, (transferCallback != null)? new TransferCallback() {
+                public void onTransfer(final Channel<ByteBuffer, ByteBuffer> channel,
+                                       final FileChannel fileChannel,
+                                       final long position,
+                                       final long count) {
+                    transferCallback.onTransfer(Lease.this, fileChannel, position, count);
+                }
+
+                public void onAbort(final Channel<ByteBuffer, ByteBuffer> channel,
+                                    final java.nio.channels.FileChannel fileChannel,
+                                    final long position,
+                                    final long count,
+                                    final Throwable throwable) {
+                    transferCallback.onAbort(Lease.this, fileChannel, position, count, throwable);
+                }
+            } : null);
+            return this;
+        }
+
+        private TcpChannelPool getPool() {
+            return TcpChannelPool.this;
+        }
+
+        private boolean release() {
+            return released.compareAndSet(false, true);
+        }
+
+        private boolean recycle() {
+            return recycled.compareAndSet(false, true);
+        }
+
+        private boolean isReleased() {
+            return released.get();
+        }
+
+        private void assertLeased() {
+            if(released.get()) throw new IllegalStateException("channel released");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
+import org.iterx.sora.io.connector.session.ReadBacklog;
+import org.iterx.sora.io.connector.support.nio.session.NioChannel;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public interface TcpConnectorChannel extends TcpChannel, NioChannel.TransferTarget {
+
+    <T> TcpConnectorChannel setOption(ChannelOption<T> option, T value);
+
+    TcpConnectorChannel setChannelTimeouts(ChannelTimeouts channelTimeouts);
+
+    TcpConnectorChannel setWriteLimit(int writeLimit);
+
+    TcpConnectorChannel setWriteWatermarks(long lowWatermark, long highWatermark);
+
+    boolean isWritable();
+
+    TcpConnectorChannel setReceiveBufferRing(int bufferSize, int buffers, int maxBuffers);
+
+    TcpConnectorChannel release(ByteBuffer buffer);
+
+    TcpConnectorChannel setReadBacklog(ReadBacklog readBacklog);
+
+    TcpConnectorChannel transferFrom(FileChannel fileChannel, long position, long count, TransferCallback transferCallback);
+}
@@ -6,15 +6,22 @@ import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
 import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelOptions;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
 import org.iterx.sora.io.connector.session.AbstractSession;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.SocketOption;
 import java.net.StandardSocketOption;
 import java.nio.ByteBuffer;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.iterx.sora.util.Exception.swallow;
 
 
 public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, ByteBuffer> {
@@ -22,12 +29,22 @@ public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, By
     private final TcpChannelProvider socketChannelProvider;
     private final SessionCallback<? super TcpSession> sessionCallback;
 
+    @SuppressWarnings("unchecked")
     public TcpSession(final Multiplexor<? super TcpChannel> multiplexor,
                       final SessionCallback<? super TcpSession> sessionCallback,
                       final AcceptorEndpoint acceptorEndpoint) {
-        this.socketChannelProvider = new AcceptorTcpChannelProvider(multiplexor, acceptorEndpoint);
-        this.sessionCallback = sessionCallback;
+        this((Multiplexor<? super TcpChannel>[]) new Multiplexor<?>[] { multiplexor }, sessionCallback, acceptorEndpoint, 1, null);
+    }
 
+    public TcpSession(final Multiplexor<? super TcpChannel>[] multiplexors,
+                      final SessionCallback<? super TcpSession> sessionCallback,
+                      final AcceptorEndpoint acceptorEndpoint,
+                      final int acceptors,
+                      final Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
+        if(multiplexors == null || multiplexors.length == 0) throw new IllegalArgumentException("multiplexors is empty");
+        if(acceptors < 1) throw new IllegalArgumentException("acceptors < 1");
+        this.socketChannelProvider = new AcceptorTcpChannelProvider(multiplexors, acceptorEndpoint, acceptors, channelCallback);
+        this.sessionCallback = sessionCallback;
     }
 
     public TcpSession(final Multiplexor<? super TcpChannel> multiplexor,
@@ -38,6 +55,26 @@ public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, By
 
     }
 
+    public TcpSession(final TcpChannelPool tcpChannelPool,
+                      final SessionCallback<? super TcpSession> sessionCallback) {
+        if(tcpChannelPool == null) throw new IllegalArgumentException("tcpChannelPool == null");
+        this.socketChannelProvider = new PooledTcpChannelProvider(tcpChannelPool);
+        this.sessionCallback = sessionCallback;
+    }
+
+    public TcpSession setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+        if(channelTimeouts == null) throw new IllegalArgumentException("channelTimeouts == null");
+        socketChannelProvider.setChannelTimeouts(channelTimeouts);
+        return this;
+    }
+
+    @Override
+    public <T> TcpSession setOption(final ChannelOption<T> option, final T value) {
+        if(option == null) throw new IllegalArgumentException("option == null");
+        socketChannelProvider.setOption(option, value);
+        return this;
+    }
+
     public TcpChannel newChannel(final Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
         assertState(State.OPENED);
         return socketChannelProvider.newChannel(channelCallback);
@@ -84,6 +121,10 @@ public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, By
 
         abstract TcpChannel newChannel(Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback);
 
+        abstract void setChannelTimeouts(ChannelTimeouts channelTimeouts);
+
+        abstract <T> void setOption(ChannelOption<T> option, T value);
+
         public void close() {
         }
 
@@ -96,15 +137,28 @@ public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, By
 
         private final Multiplexor<? super TcpChannel> multiplexor;
         private final SocketAddress socketAddress;
+        private final ChannelOptions channelOptions;
+
+        private volatile ChannelTimeouts channelTimeouts;
 
         private ConnectorTcpChannelProvider(final Multiplexor<? super TcpChannel> multiplexor, final ConnectorEndpoint connectorEndpoint){
             this.socketAddress = toSocketAddress(connectorEndpoint.getUri());
             this.multiplexor = multiplexor;
+            this.channelTimeouts = ChannelTimeouts.newDefaultChannelTimeouts();
+            this.channelOptions = new ChannelOptions();
+        }
+
+        public void setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+            this.channelTimeouts = channelTimeouts;
+        }
+
+        public <T> void setOption(final ChannelOption<T> option, final T value) {
+            channelOptions.set(option, value);
         }
 
         public TcpChannel newChannel(final Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
             final SocketChannel socketChannel = newSocketChannel();
-            return new ConnectorTcpChannel(multiplexor, channelCallback, socketChannel, socketAddress);
+            return channelOptions.applyTo(new ConnectorTcpChannel(multiplexor, channelCallback, socketChannel, socketAddress).setChannelTimeouts(channelTimeouts));
         }
 
         private SocketChannel newSocketChannel() {
@@ -120,42 +174,82 @@ public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, By
         }
     }
 
-    private final class AcceptorTcpChannelProvider extends TcpChannelProvider {
+    private final class PooledTcpChannelProvider extends TcpChannelProvider {
 
-        private final AcceptorTcpChannel acceptorTcpChannel;
+        private final TcpChannelPool tcpChannelPool;
 
-        private AcceptorTcpChannelProvider(final Multiplexor<? super TcpChannel> multiplexor,
-                                           final AcceptorEndpoint acceptorEndpoint) {
-            this.acceptorTcpChannel = new AcceptorTcpChannel(multiplexor,
-                                                             new AcceptorTcpChannelCallback(),
-                                                             newServerSocketChannel(),
-                                                             toSocketAddress(acceptorEndpoint.getUri()));
+        private PooledTcpChannelProvider(final TcpChannelPool tcpChannelPool) {
+            this.tcpChannelPool = tcpChannelPool;
         }
 
         @Override
         public void open() {
-            acceptorTcpChannel.open();
+            tcpChannelPool.open();
         }
 
-        @Override
-        public void close() {
-            acceptorTcpChannel.close();
+        public void setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+            tcpChannelPool.setChannelTimeouts(channelTimeouts);
+        }
+
+        public <T> void setOption(final ChannelOption<T> option, final T value) {
+            tcpChannelPool.setOption(option, value);
         }
 
         public TcpChannel newChannel(final Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
-            return acceptorTcpChannel.accept(channelCallback);
+            return tcpChannelPool.lease(channelCallback);
         }
+    }
 
-        private ServerSocketChannel newServerSocketChannel() {
-            try {
-                final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
-                serverSocketChannel.configureBlocking(false);
-                serverSocketChannel.setOption(StandardSocketOption.SO_REUSEADDR, true);
-                return serverSocketChannel;
+    private final class AcceptorTcpChannelProvider extends TcpChannelProvider {
+
+        private final AcceptorTcpChannel[] acceptorTcpChannels;
+        private int nextAcceptorTcpChannel;
+
+        private AcceptorTcpChannelProvider(final Multiplexor<? super TcpChannel>[] multiplexors,
+                                           final AcceptorEndpoint acceptorEndpoint,
+                                           final int acceptors,
+                                           final Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
+            final SocketAddress socketAddress = toSocketAddress(acceptorEndpoint.getUri());
+            final AtomicInteger nextChannelMultiplexor = new AtomicInteger();
+            final ServerSocketChannel[] serverSocketChannels = newServerSocketChannels(acceptors, (acceptors > 1)? getReusePortOption() : null);
+            this.acceptorTcpChannels = new AcceptorTcpChannel[serverSocketChannels.length];
+            for(int i = 0; i != serverSocketChannels.length; i++) {
+                this.acceptorTcpChannels[i] = new AcceptorTcpChannel(multiplexors[i % multiplexors.length],
+                                                                     new AcceptorTcpChannelCallback(),
+                                                                     serverSocketChannels[i],
+                                                                     socketAddress,
+                                                                     multiplexors,
+                                                                     nextChannelMultiplexor,
+                                                                     channelCallback);
             }
-            catch(final IOException e) {
-                throw new IoException(e);
+        }
+
+        @Override
+        public void open() {
+            for(final AcceptorTcpChannel acceptorTcpChannel : acceptorTcpChannels) acceptorTcpChannel.open();
+        }
+
+        @Override
+        public void close() {
+            for(final AcceptorTcpChannel acceptorTcpChannel : acceptorTcpChannels) acceptorTcpChannel.close();
+        }
+
+        public void setChannelTimeouts(final ChannelTimeouts channelTimeouts) {
+            for(final AcceptorTcpChannel acceptorTcpChannel : acceptorTcpChannels) acceptorTcpChannel.setChannelTimeouts(channelTimeouts);
+        }
+
+        public <T> void setOption(final ChannelOption<T> option, final T value) {
+            for(final AcceptorTcpChannel acceptorTcpChannel : acceptorTcpChannels) acceptorTcpChannel.setOption(option, value);
+        }
+
+        public synchronized TcpChannel newChannel(final Channel.ChannelCallback<? super TcpChannel, ByteBuffer, ByteBuffer> channelCallback) {
+            for(int i = 0; i != acceptorTcpChannels.length; i++) {
+                final AcceptorTcpChannel acceptorTcpChannel = acceptorTcpChannels[nextAcceptorTcpChannel];
+                nextAcceptorTcpChannel = (nextAcceptorTcpChannel + 1) % acceptorTcpChannels.length;
+                final TcpChannel tcpChannel = acceptorTcpChannel.accept(channelCallback);
+                if(tcpChannel != null) return tcpChannel;
             }
+            return null;
         }
 
         private class AcceptorTcpChannelCallback implements Channel.AcceptorChannelCallback<TcpChannel, ByteBuffer, ByteBuffer> {
@@ -165,4 +259,67 @@ public final class TcpSession extends AbstractSession<TcpChannel, ByteBuffer, By
             }
         }
     }
-}
\ No newline at end of file
+
+    static ServerSocketChannel[] newServerSocketChannels(final int acceptors, final SocketOption<Boolean> reusePort) {
+        if(acceptors > 1 && reusePort == null) throw new IllegalArgumentException("acceptors > 1 requires SO_REUSEPORT");
+        final ServerSocketChannel[] serverSocketChannels = new ServerSocketChannel[acceptors];
+        try {
+            for(int i = 0; i != serverSocketChannels.length; i++) {
+                serverSocketChannels[i] = newServerSocketChannel();
+                if(reusePort != null) serverSocketChannels[i].setOption(reusePort, true);
+            }
+            return serverSocketChannels;
+        }
+        catch(final IOException e) {
+            for(final ServerSocketChannel serverSocketChannel : serverSocketChannels) {
+                if(serverSocketChannel != null) close(serverSocketChannel);
+            }
+            throw new IoException(e);
+        }
+    }
+
+    private static ServerSocketChannel newServerSocketChannel() throws IOException {
+        final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+        try {
+            serverSocketChannel.configureBlocking(false);
+            serverSocketChannel.setOption(StandardSocketOption.SO_REUSEADDR, true);
+            return serverSocketChannel;
+        }
+        catch(final IOException e) {
+            close(serverSocketChannel);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static SocketOption<Boolean> getReusePortOption() {
+        final SocketOption<Boolean> reusePort;
+        try {
+            reusePort = (SocketOption<Boolean>) Class.forName("java.net.StandardSocketOptions").getField("SO_REUSEPORT").get(null);
+        }
+        catch(final ReflectiveOperationException e) {
+            return null;
+        }
+        try {
+            final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+            try {
+                return (serverSocketChannel.supportedOptions().contains(reusePort))? reusePort : null;
+            }
+            finally {
+                serverSocketChannel.close();
+            }
+        }
+        catch(final IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    private static void close(final ServerSocketChannel serverSocketChannel) {
+        try {
+            serverSocketChannel.close();
+        }
+        catch(final IOException e) {
+            swallow(e);
+        }
+    }
+}
@@ -5,12 +5,15 @@ import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
 import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
 import org.iterx.sora.io.connector.endpoint.Endpoint;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.ChannelPoolPolicy;
 import org.iterx.sora.io.connector.session.Session;
 import org.iterx.sora.io.connector.session.SessionFactory;
 import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectableChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 public final class TcpSessionFactory implements SessionFactory<TcpSession, TcpSession, ByteBuffer, ByteBuffer> {
@@ -18,9 +21,17 @@ public final class TcpSessionFactory implements SessionFactory<TcpSession, TcpSe
     private static final Pattern URI_PATTERN = Pattern.compile("tcp://([^#]*)?(#.*)?");
 
     private final Multiplexor<? super TcpChannel> multiplexor;
+    private final ChannelPoolPolicy channelPoolPolicy;
+    private final ConcurrentMap<String, TcpChannelPool> tcpChannelPools;
 
     public TcpSessionFactory(final Multiplexor<? super TcpChannel> multiplexor) {
+        this(multiplexor, null);
+    }
+
+    public TcpSessionFactory(final Multiplexor<? super TcpChannel> multiplexor, final ChannelPoolPolicy channelPoolPolicy) {
         this.multiplexor = multiplexor;
+        this.channelPoolPolicy = channelPoolPolicy;
+        this.tcpChannelPools = new ConcurrentHashMap<String, TcpChannelPool>();
     }
 
     public boolean supports(final Endpoint endpoint) {
@@ -38,9 +49,24 @@ public final class TcpSessionFactory implements SessionFactory<TcpSession, TcpSe
                                  final Session.SessionCallback<? super TcpSession> sessionCallback,
                                  final ConnectorEndpoint connectorEndpoint) {
         assertEndpoint(connectorEndpoint);
+        if(channelPoolPolicy != null) return new TcpSession(getTcpChannelPool(connectorEndpoint), sessionCallback);
         return new TcpSession(multiplexor, sessionCallback, connectorEndpoint);
     }
 
+    public void destroy() {
+        for(final TcpChannelPool tcpChannelPool : tcpChannelPools.values()) tcpChannelPool.close();
+        tcpChannelPools.clear();
+    }
+
+    private TcpChannelPool getTcpChannelPool(final ConnectorEndpoint connectorEndpoint) {
+        final String key = connectorEndpoint.getUri().getHost() + ":" + connectorEndpoint.getUri().getPort();
+        final TcpChannelPool tcpChannelPool = tcpChannelPools.get(key);
+        if(tcpChannelPool != null) return tcpChannelPool;
+        final TcpChannelPool newTcpChannelPool = new TcpChannelPool(multiplexor, connectorEndpoint, channelPoolPolicy);
+        final TcpChannelPool oldTcpChannelPool = tcpChannelPools.putIfAbsent(key, newTcpChannelPool);
+        return (oldTcpChannelPool != null)? oldTcpChannelPool : newTcpChannelPool;
+    }
+
     private void assertEndpoint(final Endpoint endpoint) {
         if(!supports(endpoint)) throw new IllegalArgumentException("Invalid endpoint '" + endpoint + "'");
     }
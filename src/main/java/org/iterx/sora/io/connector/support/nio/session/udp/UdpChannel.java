@@ -5,12 +5,16 @@ import org.iterx.sora.io.IoException;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.AbstractChannel;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ReadBacklog;
+import org.iterx.sora.io.connector.session.WriteWatermarks;
 import org.iterx.sora.io.connector.support.nio.session.NioChannel;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -20,17 +24,22 @@ import static org.iterx.sora.util.Exception.swallow;
 
 public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> implements NioChannel<DatagramChannel> {
 
+    private static final AtomicIntegerFieldUpdater<UdpChannel> INTEREST_OPS_UPDATER = AtomicIntegerFieldUpdater.newUpdater(UdpChannel.class, "interestOps");
+
     private final Multiplexor<? super NioChannel<DatagramChannel>> multiplexor;
     private final ChannelCallback<? super UdpChannel, ByteBuffer, ByteBuffer> channelCallback;
     private final DatagramChannel datagramChannel;
     private final MultiplexorHandler multiplexorHandler;
+    private final ReadBacklogListener readBacklogListener;
 
     private final BlockingQueue<ByteBuffer> readBlockingQueue;
     private final BlockingQueue<ByteBuffer> writeBlockingQueue;
 
     private final Lock queueLock;
     private final Condition emptyQueueCondition;
+    private final WriteWatermarks writeWatermarks;
 
+    private volatile ReadBacklog readBacklog;
     private volatile int interestOps;
 
     public UdpChannel(final Multiplexor<? super NioChannel<DatagramChannel>> multiplexor,
@@ -40,7 +49,14 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
         this.writeBlockingQueue = new SingleProducerSingleConsumerBlockingQueue<ByteBuffer>(128);
         this.queueLock = new ReentrantLock();
         this.emptyQueueCondition = queueLock.newCondition();
+        this.writeWatermarks = new WriteWatermarks() {
+            @Override
+            protected void onWritabilityChanged(final boolean writable) {
+                doWritabilityChanged(writable);
+            }
+        };
         this.multiplexorHandler = new MultiplexorHandler();
+        this.readBacklogListener = new ReadBacklogListener();
 
         this.multiplexor = multiplexor;
         this.channelCallback = channelCallback;
@@ -59,7 +75,55 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
 
     public Channel<ByteBuffer, ByteBuffer> write(final ByteBuffer buffer) {
         assertState(State.OPENED);
-        enqueue(writeBlockingQueue, buffer, Multiplexor.WRITE_OP);
+        final int length = buffer.remaining();
+        writeWatermarks.increment(length);
+        try {
+            writeBlockingQueue.put(buffer);
+        }
+        catch(final InterruptedException e) {
+            writeWatermarks.decrement(length);
+            throw rethrow(e);
+        }
+        register(writeBlockingQueue, Multiplexor.WRITE_OP);
+        return this;
+    }
+
+    @Override
+    public boolean tryWrite(final ByteBuffer buffer) {
+        assertState(State.OPENED);
+        final int length = buffer.remaining();
+        if(!writeWatermarks.isWritable()) return false;
+        writeWatermarks.increment(length);
+        if(offer(writeBlockingQueue, buffer, Multiplexor.WRITE_OP)) return true;
+        writeWatermarks.decrement(length);
+        return false;
+    }
+
+    @Override
+    public <T> UdpChannel setOption(final ChannelOption<T> option, final T value) {
+        NioChannel.Helper.setOption(datagramChannel, option, value);
+        return this;
+    }
+
+    @Override
+    public <T> T getOption(final ChannelOption<T> option) {
+        return NioChannel.Helper.getOption(datagramChannel, option);
+    }
+
+    public boolean isWritable() {
+        return writeWatermarks.isWritable();
+    }
+
+    public UdpChannel setWriteWatermarks(final long lowWatermark, final long highWatermark) {
+        writeWatermarks.set(lowWatermark, highWatermark);
+        return this;
+    }
+
+    public synchronized UdpChannel setReadBacklog(final ReadBacklog readBacklog) {
+        if(this.readBacklog != null) this.readBacklog.removeListener(readBacklogListener);
+        if(readBacklog != null) readBacklog.addListener(readBacklogListener);
+        this.readBacklog = readBacklog;
+        if(isState(State.OPENED)) doReadableChanged();
         return this;
     }
 
@@ -73,33 +137,48 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
     private void enqueue(final BlockingQueue<ByteBuffer> blockingQueue, final ByteBuffer buffer, final int ops) {
         try {
             blockingQueue.put(buffer);
-            if((interestOps & ops) == 0) {
-                queueLock.lock();
-                try {
-                    if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
-                        multiplexor.register(multiplexorHandler, interestOps ^ ops);
-                        interestOps |= ops;
-                    }
-                }
-                finally {
-                    queueLock.unlock();
-                }
-            }
+            register(blockingQueue, ops);
         }
         catch(final InterruptedException e) {
             throw rethrow(e);
         }
     }
 
+    private boolean offer(final BlockingQueue<ByteBuffer> blockingQueue, final ByteBuffer buffer, final int ops) {
+        if(blockingQueue.offer(buffer)) {
+            register(blockingQueue, ops);
+            return true;
+        }
+        return false;
+    }
+
+    private void register(final BlockingQueue<?> blockingQueue, final int ops) {
+        if((INTEREST_OPS_UPDATER.getAndAdd(this, 0) & ops) == 0) {
+            queueLock.lock();
+            try {
+                if(!blockingQueue.isEmpty() && (interestOps & ops) == 0) {
+                    multiplexor.register(multiplexorHandler, interestOps ^ ops);
+                    interestOps |= ops;
+                }
+            }
+            finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
     private ByteBuffer dequeue(final BlockingQueue<ByteBuffer> blockingQueue, final int ops) {
         final ByteBuffer buffer = blockingQueue.poll();
         if(blockingQueue.isEmpty()) {
             queueLock.lock();
             try {
                 if(blockingQueue.isEmpty() && (interestOps & ops) != 0) {
-                    multiplexor.deregister(multiplexorHandler, interestOps & ops);
                     interestOps ^= ops;
-                    emptyQueueCondition.signalAll();
+                    if(!blockingQueue.isEmpty()) interestOps |= ops;
+                    else {
+                        multiplexor.deregister(multiplexorHandler, ops);
+                        emptyQueueCondition.signalAll();
+                    }
                 }
             }
             finally {
@@ -109,6 +188,29 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
         return buffer;
     }
 
+    private void suspendRead() {
+        queueLock.lock();
+        try {
+            if((interestOps & Multiplexor.READ_OP) != 0) {
+                interestOps ^= Multiplexor.READ_OP;
+                if(!isReadable()) multiplexor.deregister(multiplexorHandler, Multiplexor.READ_OP);
+                else interestOps |= Multiplexor.READ_OP;
+            }
+        }
+        finally {
+            queueLock.unlock();
+        }
+    }
+
+    private boolean isReadable() {
+        final ReadBacklog readBacklog = this.readBacklog;
+        return readBacklog == null || readBacklog.isReadable();
+    }
+
+    private void doReadableChanged() {
+        if(isReadable()) register(readBlockingQueue, Multiplexor.READ_OP);
+    }
+
     private void flush(final BlockingQueue<ByteBuffer> blockingQueue)
     {
         if(!blockingQueue.isEmpty()) {
@@ -153,6 +255,7 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
     protected State onClosing() {
         try {
             datagramChannel.close();
+            if(readBacklog != null) readBacklog.removeListener(readBacklogListener);
             return super.onClosing();
         }
         catch(final IOException e) {
@@ -175,6 +278,15 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
         }
     }
 
+    private void doWritabilityChanged(final boolean writable) {
+        try {
+            channelCallback.onWritabilityChanged(this, writable);
+        }
+        catch(final Throwable throwable) {
+            swallow(throwable);
+        }
+    }
+
     private void doWrite(final ByteBuffer buffer) {
         try {
             channelCallback.onWrite(this, buffer);
@@ -184,6 +296,13 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
         }
     }
 
+    private class ReadBacklogListener implements ReadBacklog.Listener {
+
+        public void onReadableChanged(final ReadBacklog readBacklog, final boolean readable) {
+            if(readable && isState(State.OPENED)) doReadableChanged();
+        }
+    }
+
     private class MultiplexorHandler implements Multiplexor.Handler<UdpChannel> {
 
         public UdpChannel getChannel() {
@@ -195,6 +314,10 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
         }
 
         public int doRead(final int length) {
+            if(!isReadable()) {
+                suspendRead();
+                return 0;
+            }
             int remaining = length;
             try {
                 for(ByteBuffer buffer = readBlockingQueue.peek(); buffer != null; buffer = readBlockingQueue.peek()) {
@@ -236,6 +359,7 @@ public final class UdpChannel extends AbstractChannel<ByteBuffer, ByteBuffer> im
                                 break OUTER;
                             default:
                                 remaining -= size;
+                                writeWatermarks.decrement(size);
                         }
                     }
                     if(buffer.position() != 0) {
@@ -6,10 +6,15 @@ import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
 import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
 import org.iterx.sora.io.connector.multiplexor.Multiplexor;
 import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelOptions;
 import org.iterx.sora.io.connector.session.AbstractSession;
 import org.iterx.sora.collection.Map;
 import org.iterx.sora.collection.map.HashMap;
 import org.iterx.sora.io.connector.support.nio.session.NioChannel;
+import org.iterx.sora.kernel.memory.ByteBufferPool;
+import org.iterx.sora.kernel.memory.PooledByteBuffer;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
 
 import java.io.IOException;
 import java.net.DatagramSocket;
@@ -25,9 +30,12 @@ import java.nio.channels.MembershipKey;
 import java.nio.channels.spi.SelectorProvider;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, ByteBuffer>  {
-    
+
+    private static final int READ_BUFFER_SIZE = 4096;
+
     private final Multiplexor<? super NioChannel> multiplexor;
     private final SessionCallback<? super UdpSession> sessionCallback;
     private final UdpChannelProvider udpChannelProvider;
@@ -48,6 +56,13 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
         this.sessionCallback = sessionCallback;
     }
 
+    @Override
+    public <T> UdpSession setOption(final ChannelOption<T> option, final T value) {
+        if(option == null) throw new IllegalArgumentException("option == null");
+        udpChannelProvider.setOption(option, value);
+        return this;
+    }
+
     public UdpChannel newChannel(final Channel.ChannelCallback<? super UdpChannel, ByteBuffer, ByteBuffer> channelCallback) {
         return udpChannelProvider.newChannel(channelCallback);
     }
@@ -93,6 +108,8 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
 
         abstract UdpChannel newChannel(Channel.ChannelCallback<? super UdpChannel, ByteBuffer, ByteBuffer> channelCallback);
 
+        abstract <T> void setOption(ChannelOption<T> option, T value);
+
         public void close() {
         }
 
@@ -116,16 +133,22 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
     private final class ConnectorUdpChannelProvider extends UdpChannelProvider {
 
         private final SocketAddress socketAddress;
+        private final ChannelOptions channelOptions;
 
         private ConnectorUdpChannelProvider(final ConnectorEndpoint connectorEndpoint){
             this.socketAddress = toSocketAddress(connectorEndpoint.getUri());
+            this.channelOptions = new ChannelOptions();
+        }
+
+        public <T> void setOption(final ChannelOption<T> option, final T value) {
+            channelOptions.set(option, value);
         }
 
         public UdpChannel newChannel(final Channel.ChannelCallback<? super UdpChannel, ByteBuffer, ByteBuffer> channelCallback) {
             try {
                 final DatagramChannel datagramChannel = newDatagramChannel().connect(socketAddress);
 
-                return new UdpChannel(multiplexor, channelCallback, datagramChannel);
+                return channelOptions.applyTo(new UdpChannel(multiplexor, channelCallback, datagramChannel));
             }
             catch(final IOException e) {
                 throw new IoException(e);
@@ -153,6 +176,10 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
             acceptorUdpChannel.open();
         }
 
+        public <T> void setOption(final ChannelOption<T> option, final T value) {
+            acceptorUdpChannel.setOption(option, value);
+        }
+
         public UdpChannel newChannel(final Channel.ChannelCallback<? super UdpChannel, ByteBuffer, ByteBuffer> channelCallback) {
             try {
                 final DatagramChannel datagramChannel = acceptorUdpChannel.accept();
@@ -234,14 +261,28 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
                 throw new UnsupportedOperationException();
             }
 
+            public boolean tryWrite(final ByteBuffer value) {
+                throw new UnsupportedOperationException();
+            }
+
             public Channel<ByteBuffer, ByteBuffer> flush() {
                 throw new UnsupportedOperationException();
             }
 
+            public <T> Channel<ByteBuffer, ByteBuffer> setOption(final ChannelOption<T> option, final T value) {
+                NioChannel.Helper.setOption(datagramChannel, option, value);
+                return this;
+            }
+
+            public <T> T getOption(final ChannelOption<T> option) {
+                return NioChannel.Helper.getOption(datagramChannel, option);
+            }
+
             public Channel<ByteBuffer, ByteBuffer> close() {
                 try {
                     multiplexor.deregister(multiplexorHandler, Multiplexor.READ_OP| Multiplexor.WRITE_OP| Multiplexor.CLOSE_OP);
                     datagramChannel.close();
+                    multiplexorHandler.release();
                     return this;
                 }
                 catch(final IOException e) {
@@ -251,18 +292,24 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
 
             private class MultiplexorHandler implements Multiplexor.Handler<AcceptorUdpChannel> {
 
+                private final PooledByteBuffer pooledReadBuffer;
                 private final ByteBuffer readBuffer;
 
                 private volatile SocketAddress remoteSocketAddress;
 
                 private MultiplexorHandler() {
-                    this.readBuffer =  ByteBuffer.allocate(4096); //TODO: size by packet
+                    this.pooledReadBuffer = ByteBufferPool.getByteBufferPool().lease(READ_BUFFER_SIZE); //TODO: size by packet
+                    this.readBuffer = pooledReadBuffer.getByteBuffer();
                 }
 
                 public AcceptorUdpChannel getChannel() {
                     return AcceptorUdpChannel.this;
                 }
 
+                private void release() {
+                    if(pooledReadBuffer.getReferenceCount() != 0) pooledReadBuffer.release();
+                }
+
                 public SocketAddress accept() {
                     return remoteSocketAddress;
                 }
@@ -462,6 +509,17 @@ public final class UdpSession extends AbstractSession<UdpChannel, ByteBuffer, By
                 }
             }
 
+            public void signal(final Handler<? extends NioChannel<DatagramChannel>> handler,
+                               final int ops) {
+            }
+
+            public HashedTimingWheel.Timeout schedule(final Handler<? extends NioChannel<DatagramChannel>> handler,
+                                                      final HashedTimingWheel.Task task,
+                                                      final long delay,
+                                                      final TimeUnit timeUnit) {
+                return multiplexor.schedule(acceptorUdpChannel.multiplexorHandler, task, delay, timeUnit);
+            }
+
             public void destroy() {
             }
 
@@ -40,6 +40,9 @@ public final class UdpSessionFactory implements SessionFactory<UdpSession, UdpSe
         return new UdpSession(multiplexor, sessionCallback, connectorEndpoint);
     }
 
+    public void destroy() {
+    }
+
     private void assertEndpoint(final Endpoint endpoint) {
         if(!supports(endpoint)) throw new IllegalArgumentException("Invalid endpoint '" + endpoint + "'");
     }
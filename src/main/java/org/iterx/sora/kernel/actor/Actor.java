@@ -1,29 +1,45 @@
 package org.iterx.sora.kernel.actor;
 
+import org.iterx.sora.collection.Arrays;
+import org.iterx.sora.collection.queue.BlockingQueue;
 import org.iterx.sora.collection.queue.MultiProducerMultiConsumerBlockingQueue;
 import org.iterx.sora.collection.queue.MultiProducerSingleConsumerBlockingQueue;
+import org.iterx.sora.collection.queue.WaitStrategies;
+import org.iterx.sora.collection.queue.WaitStrategy;
 import org.iterx.sora.kernel.actor.receiver.Receiver;
 import org.iterx.sora.kernel.actor.sender.Sender;
+import org.iterx.sora.kernel.fiber.KernelFiber;
+import org.iterx.sora.kernel.fiber.KernelFiberScheduler;
 import org.iterx.sora.kernel.thread.KernelThread;
 import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.iterx.sora.util.Watermarks;
 
 import static org.iterx.sora.util.Exception.rethrow;
 import static org.iterx.sora.util.Exception.swallow;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public final class Actor<T> implements Sender<T> {
 
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final int MAX_FIBER_BATCHES = 16;
+
     private final Receiver<? super T> receiver;
     private final BlockingQueue<T> blockingQueue;
+    private final WaitStrategy waitStrategy;
+    private final WaitStrategy.Barrier flushBarrier;
     private final KernelThreadFactory kernelThreadPool;
+    private final KernelFiberScheduler kernelFiberScheduler;
     private final Actor.Worker[] workers;
+    private final int batchSize;
     private final Lock stateLock;
 
     private volatile State state;
+    private volatile Watermarks backlog;
 
     public Actor(final KernelThreadFactory kernelThreadPool,
                  final Receiver<? super T> receiver,
@@ -31,18 +47,54 @@ public final class Actor<T> implements Sender<T> {
         this(kernelThreadPool, receiver, capacity, 1);
     }
 
-    //TODO: pass in error handling callbacks...
     public Actor(final KernelThreadFactory kernelThreadPool,
                  final Receiver<? super T> receiver,
                  final int capacity,
                  final int workers) {
+        this(kernelThreadPool, receiver, capacity, workers, WaitStrategies.newSpinParkWaitStrategy());
+    }
+
+    public Actor(final KernelThreadFactory kernelThreadPool,
+                 final Receiver<? super T> receiver,
+                 final int capacity,
+                 final int workers,
+                 final WaitStrategy waitStrategy) {
+        this(kernelThreadPool, null, receiver, capacity, workers, waitStrategy);
+    }
+
+    public Actor(final KernelFiberScheduler kernelFiberScheduler,
+                 final Receiver<? super T> receiver,
+                 final int capacity) {
+        this(kernelFiberScheduler, receiver, capacity, 1, WaitStrategies.newSpinParkWaitStrategy());
+    }
+
+    public Actor(final KernelFiberScheduler kernelFiberScheduler,
+                 final Receiver<? super T> receiver,
+                 final int capacity,
+                 final int workers,
+                 final WaitStrategy waitStrategy) {
+        this(null, kernelFiberScheduler, receiver, capacity, workers, waitStrategy);
+    }
+
+    //TODO: pass in error handling callbacks...
+    private Actor(final KernelThreadFactory kernelThreadPool,
+                  final KernelFiberScheduler kernelFiberScheduler,
+                  final Receiver<? super T> receiver,
+                  final int capacity,
+                  final int workers,
+                  final WaitStrategy waitStrategy) {
+        if(waitStrategy == null) throw new IllegalArgumentException("waitStrategy == null");
         this.stateLock = new ReentrantLock();
         this.kernelThreadPool = kernelThreadPool;
+        this.kernelFiberScheduler = kernelFiberScheduler;
         this.receiver = receiver;
         this.blockingQueue = (workers == 1)?
-                             new MultiProducerSingleConsumerBlockingQueue<T>(capacity) :
-                             new MultiProducerMultiConsumerBlockingQueue<T>(capacity);
+                             new MultiProducerSingleConsumerBlockingQueue<T>(capacity, waitStrategy) :
+                             new MultiProducerMultiConsumerBlockingQueue<T>(capacity, waitStrategy);
+        this.waitStrategy = waitStrategy;
+        this.flushBarrier = new FlushBarrier();
         this.workers = new Actor.Worker[workers];
+        this.batchSize = Math.min(capacity, MAX_BATCH_SIZE);
         this.state = State.STOPPED;
     }
 
@@ -51,17 +103,36 @@ public final class Actor<T> implements Sender<T> {
     }
 
     public void send(final T object) {
+        final Watermarks backlog = this.backlog;
+        if(backlog != null) backlog.increment(1);
         try {
             blockingQueue.put(object);
+            if(kernelFiberScheduler != null) unparkWorkers();
         }
         catch(final Throwable throwable) {
+            if(backlog != null) backlog.decrement(1);
             throw rethrow(throwable);
         }
     }
 
+    public int getBacklog() {
+        return blockingQueue.size();
+    }
+
+    public void setBacklog(final Watermarks backlog) {
+        final Watermarks previousBacklog = this.backlog;
+        final int size = blockingQueue.size();
+        if(previousBacklog != null) previousBacklog.decrement(size);
+        if(backlog != null) backlog.increment(size);
+        this.backlog = backlog;
+    }
+
     public void flush() {
-        while(!blockingQueue.isEmpty() && !Thread.currentThread().isInterrupted()) {
-            Thread.yield();
+        try {
+            waitStrategy.await(flushBarrier);
+        }
+        catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -87,11 +158,23 @@ public final class Actor<T> implements Sender<T> {
     }
 
     private void createWorkers() {
-        for(int i = workers.length; i-- != 0;) if(workers[i] == null) workers[i] = new Worker(kernelThreadPool);
+        for(int i = workers.length; i-- != 0;) {
+            if(workers[i] == null) workers[i] = (kernelFiberScheduler != null)? new FiberWorker(kernelFiberScheduler) : new ThreadWorker(kernelThreadPool);
+        }
+    }
+
+    private void unparkWorkers() {
+        for(final Worker worker : workers) if(worker != null) worker.unpark();
     }
 
     private void destroyWorkers() {
-        for(int i = workers.length; i-- != 0;) if(workers[i] != null) workers[i].destroy();
+        for(int i = workers.length; i-- != 0;) {
+            final Worker worker = workers[i];
+            if(worker != null) {
+                worker.destroy();
+                onStop(worker);
+            }
+        }
     }
 
     private void onStop(final Worker worker) {
@@ -103,6 +186,13 @@ public final class Actor<T> implements Sender<T> {
         changeState(State.ABORTING);
     }
 
+    private final class FlushBarrier implements WaitStrategy.Barrier {
+
+        public boolean isOpen() {
+            return blockingQueue.isEmpty();
+        }
+    }
+
     private enum State {
         STOPPED {
             @Override
@@ -195,12 +285,65 @@ public final class Actor<T> implements Sender<T> {
         }
     }
 
-    private class Worker implements Runnable {
+    private int dispatch(final Batch<T> batch, final int size) {
+        if(size != 0) {
+            try {
+                receiver.receive(batch.limit(size));
+            }
+            finally {
+                batch.clear();
+                final Watermarks backlog = this.backlog;
+                if(backlog != null) backlog.decrement(size);
+            }
+        }
+        return size;
+    }
+
+    private static final class Batch<T> extends AbstractList<T> implements RandomAccess {
+
+        private final T[] objects;
+        private int size;
+
+        private Batch(final int capacity) {
+            this.objects = Arrays.newArray(Object.class, capacity);
+        }
+
+        public T get(final int index) {
+            if(index >= size) throw new IndexOutOfBoundsException("index >= size");
+            return objects[index];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            java.util.Arrays.fill(objects, 0, size, null);
+            size = 0;
+        }
+
+        private Batch<T> limit(final int size) {
+            this.size = size;
+            return this;
+        }
+    }
+
+    private interface Worker {
+
+        void unpark();
+
+        void destroy();
+    }
+
+    private final class ThreadWorker implements Worker, Runnable {
+        private final Batch<T> batch;
         private final KernelThread kernelThread;
         private final CountDownLatch startSignal;
         private final CountDownLatch destroySignal;
 
-        private Worker(final KernelThreadFactory kernelThreadPool) {
+        private ThreadWorker(final KernelThreadFactory kernelThreadPool) {
+            this.batch = new Batch<T>(batchSize);
             this.kernelThread = kernelThreadPool.newThread(this);
             this.startSignal = new CountDownLatch(1);
             this.destroySignal = new CountDownLatch(1);
@@ -223,9 +366,9 @@ public final class Actor<T> implements Sender<T> {
                 try {
                     while(!Thread.currentThread().isInterrupted()) {
                         try {
-                            for(T object = blockingQueue.take(); object != null; object = blockingQueue.poll()) {
-                                //TODO: change this into a pull mechanism -> i.e allow poll
-                                receiver.receive(object);
+                            batch.objects[0] = blockingQueue.take();
+                            for(int size = 1 + blockingQueue.drainTo(batch.objects, 1, batchSize - 1); size != 0; size = blockingQueue.drainTo(batch.objects, 0, batchSize)) {
+                                dispatch(batch, size);
                             }
                         }
                         catch(final InterruptedException e) {
@@ -233,6 +376,7 @@ public final class Actor<T> implements Sender<T> {
                         }
                         finally {
                             receiver.flush();
+                            waitStrategy.signal();
                         }
                     }
                     onStop(this);
@@ -247,7 +391,10 @@ public final class Actor<T> implements Sender<T> {
             }
         }
 
-        private void destroy() {
+        public void unpark() {
+        }
+
+        public void destroy() {
             try {
                 if(destroySignal.getCount() != 0) kernelThread.interrupt();
                 destroySignal.await();
@@ -257,4 +404,36 @@ public final class Actor<T> implements Sender<T> {
             }
         }
     }
+
+    private final class FiberWorker extends KernelFiber implements Worker {
+        private final Batch<T> batch;
+
+        private FiberWorker(final KernelFiberScheduler kernelFiberScheduler) {
+            super(kernelFiberScheduler);
+            this.batch = new Batch<T>(batchSize);
+            start();
+        }
+
+        protected void run() {
+            for(int i = MAX_FIBER_BATCHES; i-- != 0;) {
+                if(dispatch(batch, blockingQueue.drainTo(batch.objects, 0, batchSize)) == 0) {
+                    receiver.flush();
+                    waitStrategy.signal();
+                    return;
+                }
+            }
+            yieldFiber();
+        }
+
+        @Override
+        protected void onAbort(final Throwable throwable) {
+            try {
+                receiver.flush();
+            }
+            finally {
+                Actor.this.onAbort(this);
+                swallow(throwable);
+            }
+        }
+    }
 }
@@ -10,7 +10,8 @@ public abstract class AbstractBatchReceiver<T> implements Receiver<T> {
     private final int capacity;
 
     public AbstractBatchReceiver(final int capacity) {
-        this.objects = new RandomAccessList<T>();
+        if(capacity < 1) throw new IllegalArgumentException("capacity < 1");
+        this.objects = new RandomAccessList<T>(capacity);
         this.capacity = capacity;
     }
 
@@ -19,16 +20,27 @@ public abstract class AbstractBatchReceiver<T> implements Receiver<T> {
         if(isAtCapacity()) flush();
     }
 
-    public void flush() {
-        try {
-            receive(objects);
+    public final void receive(final List<? extends T> batch) {
+        flush();
+        final int length = batch.size();
+        if(length <= capacity) {
+            if(length != 0) onReceive(batch);
         }
-        finally {
-            objects.clear();
+        else for(int offset = 0; offset < length; offset += capacity) onReceive(batch.subList(offset, Math.min(offset + capacity, length)));
+    }
+
+    public void flush() {
+        if(!objects.isEmpty()) {
+            try {
+                onReceive(objects);
+            }
+            finally {
+                objects.clear();
+            }
         }
     }
 
-    protected abstract void receive(final List<T> objects);
+    protected abstract void onReceive(final List<? extends T> batch);
 
     private boolean isAtCapacity() {
         return capacity == objects.size();
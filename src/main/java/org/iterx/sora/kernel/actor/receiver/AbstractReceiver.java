@@ -1,9 +1,15 @@
 package org.iterx.sora.kernel.actor.receiver;
 
+import java.util.List;
+
 public abstract class AbstractReceiver<T> implements Receiver<T> {
 
     public abstract void receive(final T object);
 
+    public void receive(final List<? extends T> batch) {
+        for(int i = 0, size = batch.size(); i != size; i++) receive(batch.get(i));
+    }
+
     public void flush() {
     }
 }
@@ -1,8 +1,12 @@
 package org.iterx.sora.kernel.actor.receiver;
 
+import java.util.List;
+
 public interface Receiver<T> {
 
     void receive(T object);
 
+    void receive(List<? extends T> batch);
+
     void flush();
 }
@@ -1,5 +1,136 @@
 package org.iterx.sora.kernel.fiber;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.iterx.sora.util.Exception.swallow;
 
 public abstract class KernelFiber {
-}
\ No newline at end of file
+
+    private static final ThreadLocal<KernelFiber> CURRENT_FIBER = new ThreadLocal<KernelFiber>();
+
+    private static final int NEW = 0;
+    private static final int SCHEDULED = 1;
+    private static final int RUNNING = 2;
+    private static final int NOTIFIED = 3;
+    private static final int PARKED = 4;
+    private static final int DESTROYED = 5;
+
+    private final KernelFiberScheduler kernelFiberScheduler;
+    private final AtomicInteger state;
+    private final CountDownLatch destroySignal;
+
+    private volatile boolean destroyed;
+    private boolean yielded;
+
+    protected KernelFiber(final KernelFiberScheduler kernelFiberScheduler) {
+        if(kernelFiberScheduler == null) throw new IllegalArgumentException("kernelFiberScheduler == null");
+        this.kernelFiberScheduler = kernelFiberScheduler;
+        this.state = new AtomicInteger(NEW);
+        this.destroySignal = new CountDownLatch(1);
+    }
+
+    public static KernelFiber currentFiber() {
+        final KernelFiber kernelFiber = CURRENT_FIBER.get();
+        if(kernelFiber == null) throw new IllegalStateException();
+        return kernelFiber;
+    }
+
+    protected abstract void run();
+
+    public final void start() {
+        if(!state.compareAndSet(NEW, SCHEDULED)) throw new IllegalStateException();
+        kernelFiberScheduler.schedule(this);
+    }
+
+    public final void unpark() {
+        for(;;) {
+            switch(state.get()) {
+                case PARKED:
+                    if(state.compareAndSet(PARKED, SCHEDULED)) {
+                        kernelFiberScheduler.schedule(this);
+                        return;
+                    }
+                    break;
+                case RUNNING:
+                    if(state.compareAndSet(RUNNING, NOTIFIED)) return;
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    public final boolean isParked() {
+        return state.get() == PARKED;
+    }
+
+    public final boolean isDestroyed() {
+        return state.get() == DESTROYED;
+    }
+
+    public final void destroy() {
+        destroyed = true;
+        if(state.compareAndSet(NEW, DESTROYED)) destroySignal.countDown();
+        else unpark();
+        if(CURRENT_FIBER.get() != this) {
+            try {
+                destroySignal.await();
+            }
+            catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected final void park() {
+        assertCurrentFiber();
+        yielded = false;
+    }
+
+    protected final void yieldFiber() {
+        assertCurrentFiber();
+        yielded = true;
+    }
+
+    protected void onAbort(final Throwable throwable) {
+        swallow(throwable);
+    }
+
+    final void execute() {
+        if(!state.compareAndSet(SCHEDULED, RUNNING)) return;
+        if(!destroyed) {
+            yielded = false;
+            CURRENT_FIBER.set(this);
+            try {
+                run();
+            }
+            catch(final Throwable throwable) {
+                destroyed = true;
+                onAbort(throwable);
+            }
+            finally {
+                CURRENT_FIBER.remove();
+            }
+        }
+        if(destroyed) {
+            state.set(DESTROYED);
+            destroySignal.countDown();
+        }
+        else if(yielded || !state.compareAndSet(RUNNING, PARKED)) {
+            state.set(SCHEDULED);
+            kernelFiberScheduler.schedule(this);
+        }
+    }
+
+    final void abandon() {
+        if(state.compareAndSet(SCHEDULED, DESTROYED)) {
+            destroyed = true;
+            destroySignal.countDown();
+        }
+    }
+
+    private void assertCurrentFiber() {
+        if(CURRENT_FIBER.get() != this) throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,162 @@
+package org.iterx.sora.kernel.fiber;
+
+import org.iterx.sora.collection.queue.WaitStrategies;
+import org.iterx.sora.collection.queue.WaitStrategy;
+import org.iterx.sora.kernel.thread.KernelThread;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.iterx.sora.util.Exception.rethrow;
+import static org.iterx.sora.util.Exception.swallow;
+
+public final class KernelFiberScheduler {
+
+    private static final int INJECT_INTERVAL = 61;
+
+    private static final ThreadLocal<Carrier> CURRENT_CARRIER = new ThreadLocal<Carrier>();
+
+    private final Queue<KernelFiber> injectQueue;
+    private final WaitStrategy waitStrategy;
+    private final WaitStrategy.Barrier scheduleBarrier;
+    private final Carrier[] carriers;
+
+    private volatile boolean destroyed;
+
+    public KernelFiberScheduler(final KernelThreadFactory kernelThreadFactory, final int carriers) {
+        this(kernelThreadFactory, carriers, WaitStrategies.newSpinParkWaitStrategy());
+    }
+
+    public KernelFiberScheduler(final KernelThreadFactory kernelThreadFactory,
+                                final int carriers,
+                                final WaitStrategy waitStrategy) {
+        if(kernelThreadFactory == null) throw new IllegalArgumentException("kernelThreadFactory == null");
+        if(waitStrategy == null) throw new IllegalArgumentException("waitStrategy == null");
+        if(carriers < 1) throw new IllegalArgumentException("carriers < 1");
+        this.injectQueue = new ConcurrentLinkedQueue<KernelFiber>();
+        this.waitStrategy = waitStrategy;
+        this.scheduleBarrier = new ScheduleBarrier();
+        this.carriers = new Carrier[carriers];
+        for(int i = 0; i != carriers; i++) this.carriers[i] = new Carrier(i);
+        for(final Carrier carrier : this.carriers) carrier.start(kernelThreadFactory);
+    }
+
+    public void destroy() {
+        destroyed = true;
+        for(final Carrier carrier : carriers) carrier.destroy();
+        abandon();
+    }
+
+    void schedule(final KernelFiber kernelFiber) {
+        final Carrier carrier = CURRENT_CARRIER.get();
+        if(carrier != null && carrier.isOwner(this)) carrier.runQueue.addLast(kernelFiber);
+        else injectQueue.add(kernelFiber);
+        if(destroyed) abandon();
+        else waitStrategy.signal();
+    }
+
+    private void abandon() {
+        for(KernelFiber kernelFiber; (kernelFiber = injectQueue.poll()) != null;) kernelFiber.abandon();
+        for(final Carrier carrier : carriers) {
+            for(KernelFiber kernelFiber; (kernelFiber = carrier.runQueue.pollFirst()) != null;) kernelFiber.abandon();
+        }
+    }
+
+    private boolean isEmpty() {
+        if(!injectQueue.isEmpty()) return false;
+        for(final Carrier carrier : carriers) if(!carrier.runQueue.isEmpty()) return false;
+        return true;
+    }
+
+    private final class ScheduleBarrier implements WaitStrategy.Barrier {
+
+        public boolean isOpen() {
+            return !isEmpty();
+        }
+    }
+
+    private final class Carrier implements Runnable {
+
+        private final Deque<KernelFiber> runQueue;
+        private final int index;
+        private final CountDownLatch startSignal;
+        private final CountDownLatch destroySignal;
+
+        private KernelThread kernelThread;
+        private int tick;
+
+        private Carrier(final int index) {
+            this.runQueue = new ConcurrentLinkedDeque<KernelFiber>();
+            this.index = index;
+            this.startSignal = new CountDownLatch(1);
+            this.destroySignal = new CountDownLatch(1);
+        }
+
+        private void start(final KernelThreadFactory kernelThreadFactory) {
+            try {
+                kernelThread = kernelThreadFactory.newThread(this);
+                kernelThread.start();
+                startSignal.await();
+            }
+            catch(final Exception e) {
+                throw rethrow(e);
+            }
+        }
+
+        public void run() {
+            try {
+                CURRENT_CARRIER.set(this);
+                startSignal.countDown();
+                while(!Thread.currentThread().isInterrupted()) {
+                    final KernelFiber kernelFiber = next();
+                    if(kernelFiber != null) kernelFiber.execute();
+                    else waitStrategy.await(scheduleBarrier);
+                }
+            }
+            catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                CURRENT_CARRIER.remove();
+                destroySignal.countDown();
+            }
+        }
+
+        private boolean isOwner(final KernelFiberScheduler kernelFiberScheduler) {
+            return KernelFiberScheduler.this == kernelFiberScheduler;
+        }
+
+        private KernelFiber next() {
+            KernelFiber kernelFiber;
+            if(++tick == INJECT_INTERVAL) {
+                tick = 0;
+                if((kernelFiber = injectQueue.poll()) != null) return kernelFiber;
+            }
+            if((kernelFiber = runQueue.pollFirst()) != null) return kernelFiber;
+            if((kernelFiber = injectQueue.poll()) != null) return kernelFiber;
+            return steal();
+        }
+
+        private KernelFiber steal() {
+            for(int i = 1, length = carriers.length; i < length; i++) {
+                final KernelFiber kernelFiber = carriers[(index + i) % length].runQueue.pollLast();
+                if(kernelFiber != null) return kernelFiber;
+            }
+            return null;
+        }
+
+        private void destroy() {
+            try {
+                if(destroySignal.getCount() != 0) kernelThread.interrupt();
+                destroySignal.await();
+            }
+            catch(final Exception e) {
+                swallow(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.iterx.sora.kernel.memory;
+
+import org.iterx.sora.collection.queue.BlockingQueue;
+import org.iterx.sora.collection.queue.MultiProducerMultiConsumerBlockingQueue;
+
+import java.nio.ByteBuffer;
+
+public final class ByteBufferPool {
+
+    public static final int MIN_BUFFER_SIZE = 256;
+    public static final int MAX_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_SHARED_CAPACITY = 1024;
+    public static final int DEFAULT_CACHE_CAPACITY = 32;
+
+    private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SIZE_SHIFT + 1;
+
+    private static ByteBufferPool byteBufferPool = new ByteBufferPool();
+
+    private final BlockingQueue<PooledByteBuffer>[] sharedQueues;
+    private final ThreadLocal<Cache> caches;
+    private final int cacheCapacity;
+
+    public ByteBufferPool() {
+        this(DEFAULT_SHARED_CAPACITY, DEFAULT_CACHE_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool(final int sharedCapacity, final int cacheCapacity) {
+        if(sharedCapacity < 1) throw new IllegalArgumentException("sharedCapacity < 1");
+        if(cacheCapacity < 0) throw new IllegalArgumentException("cacheCapacity < 0");
+        this.sharedQueues = (BlockingQueue<PooledByteBuffer>[]) new BlockingQueue<?>[SIZE_CLASSES];
+        for(int i = 0; i != SIZE_CLASSES; i++) sharedQueues[i] = new MultiProducerMultiConsumerBlockingQueue<PooledByteBuffer>(sharedCapacity);
+        this.cacheCapacity = cacheCapacity;
+        this.caches = new ThreadLocal<Cache>();
+    }
+
+    public static ByteBufferPool getByteBufferPool() {
+        return byteBufferPool;
+    }
+
+    public static void setByteBufferPool(final ByteBufferPool byteBufferPool) {
+        if(byteBufferPool == null) throw new IllegalArgumentException("byteBufferPool == null");
+        ByteBufferPool.byteBufferPool = byteBufferPool;
+    }
+
+    public PooledByteBuffer lease(final int size) {
+        if(size < 0) throw new IllegalArgumentException("size < 0");
+        final PooledByteBuffer pooledByteBuffer;
+        if(size > MAX_BUFFER_SIZE) pooledByteBuffer = new PooledByteBuffer(null, ByteBuffer.allocateDirect(size), -1);
+        else {
+            final int sizeClass = toSizeClass(size);
+            final PooledByteBuffer cachedByteBuffer = getCache().poll(sizeClass);
+            pooledByteBuffer = (cachedByteBuffer != null)?
+                               cachedByteBuffer :
+                               new PooledByteBuffer(this, ByteBuffer.allocateDirect(MIN_BUFFER_SIZE << sizeClass), sizeClass);
+        }
+        pooledByteBuffer.lease();
+        final ByteBuffer byteBuffer = pooledByteBuffer.getByteBuffer();
+        byteBuffer.limit(size);
+        return pooledByteBuffer;
+    }
+
+    public void releaseCache() {
+        final Cache cache = caches.get();
+        caches.remove();
+        if(cache != null) cache.release();
+    }
+
+    void recycle(final PooledByteBuffer pooledByteBuffer) {
+        getCache().offer(pooledByteBuffer);
+    }
+
+    private Cache getCache() {
+        Cache cache = caches.get();
+        if(cache == null) caches.set(cache = new Cache());
+        return cache;
+    }
+
+    private static int toSizeClass(final int size) {
+        return (size <= MIN_BUFFER_SIZE)? 0 : 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+    }
+
+    private final class Cache {
+
+        private final PooledByteBuffer[][] stacks;
+        private final int[] sizes;
+
+        private Cache() {
+            this.stacks = new PooledByteBuffer[SIZE_CLASSES][cacheCapacity];
+            this.sizes = new int[SIZE_CLASSES];
+        }
+
+        private PooledByteBuffer poll(final int sizeClass) {
+            if(sizes[sizeClass] == 0) {
+                final int count = sharedQueues[sizeClass].drainTo(stacks[sizeClass], 0, cacheCapacity / 2);
+                if(count == 0) return sharedQueues[sizeClass].poll();
+                sizes[sizeClass] = count;
+            }
+            final PooledByteBuffer[] stack = stacks[sizeClass];
+            final PooledByteBuffer pooledByteBuffer = stack[--sizes[sizeClass]];
+            stack[sizes[sizeClass]] = null;
+            return pooledByteBuffer;
+        }
+
+        private void offer(final PooledByteBuffer pooledByteBuffer) {
+            final int sizeClass = pooledByteBuffer.getSizeClass();
+            final PooledByteBuffer[] stack = stacks[sizeClass];
+            if(sizes[sizeClass] == stack.length) {
+                for(int i = stack.length / 2; i-- != 0;) {
+                    final PooledByteBuffer evictedByteBuffer = stack[--sizes[sizeClass]];
+                    stack[sizes[sizeClass]] = null;
+                    if(!sharedQueues[sizeClass].offer(evictedByteBuffer)) break;
+                }
+                if(sizes[sizeClass] == stack.length) {
+                    sharedQueues[sizeClass].offer(pooledByteBuffer);
+                    return;
+                }
+            }
+            stack[sizes[sizeClass]++] = pooledByteBuffer;
+        }
+
+        private void release() {
+            for(int sizeClass = 0; sizeClass != SIZE_CLASSES; sizeClass++) {
+                final PooledByteBuffer[] stack = stacks[sizeClass];
+                while(sizes[sizeClass] != 0) {
+                    final PooledByteBuffer pooledByteBuffer = stack[--sizes[sizeClass]];
+                    stack[sizes[sizeClass]] = null;
+                    sharedQueues[sizeClass].offer(pooledByteBuffer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.iterx.sora.kernel.memory;
+
+import org.iterx.sora.collection.Arrays;
+import org.iterx.sora.collection.queue.BlockingQueue;
+import org.iterx.sora.kernel.thread.KernelThread;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public final class KernelAllocator {
+
+    private final Thread owner;
+    private final ByteBufferPool byteBufferPool;
+    private final Map<Recycler<?>, ObjectStack<?>> objectStacks;
+
+    private boolean destroyed;
+
+    public KernelAllocator() {
+        this(ByteBufferPool.getByteBufferPool());
+    }
+
+    public KernelAllocator(final ByteBufferPool byteBufferPool) {
+        if(byteBufferPool == null) throw new IllegalArgumentException("byteBufferPool == null");
+        this.owner = Thread.currentThread();
+        this.byteBufferPool = byteBufferPool;
+        this.objectStacks = new IdentityHashMap<Recycler<?>, ObjectStack<?>>();
+    }
+
+    public static KernelAllocator currentAllocator() {
+        final Thread thread = Thread.currentThread();
+        return (thread instanceof KernelThread)? ((KernelThread) thread).getAllocator() : null;
+    }
+
+    public void destroy() {
+        assertOwner();
+        if(!destroyed) {
+            destroyed = true;
+            try {
+                for(final ObjectStack<?> objectStack : objectStacks.values()) objectStack.release();
+                objectStacks.clear();
+            }
+            finally {
+                byteBufferPool.releaseCache();
+            }
+        }
+    }
+
+    <T> T acquire(final Recycler<T> recycler) {
+        assertOwner();
+        return (destroyed)? recycler.getSharedQueue().poll() : getObjectStack(recycler).pop();
+    }
+
+    <T> void release(final Recycler<T> recycler, final T object) {
+        assertOwner();
+        if(destroyed) recycler.getSharedQueue().offer(object);
+        else getObjectStack(recycler).push(object);
+    }
+
+    private <T> ObjectStack<T> getObjectStack(final Recycler<T> recycler) {
+        @SuppressWarnings("unchecked")
+        ObjectStack<T> objectStack = (ObjectStack<T>) objectStacks.get(recycler);
+        if(objectStack == null) objectStacks.put(recycler, objectStack = new ObjectStack<T>(recycler));
+        return objectStack;
+    }
+
+    private void assertOwner() {
+        if(Thread.currentThread() != owner) throw new IllegalStateException();
+    }
+
+    private static final class ObjectStack<T> {
+
+        private final BlockingQueue<T> sharedQueue;
+        private final T[] objects;
+        private int size;
+
+        private ObjectStack(final Recycler<T> recycler) {
+            this.sharedQueue = recycler.getSharedQueue();
+            this.objects = Arrays.newArray(Object.class, recycler.getCapacity());
+        }
+
+        private T pop() {
+            if(size == 0) {
+                size = sharedQueue.drainTo(objects, 0, Math.max(1, objects.length / 2));
+                if(size == 0) return null;
+            }
+            final T object = objects[--size];
+            objects[size] = null;
+            return object;
+        }
+
+        private void push(final T object) {
+            if(size == objects.length) {
+                for(int i = objects.length / 2; i-- != 0;) {
+                    final T evictedObject = objects[--size];
+                    objects[size] = null;
+                    if(!sharedQueue.offer(evictedObject)) break;
+                }
+                if(size == objects.length) {
+                    sharedQueue.offer(object);
+                    return;
+                }
+            }
+            objects[size++] = object;
+        }
+
+        private void release() {
+            while(size != 0) {
+                final T object = objects[--size];
+                objects[size] = null;
+                sharedQueue.offer(object);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.iterx.sora.kernel.memory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+public final class PooledByteBuffer {
+
+    private static final AtomicIntegerFieldUpdater<PooledByteBuffer> REFERENCE_COUNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(PooledByteBuffer.class, "referenceCount");
+
+    private final ByteBufferPool byteBufferPool;
+    private final ByteBuffer byteBuffer;
+    private final int sizeClass;
+
+    private volatile int referenceCount;
+
+    PooledByteBuffer(final ByteBufferPool byteBufferPool, final ByteBuffer byteBuffer, final int sizeClass) {
+        this.byteBufferPool = byteBufferPool;
+        this.byteBuffer = byteBuffer;
+        this.sizeClass = sizeClass;
+    }
+
+    public ByteBuffer getByteBuffer() {
+        if(referenceCount == 0) throw new IllegalStateException();
+        return byteBuffer;
+    }
+
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public PooledByteBuffer retain() {
+        for(int count = referenceCount;; count = referenceCount) {
+            if(count == 0) throw new IllegalStateException();
+            if(REFERENCE_COUNT_UPDATER.compareAndSet(this, count, count + 1)) return this;
+        }
+    }
+
+    public boolean release() {
+        for(int count = referenceCount;; count = referenceCount) {
+            if(count == 0) throw new IllegalStateException();
+            if(REFERENCE_COUNT_UPDATER.compareAndSet(this, count, count - 1)) {
+                if(count != 1) return false;
+                byteBuffer.clear();
+                if(byteBufferPool != null) byteBufferPool.recycle(this);
+                return true;
+            }
+        }
+    }
+
+    int getSizeClass() {
+        return sizeClass;
+    }
+
+    void lease() {
+        referenceCount = 1;
+    }
+}
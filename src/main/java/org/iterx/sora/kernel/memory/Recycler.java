@@ -0,0 +1,49 @@
+package org.iterx.sora.kernel.memory;
+
+import org.iterx.sora.collection.queue.BlockingQueue;
+import org.iterx.sora.collection.queue.MultiProducerMultiConsumerBlockingQueue;
+
+public abstract class Recycler<T> {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final BlockingQueue<T> sharedQueue;
+    private final int capacity;
+
+    protected Recycler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    protected Recycler(final int capacity) {
+        if(capacity < 1) throw new IllegalArgumentException("capacity < 1");
+        this.sharedQueue = new MultiProducerMultiConsumerBlockingQueue<T>(capacity);
+        this.capacity = capacity;
+    }
+
+    public final T get() {
+        final KernelAllocator kernelAllocator = KernelAllocator.currentAllocator();
+        final T object = (kernelAllocator != null)? kernelAllocator.acquire(this) : sharedQueue.poll();
+        return (object != null)? object : newObject();
+    }
+
+    public final void recycle(final T object) {
+        if(object == null) throw new IllegalArgumentException("object == null");
+        reset(object);
+        final KernelAllocator kernelAllocator = KernelAllocator.currentAllocator();
+        if(kernelAllocator != null) kernelAllocator.release(this, object);
+        else sharedQueue.offer(object);
+    }
+
+    public final int getCapacity() {
+        return capacity;
+    }
+
+    protected abstract T newObject();
+
+    protected void reset(final T object) {
+    }
+
+    BlockingQueue<T> getSharedQueue() {
+        return sharedQueue;
+    }
+}
@@ -1,5 +1,6 @@
 package org.iterx.sora.kernel.thread;
 
+import org.iterx.sora.kernel.memory.KernelAllocator;
 
 public abstract class KernelThread extends Thread {
 
@@ -9,6 +10,8 @@ public abstract class KernelThread extends Thread {
 
     public abstract void run();
 
+    public abstract KernelAllocator getAllocator();
+
     public static KernelThread currentThread() {
         try {
             return (KernelThread) Thread.currentThread();
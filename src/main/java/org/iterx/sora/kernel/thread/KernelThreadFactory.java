@@ -1,5 +1,7 @@
 package org.iterx.sora.kernel.thread;
 
+import org.iterx.sora.kernel.memory.KernelAllocator;
+
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
@@ -49,6 +51,8 @@ public final class KernelThreadFactory implements ThreadFactory {
 
         private final Runnable runnable;
 
+        private KernelAllocator kernelAllocator;
+
         private KernelThread(final Runnable runnable) {
             super(kernelThreadGroup, kernelThreadGroup.newThreadName());
             this.runnable = runnable;
@@ -57,14 +61,24 @@ public final class KernelThreadFactory implements ThreadFactory {
         @Override
         public void run() {
             try {
-                //open stack/heap allocators
+                kernelAllocator = new KernelAllocator();
                 runnable.run();
             }
             finally {
-                //release stack/heap allocators
-                kernelThreadCount.release();
+                try {
+                    if(kernelAllocator != null) kernelAllocator.destroy();
+                }
+                finally {
+                    kernelThreadCount.release();
+                }
             }
         }
+
+        @Override
+        public KernelAllocator getAllocator() {
+            if(Thread.currentThread() != this) throw new IllegalStateException();
+            return kernelAllocator;
+        }
     }
 
     private final class KernelThreadGroup extends ThreadGroup {
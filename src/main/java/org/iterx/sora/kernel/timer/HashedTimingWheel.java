@@ -0,0 +1,225 @@
+package org.iterx.sora.kernel.timer;
+
+import org.iterx.sora.util.clock.Clock;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static org.iterx.sora.util.Exception.swallow;
+
+public final class HashedTimingWheel {
+
+    public static final long DEFAULT_TICK_DURATION = 10L;
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private static final int EXPIRY_BATCH_SIZE = 256;
+
+    private final Queue<Timeout> pendingTimeouts;
+    private final Queue<Timeout> cancelledTimeouts;
+    private final AtomicInteger size;
+    private final Bucket[] buckets;
+    private final Timeout[] expiredTimeouts;
+    private final long tickMillis;
+    private final long startTime;
+    private final int mask;
+
+    private long tick;
+
+    public HashedTimingWheel() {
+        this(DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL, TimeUnit.MILLISECONDS);
+    }
+
+    public HashedTimingWheel(final long tickDuration, final int ticksPerWheel, final TimeUnit timeUnit) {
+        if(timeUnit.toMillis(tickDuration) < 1) throw new IllegalArgumentException("tickDuration < 1ms");
+        if(ticksPerWheel < 1 || Integer.bitCount(ticksPerWheel) != 1) throw new IllegalArgumentException("ticksPerWheel != 2^n");
+        this.pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+        this.cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+        this.size = new AtomicInteger();
+        this.buckets = new Bucket[ticksPerWheel];
+        this.expiredTimeouts = new Timeout[EXPIRY_BATCH_SIZE];
+        this.tickMillis = timeUnit.toMillis(tickDuration);
+        this.startTime = Clock.currentTime(TimeUnit.MILLISECONDS);
+        this.mask = ticksPerWheel - 1;
+        for(int i = 0; i != ticksPerWheel; i++) buckets[i] = new Bucket();
+    }
+
+    public Timeout schedule(final Task task, final long delay, final TimeUnit timeUnit) {
+        if(task == null) throw new IllegalArgumentException("task == null");
+        if(delay < 0) throw new IllegalArgumentException("delay < 0");
+        final Timeout timeout = new Timeout(this, task, Clock.currentTime(TimeUnit.MILLISECONDS) + timeUnit.toMillis(delay));
+        size.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public boolean hasPending() {
+        return !pendingTimeouts.isEmpty();
+    }
+
+    public long nextTickNanos(final long maxNanos) {
+        if(isEmpty()) return maxNanos;
+        final long remaining = (startTime + (tick + 1) * tickMillis) - Clock.currentTime(TimeUnit.MILLISECONDS);
+        return Math.max(0L, Math.min(maxNanos, TimeUnit.MILLISECONDS.toNanos(remaining)));
+    }
+
+    public int expire(final long currentTime) {
+        removeCancelled();
+        transferPending();
+        int expired = 0;
+        for(final long lastTick = (currentTime - startTime) / tickMillis - 1; tick <= lastTick; tick++) {
+            expired += expire(buckets[(int) (tick & mask)], currentTime);
+        }
+        return expired;
+    }
+
+    private int expire(final Bucket bucket, final long currentTime) {
+        int expired = 0;
+        int batched = 0;
+        for(Timeout timeout = bucket.head; timeout != null;) {
+            final Timeout next = timeout.next;
+            if(timeout.remainingRounds <= 0 && timeout.deadline <= currentTime) {
+                bucket.remove(timeout);
+                if(timeout.expire()) {
+                    expiredTimeouts[batched++] = timeout;
+                    if(batched == EXPIRY_BATCH_SIZE) {
+                        expired += fire(batched);
+                        batched = 0;
+                    }
+                }
+            }
+            else timeout.remainingRounds--;
+            timeout = next;
+        }
+        return expired + fire(batched);
+    }
+
+    private int fire(final int batched) {
+        for(int i = 0; i != batched; i++) {
+            final Timeout timeout = expiredTimeouts[i];
+            expiredTimeouts[i] = null;
+            try {
+                timeout.task.onTimeout(timeout);
+            }
+            catch(final Throwable throwable) {
+                swallow(throwable);
+            }
+        }
+        return batched;
+    }
+
+    private void transferPending() {
+        for(Timeout timeout = pendingTimeouts.poll(); timeout != null; timeout = pendingTimeouts.poll()) {
+            if(timeout.state != Timeout.SCHEDULED) continue;
+            final long deadlineTick = Math.max(tick, (timeout.deadline - startTime) / tickMillis);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        for(Timeout timeout = cancelledTimeouts.poll(); timeout != null; timeout = cancelledTimeouts.poll()) {
+            if(timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+    }
+
+    public interface Task {
+
+        void onTimeout(Timeout timeout);
+    }
+
+    public static final class Timeout {
+
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedTimingWheel timingWheel;
+        private final Task task;
+        private final long deadline;
+
+        private volatile int state;
+
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(final HashedTimingWheel timingWheel, final Task task, final long deadline) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        public boolean cancel() {
+            if(STATE_UPDATER.compareAndSet(this, SCHEDULED, CANCELLED)) {
+                timingWheel.size.decrementAndGet();
+                timingWheel.cancelledTimeouts.add(this);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean expire() {
+            if(STATE_UPDATER.compareAndSet(this, SCHEDULED, EXPIRED)) {
+                timingWheel.size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if(head == null) head = tail = timeout;
+            else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(final Timeout timeout) {
+            if(timeout.prev != null) timeout.prev.next = timeout.next;
+            else head = timeout.next;
+            if(timeout.next != null) timeout.next.prev = timeout.prev;
+            else tail = timeout.prev;
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.iterx.sora.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public abstract class Watermarks {
+
+    private final AtomicLong level;
+    private final AtomicBoolean notifying;
+
+    private volatile long lowWatermark;
+    private volatile long highWatermark;
+    private volatile boolean open;
+    private volatile boolean notified;
+
+    protected Watermarks(final long lowWatermark, final long highWatermark) {
+        this.level = new AtomicLong();
+        this.notifying = new AtomicBoolean();
+        this.open = true;
+        this.notified = true;
+        set(lowWatermark, highWatermark);
+    }
+
+    public void set(final long lowWatermark, final long highWatermark) {
+        if(lowWatermark < 0) throw new IllegalArgumentException("lowWatermark < 0");
+        if(highWatermark < lowWatermark) throw new IllegalArgumentException("highWatermark < lowWatermark");
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        update();
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public long getLevel() {
+        return level.get();
+    }
+
+    public void increment(final long size) {
+        level.addAndGet(size);
+        if(open) update();
+    }
+
+    public void decrement(final long size) {
+        level.addAndGet(-size);
+        if(!open) update();
+    }
+
+    protected abstract void onChanged(boolean open);
+
+    private boolean isChanged(final boolean open) {
+        return (open)? level.get() > highWatermark : level.get() <= lowWatermark;
+    }
+
+    private void update() {
+        if(isChanged(open)) {
+            synchronized(this) {
+                for(boolean open = this.open; isChanged(open); open = this.open) this.open = !open;
+            }
+            notifyChanged();
+        }
+    }
+
+    private void notifyChanged() {
+        while(notified != open && notifying.compareAndSet(false, true)) {
+            try {
+                for(boolean open = this.open; notified != open; open = this.open) {
+                    notified = open;
+                    onChanged(open);
+                }
+            }
+            finally {
+                notifying.set(false);
+            }
+        }
+    }
+}
@@ -24,7 +24,7 @@ public abstract class Clock {
     private static final class DefaultClock extends Clock {
 
         protected long doCurrentTime(final TimeUnit timeUnit) {
-           return timeUnit.convert(System.currentTimeMillis(), timeUnit);
+           return timeUnit.convert(System.currentTimeMillis(), TimeUnit.MILLISECONDS);
         }
     }
 }
@@ -0,0 +1,117 @@
+package org.iterx.sora.collection.queue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public final class BlockingQueueBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final int COUNT = 10000000;
+    private static final int RUNS = 3;
+    private static final int[] PRODUCERS = { 1, 4, 16, 64 };
+    private static final int[] CONSUMERS = { 1, 2, 4, 8 };
+    private static final int MULTI_CONSUMER_PRODUCERS = 8;
+
+    private BlockingQueueBenchmark() {
+    }
+
+    public static void main(final String[] arguments) throws InterruptedException {
+        final BlockingQueueFactory[] singleConsumerBlockingQueueFactories = {
+                new BlockingQueueFactory("MultiProducerSingleConsumerBlockingQueue") {
+                    BlockingQueue<Integer> newBlockingQueue() {
+                        return new MultiProducerSingleConsumerBlockingQueue<Integer>(CAPACITY);
+                    }
+                },
+                new BlockingQueueFactory("LinkedBlockingQueue") {
+                    BlockingQueue<Integer> newBlockingQueue() {
+                        return new LinkedBlockingQueue<Integer>(CAPACITY);
+                    }
+                },
+                new BlockingQueueFactory("ArrayBlockingQueue") {
+                    BlockingQueue<Integer> newBlockingQueue() {
+                        return new ArrayBlockingQueue<Integer>(CAPACITY);
+                    }
+                }
+        };
+        final BlockingQueueFactory[] multiConsumerBlockingQueueFactories = {
+                new BlockingQueueFactory("MultiProducerMultiConsumerBlockingQueue") {
+                    BlockingQueue<Integer> newBlockingQueue() {
+                        return new MultiProducerMultiConsumerBlockingQueue<Integer>(CAPACITY);
+                    }
+                },
+                new BlockingQueueFactory("ArrayBlockingQueue") {
+                    BlockingQueue<Integer> newBlockingQueue() {
+                        return new ArrayBlockingQueue<Integer>(CAPACITY);
+                    }
+                }
+        };
+        for(final int producers : PRODUCERS) run(singleConsumerBlockingQueueFactories, producers, 1);
+        for(final int consumers : CONSUMERS) run(multiConsumerBlockingQueueFactories, MULTI_CONSUMER_PRODUCERS, consumers);
+    }
+
+    static void run(final BlockingQueueFactory[] blockingQueueFactories, final int producers, final int consumers) throws InterruptedException {
+        for(final BlockingQueueFactory blockingQueueFactory : blockingQueueFactories) {
+            long best = Long.MAX_VALUE;
+            for(int i = RUNS; i-- != 0;) best = Math.min(best, run(blockingQueueFactory.newBlockingQueue(), producers, consumers));
+            System.out.printf("%-48s producers=%-3d consumers=%-3d %,15d ops/s%n",
+                              blockingQueueFactory.name, producers, consumers, (COUNT * 1000000000L) / best);
+        }
+    }
+
+    static long run(final BlockingQueue<Integer> blockingQueue, final int producers, final int consumers) throws InterruptedException {
+        final Integer value = 1;
+        final int countPerProducer = COUNT / producers;
+        final int countPerConsumer = (countPerProducer * producers) / consumers;
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final CountDownLatch stopSignal = new CountDownLatch(producers + consumers);
+        for(int i = producers; i-- != 0;) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startSignal.await();
+                        for(int j = countPerProducer; j-- != 0;) blockingQueue.put(value);
+                    }
+                    catch(final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    finally {
+                        stopSignal.countDown();
+                    }
+                }
+            }).start();
+        }
+        for(int i = consumers; i-- != 0;) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startSignal.await();
+                        for(int j = countPerConsumer; j-- != 0;) blockingQueue.take();
+                    }
+                    catch(final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    finally {
+                        stopSignal.countDown();
+                    }
+                }
+            }).start();
+        }
+        final long start = System.nanoTime();
+        startSignal.countDown();
+        stopSignal.await();
+        return System.nanoTime() - start;
+    }
+
+    static abstract class BlockingQueueFactory {
+
+        final String name;
+
+        BlockingQueueFactory(final String name) {
+            this.name = name;
+        }
+
+        abstract BlockingQueue<Integer> newBlockingQueue();
+    }
+}
@@ -0,0 +1,187 @@
+package org.iterx.sora.collection.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public abstract class BlockingQueueTestCase {
+
+    public static final int CAPACITY = 16;
+    public static final int COUNT = 1000000;
+
+    public abstract BlockingQueue<Integer> newBlockingQueue(final int capacity);
+
+    @Test
+    public void shouldOfferAndPollInOrder() {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        for(int i = 0; i != CAPACITY; i++) Assert.assertTrue(blockingQueue.offer(i));
+        Assert.assertEquals(CAPACITY, blockingQueue.size());
+        Assert.assertEquals(Integer.valueOf(0), blockingQueue.peek());
+        for(int i = 0; i != CAPACITY; i++) Assert.assertEquals(Integer.valueOf(i), blockingQueue.poll());
+        Assert.assertNull(blockingQueue.poll());
+        Assert.assertTrue(blockingQueue.isEmpty());
+    }
+
+    @Test
+    public void shouldRoundCapacityToPowerOfTwo() {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY - 1);
+        Assert.assertEquals(CAPACITY, blockingQueue.remainingCapacity());
+    }
+
+    @Test
+    public void shouldRejectOfferWhenFull() {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        for(int i = 0; i != CAPACITY; i++) Assert.assertTrue(blockingQueue.offer(i));
+        Assert.assertFalse(blockingQueue.offer(CAPACITY));
+        Assert.assertEquals(0, blockingQueue.remainingCapacity());
+        Assert.assertEquals(Integer.valueOf(0), blockingQueue.poll());
+        Assert.assertTrue(blockingQueue.offer(CAPACITY));
+    }
+
+    @Test
+    public void shouldDrainTo() {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        for(int i = 0; i != CAPACITY; i++) blockingQueue.add(i);
+        final List<Integer> values = new ArrayList<Integer>();
+        Assert.assertEquals(4, blockingQueue.drainTo(values, 4));
+        Assert.assertEquals(CAPACITY - 4, blockingQueue.drainTo(values));
+        for(int i = 0; i != CAPACITY; i++) Assert.assertEquals(Integer.valueOf(i), values.get(i));
+    }
+
+    @Test
+    public void shouldDrainToArray() {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        final Integer[] values = new Integer[CAPACITY + 2];
+        Assert.assertEquals(0, blockingQueue.drainTo(values, 0, values.length));
+        for(int round = 0; round != 3; round++) {
+            for(int i = 0; i != CAPACITY; i++) blockingQueue.add(i);
+            Assert.assertEquals(4, blockingQueue.drainTo(values, 1, 4));
+            Assert.assertEquals(CAPACITY - 4, blockingQueue.drainTo(values, 5, values.length - 5));
+            Assert.assertTrue(blockingQueue.isEmpty());
+            for(int i = 0; i != CAPACITY; i++) Assert.assertEquals(Integer.valueOf(i), values[i + 1]);
+        }
+    }
+
+    @Test
+    public void shouldTimeoutPollWhenEmpty() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        Assert.assertNull(blockingQueue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldTimeoutOfferWhenFull() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        for(int i = 0; i != CAPACITY; i++) blockingQueue.add(i);
+        Assert.assertFalse(blockingQueue.offer(CAPACITY, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldUnblockTakeOnPut() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    startSignal.await();
+                    Thread.sleep(10);
+                    blockingQueue.put(1);
+                }
+                catch(final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        startSignal.countDown();
+        Assert.assertEquals(Integer.valueOf(1), blockingQueue.take());
+        thread.join();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldInterruptTake() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        final CountDownLatch interruptSignal = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    blockingQueue.take();
+                }
+                catch(final InterruptedException e) {
+                    interruptSignal.countDown();
+                }
+            }
+        });
+        thread.start();
+        thread.interrupt();
+        interruptSignal.await();
+        thread.join();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldUnblockPutOnTake() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        for(int i = 0; i != CAPACITY; i++) blockingQueue.add(i);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    startSignal.await();
+                    Thread.sleep(10);
+                    blockingQueue.take();
+                }
+                catch(final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        startSignal.countDown();
+        blockingQueue.put(CAPACITY);
+        thread.join();
+        Assert.assertEquals(CAPACITY, blockingQueue.size());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldInterruptPut() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        for(int i = 0; i != CAPACITY; i++) blockingQueue.add(i);
+        final CountDownLatch interruptSignal = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    blockingQueue.put(CAPACITY);
+                }
+                catch(final InterruptedException e) {
+                    interruptSignal.countDown();
+                }
+            }
+        });
+        thread.start();
+        thread.interrupt();
+        interruptSignal.await();
+        thread.join();
+    }
+
+    @Test(timeout = 60000)
+    public void shouldTransferInOrderBetweenThreads() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for(int i = 0; i != COUNT; i++) blockingQueue.put(i);
+                }
+                catch(final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        for(int i = 0; i != COUNT; i++) Assert.assertEquals(i, blockingQueue.take().intValue());
+        thread.join();
+        Assert.assertTrue(blockingQueue.isEmpty());
+    }
+}
@@ -0,0 +1,8 @@
+package org.iterx.sora.collection.queue;
+
+public class BusySpinWaitStrategyTest extends WaitStrategyTestCase {
+
+    public WaitStrategy newWaitStrategy() {
+        return WaitStrategies.newBusySpinWaitStrategy();
+    }
+}
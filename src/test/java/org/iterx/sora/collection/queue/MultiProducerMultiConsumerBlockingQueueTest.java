@@ -0,0 +1,52 @@
+package org.iterx.sora.collection.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class MultiProducerMultiConsumerBlockingQueueTest extends BlockingQueueTestCase {
+
+    public static final int PRODUCERS = 4;
+    public static final int CONSUMERS = 4;
+
+    public BlockingQueue<Integer> newBlockingQueue(final int capacity) {
+        return new MultiProducerMultiConsumerBlockingQueue<Integer>(capacity);
+    }
+
+    @Test(timeout = 60000)
+    public void shouldTransferOnceBetweenMultipleProducersAndConsumers() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        final AtomicIntegerArray received = new AtomicIntegerArray(COUNT);
+        final Thread[] threads = new Thread[PRODUCERS + CONSUMERS];
+        for(int i = 0; i != PRODUCERS; i++) {
+            final int producer = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for(int j = producer; j < COUNT; j += PRODUCERS) blockingQueue.put(j);
+                    }
+                    catch(final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        for(int i = 0; i != CONSUMERS; i++) {
+            threads[PRODUCERS + i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for(int j = COUNT / CONSUMERS; j-- != 0;) received.incrementAndGet(blockingQueue.take());
+                    }
+                    catch(final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        for(final Thread thread : threads) thread.start();
+        for(final Thread thread : threads) thread.join();
+        for(int i = 0; i != COUNT; i++) Assert.assertEquals(1, received.get(i));
+        Assert.assertTrue(blockingQueue.isEmpty());
+    }
+}
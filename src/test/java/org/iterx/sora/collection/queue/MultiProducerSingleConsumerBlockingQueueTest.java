@@ -0,0 +1,43 @@
+package org.iterx.sora.collection.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class MultiProducerSingleConsumerBlockingQueueTest extends BlockingQueueTestCase {
+
+    public static final int PRODUCERS = 4;
+
+    public BlockingQueue<Integer> newBlockingQueue(final int capacity) {
+        return new MultiProducerSingleConsumerBlockingQueue<Integer>(capacity);
+    }
+
+    @Test(timeout = 60000)
+    public void shouldTransferInOrderFromMultipleProducers() throws InterruptedException {
+        final BlockingQueue<Integer> blockingQueue = newBlockingQueue(CAPACITY);
+        final Thread[] threads = new Thread[PRODUCERS];
+        for(int i = 0; i != PRODUCERS; i++) {
+            final int producer = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for(int j = producer; j < COUNT; j += PRODUCERS) blockingQueue.put(j);
+                    }
+                    catch(final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        final int[] expected = new int[PRODUCERS];
+        for(int i = 0; i != PRODUCERS; i++) expected[i] = i;
+        for(int i = 0; i != COUNT; i++) {
+            final int value = blockingQueue.take();
+            Assert.assertEquals(expected[value % PRODUCERS], value);
+            expected[value % PRODUCERS] += PRODUCERS;
+        }
+        for(final Thread thread : threads) thread.join();
+        Assert.assertTrue(blockingQueue.isEmpty());
+    }
+}
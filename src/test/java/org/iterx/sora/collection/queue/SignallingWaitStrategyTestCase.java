@@ -0,0 +1,47 @@
+package org.iterx.sora.collection.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public abstract class SignallingWaitStrategyTestCase extends WaitStrategyTestCase {
+
+    private static final long HANDOFFS = 200000L;
+
+    @Test(timeout = 60000)
+    public void shouldNotLoseSignalsUnderContention() throws InterruptedException {
+        final WaitStrategy pingWaitStrategy = newWaitStrategy();
+        final WaitStrategy pongWaitStrategy = newWaitStrategy();
+        final Sequence ping = new Sequence(0L);
+        final Sequence pong = new Sequence(0L);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for(long i = 1; i <= HANDOFFS; i++) {
+                        pingWaitStrategy.await(barrier(ping, i));
+                        pong.lazySet(i);
+                        pongWaitStrategy.signal();
+                    }
+                }
+                catch(final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        for(long i = 1; i <= HANDOFFS; i++) {
+            ping.lazySet(i);
+            pingWaitStrategy.signal();
+            pongWaitStrategy.await(barrier(pong, i));
+        }
+        thread.join();
+        Assert.assertEquals(HANDOFFS, pong.get());
+    }
+
+    private static WaitStrategy.Barrier barrier(final Sequence sequence, final long value) {
+        return new WaitStrategy.Barrier() {
+            public boolean isOpen() {
+                return sequence.get() >= value;
+            }
+        };
+    }
+}
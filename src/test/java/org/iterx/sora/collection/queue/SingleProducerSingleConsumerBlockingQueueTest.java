@@ -0,0 +1,9 @@
+package org.iterx.sora.collection.queue;
+
+
+public class SingleProducerSingleConsumerBlockingQueueTest extends BlockingQueueTestCase {
+
+    public BlockingQueue<Integer> newBlockingQueue(final int capacity) {
+        return new SingleProducerSingleConsumerBlockingQueue<Integer>(capacity);
+    }
+}
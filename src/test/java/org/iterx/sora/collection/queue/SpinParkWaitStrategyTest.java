@@ -0,0 +1,8 @@
+package org.iterx.sora.collection.queue;
+
+public class SpinParkWaitStrategyTest extends SignallingWaitStrategyTestCase {
+
+    public WaitStrategy newWaitStrategy() {
+        return WaitStrategies.newSpinParkWaitStrategy();
+    }
+}
@@ -0,0 +1,10 @@
+package org.iterx.sora.collection.queue;
+
+import java.util.concurrent.TimeUnit;
+
+public class TimedParkWaitStrategyTest extends WaitStrategyTestCase {
+
+    public WaitStrategy newWaitStrategy() {
+        return WaitStrategies.newTimedParkWaitStrategy(100, TimeUnit.MICROSECONDS);
+    }
+}
@@ -0,0 +1,97 @@
+package org.iterx.sora.collection.queue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public final class WaitStrategyBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final int COUNT = 20000;
+    private static final long IDLE_MILLIS = 500L;
+
+    private WaitStrategyBenchmark() {
+    }
+
+    public static void main(final String[] arguments) throws InterruptedException {
+        final WaitStrategyFactory[] waitStrategyFactories = {
+                new WaitStrategyFactory("BusySpin") {
+                    WaitStrategy newWaitStrategy() {
+                        return WaitStrategies.newBusySpinWaitStrategy();
+                    }
+                },
+                new WaitStrategyFactory("Yielding") {
+                    WaitStrategy newWaitStrategy() {
+                        return WaitStrategies.newYieldingWaitStrategy();
+                    }
+                },
+                new WaitStrategyFactory("SpinPark") {
+                    WaitStrategy newWaitStrategy() {
+                        return WaitStrategies.newSpinParkWaitStrategy();
+                    }
+                },
+                new WaitStrategyFactory("TimedPark(50us)") {
+                    WaitStrategy newWaitStrategy() {
+                        return WaitStrategies.newTimedParkWaitStrategy(50, TimeUnit.MICROSECONDS);
+                    }
+                },
+                new WaitStrategyFactory("Blocking") {
+                    WaitStrategy newWaitStrategy() {
+                        return WaitStrategies.newBlockingWaitStrategy();
+                    }
+                }
+        };
+        for(final WaitStrategyFactory waitStrategyFactory : waitStrategyFactories) run(waitStrategyFactory);
+    }
+
+    static void run(final WaitStrategyFactory waitStrategyFactory) throws InterruptedException {
+        final BlockingQueue<Long> requests = new SingleProducerSingleConsumerBlockingQueue<Long>(CAPACITY, waitStrategyFactory.newWaitStrategy());
+        final BlockingQueue<Long> responses = new SingleProducerSingleConsumerBlockingQueue<Long>(CAPACITY, waitStrategyFactory.newWaitStrategy());
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        final Thread echo = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    while(true) responses.put(requests.take());
+                }
+                catch(final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        echo.start();
+
+        final long[] latencies = new long[COUNT];
+        for(int i = 0; i != COUNT; i++) {
+            final long start = System.nanoTime();
+            requests.put(start);
+            responses.take();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        final long idleCpuStart = threadMXBean.getThreadCpuTime(echo.getId());
+        Thread.sleep(IDLE_MILLIS);
+        final long idleCpu = threadMXBean.getThreadCpuTime(echo.getId()) - idleCpuStart;
+        echo.interrupt();
+        echo.join();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-16s rtt p50=%,9dns p99=%,11dns p99.9=%,11dns idle cpu=%5.1f%%%n",
+                          waitStrategyFactory.name,
+                          latencies[COUNT / 2],
+                          latencies[(int) (COUNT * 0.99)],
+                          latencies[(int) (COUNT * 0.999)],
+                          (idleCpu * 100.0) / TimeUnit.MILLISECONDS.toNanos(IDLE_MILLIS));
+    }
+
+    static abstract class WaitStrategyFactory {
+
+        private final String name;
+
+        private WaitStrategyFactory(final String name) {
+            this.name = name;
+        }
+
+        abstract WaitStrategy newWaitStrategy();
+    }
+}
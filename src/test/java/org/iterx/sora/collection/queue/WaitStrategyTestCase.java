@@ -0,0 +1,85 @@
+package org.iterx.sora.collection.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public abstract class WaitStrategyTestCase {
+
+    public abstract WaitStrategy newWaitStrategy();
+
+    @Test
+    public void shouldNotWaitWhenOpen() throws InterruptedException {
+        final WaitStrategy waitStrategy = newWaitStrategy();
+        final Gate gate = new Gate(true);
+        waitStrategy.await(gate);
+        Assert.assertTrue(waitStrategy.await(gate, 0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldTimeoutWhenClosed() throws InterruptedException {
+        final WaitStrategy waitStrategy = newWaitStrategy();
+        final long start = System.nanoTime();
+        Assert.assertFalse(waitStrategy.await(new Gate(false), 10, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldWakeOnSignal() throws InterruptedException {
+        final WaitStrategy waitStrategy = newWaitStrategy();
+        final Gate gate = new Gate(false);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    waitStrategy.await(gate);
+                    latch.countDown();
+                }
+                catch(final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        Assert.assertFalse(latch.await(10, TimeUnit.MILLISECONDS));
+        gate.set(true);
+        waitStrategy.signal();
+        latch.await();
+        thread.join();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldInterruptAwait() throws InterruptedException {
+        final WaitStrategy waitStrategy = newWaitStrategy();
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    waitStrategy.await(new Gate(false));
+                }
+                catch(final InterruptedException e) {
+                    interrupted.set(true);
+                }
+            }
+        });
+        thread.start();
+        thread.interrupt();
+        thread.join();
+        Assert.assertTrue(interrupted.get());
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Gate extends AtomicBoolean implements WaitStrategy.Barrier {
+
+        private Gate(final boolean open) {
+            super(open);
+        }
+
+        public boolean isOpen() {
+            return get();
+        }
+    }
+}
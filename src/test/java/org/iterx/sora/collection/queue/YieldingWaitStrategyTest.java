@@ -0,0 +1,8 @@
+package org.iterx.sora.collection.queue;
+
+public class YieldingWaitStrategyTest extends WaitStrategyTestCase {
+
+    public WaitStrategy newWaitStrategy() {
+        return WaitStrategies.newYieldingWaitStrategy();
+    }
+}
@@ -0,0 +1,93 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.iterx.sora.io.connector.multiplexor.selector.GeneralSelectorFactory;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EventLoopMultiplexorTest {
+
+    public static final int EVENT_LOOPS = 4;
+    public static final int HANDLERS = 64;
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+    private final Multiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+            EventLoopMultiplexor.newEventLoopMultiplexor(kernelThreadFactory, new GeneralSelectorFactory(), EVENT_LOOPS);
+
+    @After
+    public void tearDown() {
+        multiplexor.destroy();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldPinHandlerToOneEventLoop() throws InterruptedException {
+        final StubHandler[] handlers = new StubHandler[HANDLERS];
+        for(int i = 0; i != HANDLERS; i++) {
+            handlers[i] = new StubHandler(10);
+            multiplexor.register(handlers[i], Multiplexor.READ_OP | Multiplexor.WRITE_OP);
+        }
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        for(final StubHandler handler : handlers) {
+            handler.latch.await();
+            Assert.assertEquals(1, handler.threads.size());
+            threads.addAll(handler.threads);
+        }
+        Assert.assertTrue(threads.size() > 1);
+        Assert.assertTrue(threads.size() <= EVENT_LOOPS);
+    }
+
+    @Test(timeout = 10000)
+    public void shouldStopDispatchAfterDeregister() throws InterruptedException {
+        final StubHandler handler = new StubHandler(1);
+        multiplexor.register(handler, Multiplexor.READ_OP);
+        handler.latch.await();
+        multiplexor.deregister(handler, Multiplexor.READ_OP);
+        Thread.sleep(50);
+        final int reads = handler.reads.get();
+        Thread.sleep(50);
+        Assert.assertEquals(reads, handler.reads.get());
+    }
+
+    private static final class StubHandler implements Multiplexor.Handler<Channel<ByteBuffer, ByteBuffer>> {
+
+        private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        private final AtomicInteger reads = new AtomicInteger();
+        private final CountDownLatch latch;
+
+        private StubHandler(final int count) {
+            this.latch = new CountDownLatch(count);
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> getChannel() {
+            return null;
+        }
+
+        public void doOpen() {
+        }
+
+        public int doRead(final int length) {
+            threads.add(Thread.currentThread());
+            reads.incrementAndGet();
+            latch.countDown();
+            return (latch.getCount() != 0)? 1 : 0;
+        }
+
+        public int doWrite(final int length) {
+            threads.add(Thread.currentThread());
+            return 0;
+        }
+
+        public void doClose() {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PollPolicyTest {
+
+    @Test
+    public void shouldBusyPollBeforeBlocking() {
+        final PollPolicy.Poller poller = new PollPolicy(2, 1, 64, TimeUnit.MILLISECONDS).newPoller();
+        Assert.assertEquals(0L, poller.nextPollNanos());
+        poller.onPoll(false);
+        Assert.assertEquals(0L, poller.nextPollNanos());
+        poller.onPoll(false);
+        Assert.assertTrue(poller.nextPollNanos() > 0L);
+        Assert.assertEquals(2L, poller.getBusyPollCount());
+        Assert.assertEquals(1L, poller.getBlockingPollCount());
+    }
+
+    @Test
+    public void shouldBackoffExponentiallyToMaxPollTime() {
+        final PollPolicy.Poller poller = new PollPolicy(0, 1, 8, TimeUnit.MILLISECONDS).newPoller();
+        long previous = poller.nextPollNanos();
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(1), previous);
+        for(int i = 0; i != 3; i++) {
+            poller.onPoll(false);
+            final long next = poller.nextPollNanos();
+            Assert.assertEquals(previous << 1, next);
+            previous = next;
+        }
+        poller.onPoll(false);
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(8), poller.nextPollNanos());
+    }
+
+    @Test
+    public void shouldResumeBusyPollingWhenReady() {
+        final PollPolicy.Poller poller = new PollPolicy(1, 1, 8, TimeUnit.MILLISECONDS).newPoller();
+        poller.onPoll(false);
+        poller.onPoll(false);
+        Assert.assertTrue(poller.nextPollNanos() > 0L);
+        poller.onPoll(true);
+        Assert.assertEquals(0L, poller.nextPollNanos());
+        Assert.assertEquals(1L, poller.getReadyPollCount());
+    }
+
+    @Test
+    public void shouldFollowInterArrivalTime() throws InterruptedException {
+        final PollPolicy.Poller poller = new PollPolicy(0, 1, 1000, TimeUnit.MILLISECONDS).newPoller();
+        for(int i = 0; i != 64; i++) poller.onPoll(true);
+        Assert.assertTrue(poller.nextPollNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMaxPollTimeBelowMinPollTime() {
+        new PollPolicy(0, 10, 1, TimeUnit.MILLISECONDS);
+    }
+}
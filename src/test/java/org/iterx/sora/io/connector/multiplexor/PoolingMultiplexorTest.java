@@ -0,0 +1,98 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.iterx.sora.io.connector.multiplexor.selector.GeneralSelectorFactory;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PoolingMultiplexorTest {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+
+    @After
+    public void tearDown() {
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldWakeIdleWorkerOnRegister() throws InterruptedException {
+        final PoolingMultiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+                PoolingMultiplexor.newSinglePoolingMultiplexor(kernelThreadFactory,
+                                                               new GeneralSelectorFactory(),
+                                                               new PollPolicy(0, 1, 60, TimeUnit.SECONDS));
+        try {
+            Thread.sleep(10);
+            final StubHandler handler = new StubHandler(1);
+            final long start = System.nanoTime();
+            multiplexor.register(handler, Multiplexor.READ_OP);
+            handler.latch.await();
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            Assert.assertEquals(1, multiplexor.getPollStatistics().length);
+            Assert.assertTrue(multiplexor.getPollStatistics()[0].getIdleWaitCount() > 0);
+        }
+        finally {
+            multiplexor.destroy();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDeregisterRequestedOps() throws InterruptedException {
+        final PoolingMultiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+                PoolingMultiplexor.newOpenReadWritePoolingMultiplexor(kernelThreadFactory, new GeneralSelectorFactory());
+        try {
+            final StubHandler handler = new StubHandler(10);
+            multiplexor.register(handler, Multiplexor.READ_OP | Multiplexor.WRITE_OP);
+            handler.latch.await();
+            multiplexor.deregister(handler, Multiplexor.WRITE_OP);
+            Thread.sleep(50);
+            final int writes = handler.writes.get();
+            final int reads = handler.reads.get();
+            Thread.sleep(50);
+            Assert.assertEquals(writes, handler.writes.get());
+            Assert.assertTrue(handler.reads.get() > reads);
+            Assert.assertEquals(3, multiplexor.getPollStatistics().length);
+        }
+        finally {
+            multiplexor.destroy();
+        }
+    }
+
+    private static final class StubHandler implements Multiplexor.Handler<Channel<ByteBuffer, ByteBuffer>> {
+
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger writes = new AtomicInteger();
+        private final CountDownLatch latch;
+
+        private StubHandler(final int count) {
+            this.latch = new CountDownLatch(count);
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> getChannel() {
+            return null;
+        }
+
+        public void doOpen() {
+        }
+
+        public int doRead(final int length) {
+            reads.incrementAndGet();
+            latch.countDown();
+            return 1;
+        }
+
+        public int doWrite(final int length) {
+            writes.incrementAndGet();
+            return 1;
+        }
+
+        public void doClose() {
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.iterx.sora.io.connector.multiplexor;
+
+import org.iterx.sora.io.connector.multiplexor.selector.GeneralSelectorFactory;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShardedMultiplexorTest {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+
+    @After
+    public void tearDown() {
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSpreadHandlersAcrossShards() throws InterruptedException {
+        final ShardedMultiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+                ShardedMultiplexor.newShardedMultiplexor(kernelThreadFactory, new GeneralSelectorFactory(), 4, 1);
+        try {
+            final StubHandler[] handlers = new StubHandler[4];
+            for(int i = 0; i != handlers.length; i++) {
+                handlers[i] = new StubHandler(false);
+                multiplexor.register(handlers[i], Multiplexor.READ_OP);
+            }
+            final Set<Thread> threads = new HashSet<Thread>();
+            for(final StubHandler handler : handlers) {
+                handler.latch.await();
+                threads.add(handler.thread);
+            }
+            Assert.assertEquals(4, threads.size());
+            Assert.assertEquals(6, multiplexor.getPollStatistics().length);
+        }
+        finally {
+            multiplexor.destroy();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldStopReadingOnDeregister() throws InterruptedException {
+        final ShardedMultiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+                ShardedMultiplexor.newShardedMultiplexor(kernelThreadFactory, new GeneralSelectorFactory(), 2, 1);
+        try {
+            final StubHandler handler = new StubHandler(true);
+            multiplexor.register(handler, Multiplexor.READ_OP);
+            handler.latch.await();
+            multiplexor.deregister(handler, Multiplexor.READ_OP);
+            Thread.sleep(50);
+            final int reads = handler.reads.get();
+            Thread.sleep(50);
+            Assert.assertEquals(reads, handler.reads.get());
+        }
+        finally {
+            multiplexor.destroy();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldRebalanceHotHandlers() throws InterruptedException {
+        final ShardedMultiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+                ShardedMultiplexor.newShardedMultiplexor(kernelThreadFactory, new GeneralSelectorFactory(), 2, 1,
+                                                         ShardedMultiplexor.Placement.LEAST_LOADED,
+                                                         PollPolicy.newDefaultPollPolicy(),
+                                                         20, TimeUnit.MILLISECONDS);
+        try {
+            final StubHandler firstHotHandler = new StubHandler(true);
+            final StubHandler coldHandler = new StubHandler(false);
+            final StubHandler secondHotHandler = new StubHandler(true);
+            multiplexor.register(firstHotHandler, Multiplexor.READ_OP);
+            multiplexor.register(coldHandler, Multiplexor.READ_OP);
+            multiplexor.register(secondHotHandler, Multiplexor.READ_OP);
+            firstHotHandler.latch.await();
+            secondHotHandler.latch.await();
+            Assert.assertSame(firstHotHandler.thread, secondHotHandler.thread);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while(firstHotHandler.thread == secondHotHandler.thread && System.nanoTime() < deadline) Thread.sleep(10);
+            Assert.assertNotSame(firstHotHandler.thread, secondHotHandler.thread);
+        }
+        finally {
+            multiplexor.destroy();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldKeepShardAcrossWriteCycles() throws InterruptedException {
+        final ShardedMultiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+                ShardedMultiplexor.newShardedMultiplexor(kernelThreadFactory, new GeneralSelectorFactory(), 1, 2);
+        try {
+            final StubHandler handler = new StubHandler(false);
+            multiplexor.register(handler, Multiplexor.CLOSE_OP);
+            Thread writeThread = null;
+            for(int i = 0; i != 4; i++) {
+                final int writes = handler.writes.get();
+                multiplexor.register(handler, Multiplexor.WRITE_OP);
+                while(handler.writes.get() == writes) Thread.sleep(1);
+                multiplexor.deregister(handler, Multiplexor.WRITE_OP);
+                if(writeThread == null) writeThread = handler.writeThread;
+                Assert.assertSame(writeThread, handler.writeThread);
+                multiplexor.register(new StubHandler(false), Multiplexor.WRITE_OP);
+            }
+        }
+        finally {
+            multiplexor.destroy();
+        }
+    }
+
+    private static final class StubHandler implements Multiplexor.Handler<Channel<ByteBuffer, ByteBuffer>> {
+
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger writes = new AtomicInteger();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final boolean hot;
+
+        private volatile Thread thread;
+        private volatile Thread writeThread;
+
+        private StubHandler(final boolean hot) {
+            this.hot = hot;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> getChannel() {
+            return null;
+        }
+
+        public void doOpen() {
+        }
+
+        public int doRead(final int length) {
+            thread = Thread.currentThread();
+            reads.incrementAndGet();
+            latch.countDown();
+            return (hot)? length : 0;
+        }
+
+        public int doWrite(final int length) {
+            writeThread = Thread.currentThread();
+            writes.incrementAndGet();
+            return 0;
+        }
+
+        public void doClose() {
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.iterx.sora.io.connector.multiplexor.selector;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveQuantumTest {
+
+    @Test
+    public void shouldGrowWhenQuantumIsExhausted() {
+        final AdaptiveQuantum quantum = new AdaptiveQuantum(1024, 4096, 16384);
+        Assert.assertEquals(4096, quantum.update(4096, 4096));
+        Assert.assertEquals(8192, quantum.get());
+        quantum.update(8192, 8192);
+        quantum.update(16384, 16384);
+        Assert.assertEquals(16384, quantum.get());
+    }
+
+    @Test
+    public void shouldShrinkWhenQuantumIsUnderused() {
+        final AdaptiveQuantum quantum = new AdaptiveQuantum(1024, 4096, 16384);
+        quantum.update(4096, 100);
+        Assert.assertEquals(2048, quantum.get());
+        quantum.update(2048, 0);
+        quantum.update(1024, 0);
+        Assert.assertEquals(1024, quantum.get());
+    }
+
+    @Test
+    public void shouldHoldWhenQuantumIsPartiallyUsed() {
+        final AdaptiveQuantum quantum = new AdaptiveQuantum(1024, 4096, 16384);
+        quantum.update(4096, 2048);
+        Assert.assertEquals(4096, quantum.get());
+    }
+
+    @Test
+    public void shouldLimitQuantumToBudget() {
+        final AdaptiveQuantum quantum = new AdaptiveQuantum(1024, 4096, 16384);
+        Assert.assertEquals(4096, quantum.next(1 << 20));
+        Assert.assertEquals(2048, quantum.next(2048));
+        Assert.assertEquals(1024, quantum.next(0));
+        quantum.update(2048, 2048);
+        Assert.assertEquals(4096, quantum.get());
+    }
+
+    @Test
+    public void shouldNotChargeBudgetForFailedOperations() {
+        final AdaptiveQuantum quantum = new AdaptiveQuantum(4096);
+        Assert.assertEquals(0, quantum.update(4096, -1));
+    }
+}
@@ -0,0 +1,158 @@
+package org.iterx.sora.io.connector.multiplexor.selector;
+
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.Channel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+public class ReadyListTest {
+
+    private static final int HANDLERS = 1000;
+
+    @Test
+    public void shouldOnlyVisitSignalledHandlers() {
+        final CountingReadyList readyList = new CountingReadyList();
+        final StubHandler[] handlers = new StubHandler[HANDLERS];
+        for(int i = 0; i != HANDLERS; i++) readyList.add(handlers[i] = new StubHandler());
+
+        Assert.assertTrue(readyList.isReady());
+        Assert.assertEquals(0, readyList.poll(Integer.MAX_VALUE));
+        Assert.assertEquals(HANDLERS, readyList.visits);
+        Assert.assertFalse(readyList.isReady());
+
+        readyList.visits = 0;
+        handlers[HANDLERS / 2].work = 3;
+        readyList.add(handlers[HANDLERS / 2]);
+        Assert.assertTrue(readyList.isReady());
+        Assert.assertEquals(3, readyList.poll(Integer.MAX_VALUE) + readyList.poll(Integer.MAX_VALUE) + readyList.poll(Integer.MAX_VALUE));
+        Assert.assertEquals(3, readyList.visits);
+        Assert.assertTrue(readyList.isReady());
+        Assert.assertEquals(0, readyList.poll(Integer.MAX_VALUE));
+        Assert.assertFalse(readyList.isReady());
+        Assert.assertEquals(4, readyList.visits);
+    }
+
+    @Test
+    public void shouldCoalesceRepeatedSignals() {
+        final CountingReadyList readyList = new CountingReadyList();
+        final StubHandler handler = new StubHandler();
+        for(int i = 0; i != 10; i++) readyList.add(handler);
+        readyList.poll(Integer.MAX_VALUE);
+        Assert.assertEquals(1, readyList.visits);
+    }
+
+    @Test
+    public void shouldNotVisitRemovedHandlers() {
+        final CountingReadyList readyList = new CountingReadyList();
+        final StubHandler handler = new StubHandler();
+        handler.work = 10;
+        readyList.add(handler);
+        readyList.poll(Integer.MAX_VALUE);
+        readyList.remove(handler);
+        readyList.poll(Integer.MAX_VALUE);
+        Assert.assertEquals(1, readyList.visits);
+        Assert.assertTrue(readyList.isEmpty());
+        Assert.assertFalse(readyList.isReady());
+    }
+
+    @Test
+    public void shouldRevisitSignalledHandlers() {
+        final CountingReadyList readyList = new CountingReadyList();
+        final StubHandler handler = new StubHandler();
+        Assert.assertFalse(readyList.signal(handler));
+
+        readyList.add(handler);
+        readyList.poll(Integer.MAX_VALUE);
+        Assert.assertFalse(readyList.isReady());
+
+        handler.work = 1;
+        Assert.assertTrue(readyList.signal(handler));
+        Assert.assertTrue(readyList.isReady());
+        Assert.assertEquals(1, readyList.poll(Integer.MAX_VALUE));
+
+        readyList.remove(handler);
+        Assert.assertFalse(readyList.signal(handler));
+        Assert.assertEquals(0, readyList.poll(Integer.MAX_VALUE));
+        Assert.assertFalse(readyList.isReady());
+    }
+
+    @Test
+    public void shouldNotSweepIdleHandlersByDefault() throws InterruptedException {
+        final CountingReadyList readyList = new CountingReadyList();
+        final StubHandler handler = new StubHandler();
+        readyList.add(handler);
+        readyList.poll(Integer.MAX_VALUE);
+        handler.work = 1;
+        Thread.sleep(5);
+        Assert.assertFalse(readyList.isReady());
+        Assert.assertEquals(0, readyList.poll(Integer.MAX_VALUE));
+        Assert.assertEquals(1, readyList.visits);
+    }
+
+    @Test
+    public void shouldSweepIdleReadyHandlers() throws InterruptedException {
+        final CountingReadyList readyList = new CountingReadyList(TimeUnit.MILLISECONDS.toNanos(1));
+        final StubHandler handler = new StubHandler();
+        readyList.add(handler);
+        readyList.poll(Integer.MAX_VALUE);
+        Thread.sleep(5);
+        Assert.assertTrue(readyList.isReady());
+        Assert.assertEquals(0, readyList.poll(Integer.MAX_VALUE));
+        Assert.assertEquals(1, readyList.visits);
+
+        handler.work = 1;
+        Thread.sleep(5);
+        Assert.assertTrue(readyList.isReady());
+        Assert.assertEquals(1, readyList.poll(Integer.MAX_VALUE));
+    }
+
+    private static final class CountingReadyList extends ReadyList<Channel<ByteBuffer, ByteBuffer>> {
+
+        private int visits;
+
+        private CountingReadyList() {
+            super(AdaptiveQuantum.DEFAULT_MIN_QUANTUM);
+        }
+
+        private CountingReadyList(final long sweepInterval) {
+            super(AdaptiveQuantum.DEFAULT_MIN_QUANTUM, sweepInterval, TimeUnit.NANOSECONDS);
+        }
+
+        protected int doReady(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler, final int length) {
+            visits++;
+            return multiplexorHandler.doRead(length);
+        }
+
+        protected boolean isIdleReady(final Multiplexor.Handler<? extends Channel<ByteBuffer, ByteBuffer>> multiplexorHandler) {
+            return ((StubHandler) multiplexorHandler).work != 0;
+        }
+    }
+
+    private static final class StubHandler implements Multiplexor.Handler<Channel<ByteBuffer, ByteBuffer>> {
+
+        private int work;
+
+        public Channel<ByteBuffer, ByteBuffer> getChannel() {
+            return null;
+        }
+
+        public void doOpen() {
+        }
+
+        public int doRead(final int length) {
+            if(work == 0) return 0;
+            work--;
+            return 1;
+        }
+
+        public int doWrite(final int length) {
+            return 0;
+        }
+
+        public void doClose() {
+        }
+    }
+}
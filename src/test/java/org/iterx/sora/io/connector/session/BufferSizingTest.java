@@ -0,0 +1,29 @@
+package org.iterx.sora.io.connector.session;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class BufferSizingTest {
+
+    @Test
+    public void shouldSizeBufferToBandwidthDelayProduct() {
+        Assert.assertEquals(128 * 1024, new BufferSizing(10 * 1024 * 1024, 10, TimeUnit.MILLISECONDS).getBufferSize());
+    }
+
+    @Test
+    public void shouldClampToMinBufferSize() {
+        Assert.assertEquals(BufferSizing.DEFAULT_MIN_BUFFER_SIZE, new BufferSizing(1024, 1, TimeUnit.MILLISECONDS).getBufferSize());
+    }
+
+    @Test
+    public void shouldClampToMaxBufferSize() {
+        Assert.assertEquals(BufferSizing.DEFAULT_MAX_BUFFER_SIZE, new BufferSizing(1024 * 1024 * 1024, 200, TimeUnit.MILLISECONDS).getBufferSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMaxBelowMin() {
+        new BufferSizing(1024, 1, TimeUnit.MILLISECONDS, 1024, 512);
+    }
+}
@@ -0,0 +1,41 @@
+package org.iterx.sora.io.connector.session;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ReadBacklogTest {
+
+    private final List<Boolean> changes = new CopyOnWriteArrayList<Boolean>();
+    private final ReadBacklog readBacklog = new ReadBacklog(10, 20);
+    private final ReadBacklog.Listener listener = new ReadBacklog.Listener() {
+        public void onReadableChanged(final ReadBacklog readBacklog, final boolean readable) {
+            changes.add(readable);
+        }
+    };
+
+    @Test
+    public void shouldNotifyListenersOnThresholdCrossing() {
+        readBacklog.addListener(listener);
+        readBacklog.increment(21);
+        Assert.assertFalse(readBacklog.isReadable());
+        readBacklog.decrement(10);
+        Assert.assertFalse(readBacklog.isReadable());
+        readBacklog.decrement(1);
+        Assert.assertTrue(readBacklog.isReadable());
+        Assert.assertEquals(2, changes.size());
+        Assert.assertFalse(changes.get(0));
+        Assert.assertTrue(changes.get(1));
+    }
+
+    @Test
+    public void shouldNotNotifyRemovedListeners() {
+        readBacklog.addListener(listener);
+        readBacklog.removeListener(listener);
+        readBacklog.increment(21);
+        Assert.assertFalse(readBacklog.isReadable());
+        Assert.assertTrue(changes.isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package org.iterx.sora.io.connector.session;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WriteWatermarksTest {
+
+    private final List<Boolean> changes = new CopyOnWriteArrayList<Boolean>();
+    private final WriteWatermarks writeWatermarks = new WriteWatermarks(10, 20) {
+        @Override
+        protected void onWritabilityChanged(final boolean writable) {
+            changes.add(writable);
+        }
+    };
+
+    @Test
+    public void shouldBecomeUnwritableAboveHighWatermark() {
+        writeWatermarks.increment(20);
+        Assert.assertTrue(writeWatermarks.isWritable());
+        writeWatermarks.increment(1);
+        Assert.assertFalse(writeWatermarks.isWritable());
+        Assert.assertEquals(1, changes.size());
+        Assert.assertFalse(changes.get(0));
+    }
+
+    @Test
+    public void shouldBecomeWritableAtLowWatermark() {
+        writeWatermarks.increment(30);
+        writeWatermarks.decrement(19);
+        Assert.assertFalse(writeWatermarks.isWritable());
+        writeWatermarks.decrement(1);
+        Assert.assertTrue(writeWatermarks.isWritable());
+        Assert.assertEquals(2, changes.size());
+        Assert.assertTrue(changes.get(1));
+        Assert.assertEquals(10, writeWatermarks.getPending());
+    }
+
+    @Test
+    public void shouldReevaluateOnSet() {
+        writeWatermarks.increment(15);
+        writeWatermarks.set(5, 10);
+        Assert.assertFalse(writeWatermarks.isWritable());
+        writeWatermarks.set(15, 30);
+        Assert.assertTrue(writeWatermarks.isWritable());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldNotBlockProducersWhileNotifying() throws InterruptedException {
+        final CountDownLatch notifySignal = new CountDownLatch(1);
+        final CountDownLatch releaseSignal = new CountDownLatch(1);
+        final WriteWatermarks blockingWriteWatermarks = new WriteWatermarks(10, 20) {
+            @Override
+            protected void onWritabilityChanged(final boolean writable) {
+                changes.add(writable);
+                notifySignal.countDown();
+                try {
+                    releaseSignal.await();
+                }
+                catch(final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                blockingWriteWatermarks.increment(21);
+            }
+        });
+        thread.start();
+        Assert.assertTrue(notifySignal.await(5, TimeUnit.SECONDS));
+
+        blockingWriteWatermarks.decrement(21);
+        Assert.assertTrue(blockingWriteWatermarks.isWritable());
+        releaseSignal.countDown();
+        thread.join();
+        Assert.assertEquals(2, changes.size());
+        Assert.assertFalse(changes.get(0));
+        Assert.assertTrue(changes.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectHighBelowLow() {
+        writeWatermarks.set(20, 10);
+    }
+}
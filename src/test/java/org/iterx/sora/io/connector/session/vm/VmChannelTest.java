@@ -0,0 +1,89 @@
+package org.iterx.sora.io.connector.session.vm;
+
+import org.iterx.sora.io.connector.multiplexor.EventLoopMultiplexor;
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.multiplexor.selector.GeneralSelectorFactory;
+import org.iterx.sora.io.connector.session.AbstractChannelCallback;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class VmChannelTest {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+    private final Multiplexor<Channel<ByteBuffer, ByteBuffer>> multiplexor =
+            EventLoopMultiplexor.newEventLoopMultiplexor(kernelThreadFactory, new GeneralSelectorFactory(), 1);
+
+    private StubChannelCallback readerCallback;
+    private StubChannelCallback writerCallback;
+    private VmChannel reader;
+    private VmChannel writer;
+
+    @Before
+    public void setUp() {
+        readerCallback = new StubChannelCallback();
+        writerCallback = new StubChannelCallback();
+        reader = new VmChannel(multiplexor, readerCallback, null);
+        writer = new VmChannel(multiplexor, writerCallback, reader);
+        reader.open();
+        writer.open();
+    }
+
+    @After
+    public void tearDown() {
+        writer.close();
+        reader.close();
+        multiplexor.destroy();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDeliverWriteToReadPostedBeforePeerWrites() throws InterruptedException {
+        reader.read(ByteBuffer.allocate(16));
+        Assert.assertNull(readerCallback.buffers.poll(50, TimeUnit.MILLISECONDS));
+
+        writer.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        Assert.assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), readerCallback.buffers.poll(5, TimeUnit.SECONDS));
+        Assert.assertTrue(writerCallback.writeSignal.await(5, TimeUnit.SECONDS));
+        writer.flush();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDeliverWriteToReadPostedAfterPeerWrites() throws InterruptedException {
+        writer.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        Thread.sleep(50);
+
+        reader.read(ByteBuffer.allocate(2));
+        Assert.assertEquals(ByteBuffer.wrap(new byte[] { 1, 2 }), readerCallback.buffers.poll(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, writerCallback.writeSignal.getCount());
+
+        reader.read(ByteBuffer.allocate(2));
+        Assert.assertEquals(ByteBuffer.wrap(new byte[] { 3 }), readerCallback.buffers.poll(5, TimeUnit.SECONDS));
+        Assert.assertTrue(writerCallback.writeSignal.await(5, TimeUnit.SECONDS));
+    }
+
+    private static final class StubChannelCallback extends AbstractChannelCallback<VmChannel, ByteBuffer, ByteBuffer> {
+
+        private final BlockingQueue<ByteBuffer> buffers = new LinkedBlockingQueue<ByteBuffer>();
+        private final CountDownLatch writeSignal = new CountDownLatch(1);
+
+        @Override
+        public void onRead(final VmChannel channel, final ByteBuffer buffer) {
+            buffers.add(buffer);
+        }
+
+        @Override
+        public void onWrite(final VmChannel channel, final ByteBuffer buffer) {
+            writeSignal.countDown();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.iterx.sora.io.connector.support.nio.multiplexor.selector;
+
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.multiplexor.selector.Selector;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.support.nio.session.NioChannel;
+import org.iterx.sora.kernel.thread.KernelThread;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectableChannel;
+import java.util.concurrent.TimeUnit;
+
+public class SelectableChannelNioSelectorFactoryTest {
+
+    private static final int WARMUP_POLLS = 20000;
+    private static final int POLLS = 10000;
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("selector");
+
+    private Pipe pipe;
+    private Selector<NioChannel<? extends SelectableChannel>> selector;
+
+    @Before
+    public void setUp() throws IOException {
+        pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        selector = new SelectableChannelNioSelectorFactory().newSelector();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        selector.destroy();
+        pipe.sink().close();
+        pipe.source().close();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test
+    public void shouldDispatchReadyKeys() throws IOException {
+        final PipeHandler handler = new PipeHandler(pipe.source());
+        selector.register(handler, Multiplexor.READ_OP);
+        Assert.assertFalse(selector.poll(0, TimeUnit.MILLISECONDS));
+        pipe.sink().write(ByteBuffer.wrap(new byte[]{ 1, 2, 3 }));
+        Assert.assertTrue(selector.poll(1, TimeUnit.SECONDS));
+        Assert.assertEquals(3, handler.read);
+        Assert.assertFalse(selector.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldCoalesceInterestChangesFromOtherThreads() throws Exception {
+        final PipeHandler handler = new PipeHandler(pipe.source());
+        pipe.sink().write(ByteBuffer.wrap(new byte[]{ 1 }));
+        change(handler, 1000, false);
+        Assert.assertFalse(selector.poll(0, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(0, handler.read);
+
+        change(handler, 1000, true);
+        Assert.assertTrue(selector.isReady());
+        Assert.assertTrue(selector.poll(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, handler.read);
+    }
+
+    @Test
+    public void shouldNotAllocateWhenPolling() throws IOException {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assert.assertTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assert.assertTrue(allocationMXBean.isThreadAllocatedMemorySupported());
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        final PipeHandler handler = new PipeHandler(pipe.source());
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1);
+        selector.register(handler, Multiplexor.READ_OP);
+
+        poll(buffer, WARMUP_POLLS);
+        final long threadId = Thread.currentThread().getId();
+        final long allocated = allocationMXBean.getThreadAllocatedBytes(threadId);
+        poll(buffer, POLLS);
+        final long delta = allocationMXBean.getThreadAllocatedBytes(threadId) - allocated;
+        Assert.assertTrue("allocated " + delta + " bytes in " + POLLS + " polls", delta <= MAX_ALLOCATED_BYTES);
+        Assert.assertEquals(WARMUP_POLLS + POLLS, handler.read);
+    }
+
+    private void change(final PipeHandler handler, final int count, final boolean register) throws InterruptedException {
+        final KernelThread kernelThread = kernelThreadFactory.newThread(new Runnable() {
+
+            public void run() {
+                for(int i = 0; i != count; i++) {
+                    selector.register(handler, Multiplexor.READ_OP);
+                    selector.deregister(handler, Multiplexor.READ_OP);
+                }
+                if(register) selector.register(handler, Multiplexor.READ_OP);
+            }
+        });
+        kernelThread.start();
+        kernelThread.join();
+    }
+
+    private void poll(final ByteBuffer buffer, final int polls) throws IOException {
+        for(int i = 0; i != polls; i++) {
+            buffer.clear();
+            pipe.sink().write(buffer);
+            if(!selector.poll(1, TimeUnit.SECONDS)) Assert.fail();
+            if(selector.poll(0, TimeUnit.MILLISECONDS)) Assert.fail();
+        }
+    }
+
+    private static final class PipeHandler implements Multiplexor.Handler<NioChannel<? extends SelectableChannel>> {
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        private final PipeChannel channel;
+
+        private int read;
+
+        private PipeHandler(final Pipe.SourceChannel sourceChannel) {
+            this.channel = new PipeChannel(sourceChannel);
+        }
+
+        public NioChannel<? extends SelectableChannel> getChannel() {
+            return channel;
+        }
+
+        public void doOpen() {
+        }
+
+        public int doRead(final int length) {
+            buffer.clear();
+            buffer.limit(Math.min(length, buffer.capacity()));
+            final int count = NioChannel.Helper.read(channel.getChannel(), buffer);
+            if(count > 0) read += count;
+            return count;
+        }
+
+        public int doWrite(final int length) {
+            return 0;
+        }
+
+        public void doClose() {
+        }
+    }
+
+    private static final class PipeChannel implements NioChannel<Pipe.SourceChannel> {
+
+        private final Pipe.SourceChannel sourceChannel;
+
+        private PipeChannel(final Pipe.SourceChannel sourceChannel) {
+            this.sourceChannel = sourceChannel;
+        }
+
+        public Pipe.SourceChannel getChannel() {
+            return sourceChannel;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> open() {
+            return this;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> read(final ByteBuffer value) {
+            return this;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> write(final ByteBuffer value) {
+            return this;
+        }
+
+        public boolean tryWrite(final ByteBuffer value) {
+            return true;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> flush() {
+            return this;
+        }
+
+        public Channel<ByteBuffer, ByteBuffer> close() {
+            return this;
+        }
+
+        public <T> Channel<ByteBuffer, ByteBuffer> setOption(final ChannelOption<T> option, final T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        public <T> T getOption(final ChannelOption<T> option) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
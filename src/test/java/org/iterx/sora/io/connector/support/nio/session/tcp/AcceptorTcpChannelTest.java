@@ -0,0 +1,201 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.io.Uri;
+import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
+import org.iterx.sora.io.connector.multiplexor.EventLoopMultiplexor;
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.AbstractChannelCallback;
+import org.iterx.sora.io.connector.session.AbstractSessionCallback;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.support.nio.multiplexor.selector.SelectableChannelNioSelectorFactory;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.iterx.sora.kernel.timer.HashedTimingWheel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AcceptorTcpChannelTest {
+
+    private static final String HOST = "127.0.0.1";
+    private static final int CONNECTIONS = 32;
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+    private final Multiplexor<? super TcpChannel> multiplexor =
+            EventLoopMultiplexor.newEventLoopMultiplexor(kernelThreadFactory, new SelectableChannelNioSelectorFactory(), 1);
+    private final List<SocketChannel> socketChannels = new ArrayList<SocketChannel>();
+
+    @After
+    public void tearDown() throws IOException {
+        for(final SocketChannel socketChannel : socketChannels) socketChannel.close();
+        multiplexor.destroy();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldFanOutAcceptsAcrossReusePortListeners() throws Exception {
+        final SocketOption<Boolean> reusePort = TcpSession.getReusePortOption();
+        Assume.assumeNotNull(reusePort);
+        final InetSocketAddress socketAddress = new InetSocketAddress(HOST, newPort());
+        final ServerSocketChannel[] serverSocketChannels = TcpSession.newServerSocketChannels(2, reusePort);
+        Assert.assertEquals(2, serverSocketChannels.length);
+
+        final CountDownLatch acceptSignal = new CountDownLatch(CONNECTIONS);
+        final CountingAcceptorChannelCallback[] acceptorChannelCallbacks = new CountingAcceptorChannelCallback[serverSocketChannels.length];
+        final AcceptorTcpChannel[] acceptorTcpChannels = new AcceptorTcpChannel[serverSocketChannels.length];
+        for(int i = 0; i != serverSocketChannels.length; i++) {
+            acceptorChannelCallbacks[i] = new CountingAcceptorChannelCallback(acceptSignal);
+            acceptorTcpChannels[i] = new AcceptorTcpChannel(multiplexor, acceptorChannelCallbacks[i], serverSocketChannels[i], socketAddress);
+            acceptorTcpChannels[i].open();
+        }
+        try {
+            for(int i = 0; i != CONNECTIONS; i++) connect(socketAddress);
+
+            Assert.assertTrue(acceptSignal.await(5, TimeUnit.SECONDS));
+            for(final CountingAcceptorChannelCallback acceptorChannelCallback : acceptorChannelCallbacks) {
+                Assert.assertTrue(acceptorChannelCallback.accepts.get() > 0);
+            }
+        }
+        finally {
+            for(final AcceptorTcpChannel acceptorTcpChannel : acceptorTcpChannels) acceptorTcpChannel.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDispatchAcceptedChannelsRoundRobin() throws Exception {
+        Assume.assumeNotNull(TcpSession.getReusePortOption());
+        final CountingMultiplexor[] countingMultiplexors = { new CountingMultiplexor(multiplexor), new CountingMultiplexor(multiplexor) };
+        final CountDownLatch openSignal = new CountDownLatch(CONNECTIONS);
+        final InetSocketAddress socketAddress = new InetSocketAddress(HOST, newPort());
+        final TcpSession tcpSession = new TcpSession(countingMultiplexors,
+                                                     new AbstractSessionCallback<TcpSession>() {},
+                                                     new AcceptorEndpoint(new Uri("tcp://" + HOST + ":" + socketAddress.getPort())),
+                                                     2,
+                                                     new AbstractChannelCallback<TcpChannel, ByteBuffer, ByteBuffer>() {
+
+                                                         @Override
+                                                         public void onOpen(final TcpChannel channel) {
+                                                             openSignal.countDown();
+                                                         }
+                                                     });
+        tcpSession.open();
+        try {
+            for(int i = 0; i != CONNECTIONS; i++) connect(socketAddress);
+
+            Assert.assertTrue(openSignal.await(5, TimeUnit.SECONDS));
+            for(final CountingMultiplexor countingMultiplexor : countingMultiplexors) {
+                Assert.assertEquals(CONNECTIONS / countingMultiplexors.length, countingMultiplexor.channels.size());
+            }
+        }
+        finally {
+            tcpSession.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldCloseAcceptedSocketsOnQueueOverflow() throws Exception {
+        final CountDownLatch acceptSignal = new CountDownLatch(AcceptorTcpChannel.ACCEPT_QUEUE_CAPACITY);
+        final ServerSocketChannel serverSocketChannel = TcpSession.newServerSocketChannels(1, null)[0];
+        final AcceptorTcpChannel acceptorTcpChannel =
+                new AcceptorTcpChannel(multiplexor, new CountingAcceptorChannelCallback(acceptSignal), serverSocketChannel, new InetSocketAddress(HOST, 0));
+        acceptorTcpChannel.open();
+        try {
+            final InetSocketAddress socketAddress = (InetSocketAddress) serverSocketChannel.getLocalAddress();
+            for(int i = 0; i != AcceptorTcpChannel.ACCEPT_QUEUE_CAPACITY; i++) connect(socketAddress);
+            Assert.assertTrue(acceptSignal.await(5, TimeUnit.SECONDS));
+
+            final SocketChannel overflowSocketChannel = connect(socketAddress);
+            Assert.assertEquals(-1, overflowSocketChannel.read(ByteBuffer.allocate(1)));
+            Assert.assertTrue(socketChannels.get(0).isOpen());
+            Assert.assertNotNull(acceptorTcpChannel.accept(new AbstractChannelCallback<TcpChannel, ByteBuffer, ByteBuffer>() {}));
+        }
+        finally {
+            acceptorTcpChannel.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMultipleAcceptorsWithoutReusePort() throws Exception {
+        TcpSession.newServerSocketChannels(4, null);
+    }
+
+    private SocketChannel connect(final InetSocketAddress socketAddress) throws IOException {
+        final SocketChannel socketChannel = SocketChannel.open(socketAddress);
+        socketChannels.add(socketChannel);
+        return socketChannel;
+    }
+
+    private static int newPort() throws IOException {
+        final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+        try {
+            serverSocketChannel.bind(new InetSocketAddress(HOST, 0));
+            return ((InetSocketAddress) serverSocketChannel.getLocalAddress()).getPort();
+        }
+        finally {
+            serverSocketChannel.close();
+        }
+    }
+
+    private static final class CountingAcceptorChannelCallback implements Channel.AcceptorChannelCallback<TcpChannel, ByteBuffer, ByteBuffer> {
+
+        private final AtomicInteger accepts = new AtomicInteger();
+        private final CountDownLatch acceptSignal;
+
+        private CountingAcceptorChannelCallback(final CountDownLatch acceptSignal) {
+            this.acceptSignal = acceptSignal;
+        }
+
+        public void onAccept(final TcpChannel channel) {
+            accepts.incrementAndGet();
+            acceptSignal.countDown();
+        }
+    }
+
+    private static final class CountingMultiplexor implements Multiplexor<TcpChannel> {
+
+        private final Set<Channel<?, ?>> channels = Collections.newSetFromMap(new ConcurrentHashMap<Channel<?, ?>, Boolean>());
+        private final Multiplexor<? super TcpChannel> multiplexor;
+
+        private CountingMultiplexor(final Multiplexor<? super TcpChannel> multiplexor) {
+            this.multiplexor = multiplexor;
+        }
+
+        public void register(final Handler<? extends TcpChannel> handler, final int ops) {
+            if(handler.getChannel() instanceof ConnectorTcpChannel) channels.add(handler.getChannel());
+            multiplexor.register(handler, ops);
+        }
+
+        public void deregister(final Handler<? extends TcpChannel> handler, final int ops) {
+            multiplexor.deregister(handler, ops);
+        }
+
+        public void signal(final Handler<? extends TcpChannel> handler, final int ops) {
+            multiplexor.signal(handler, ops);
+        }
+
+        public HashedTimingWheel.Timeout schedule(final Handler<? extends TcpChannel> handler,
+                                                  final HashedTimingWheel.Task task,
+                                                  final long delay,
+                                                  final TimeUnit timeUnit) {
+            return multiplexor.schedule(handler, task, delay, timeUnit);
+        }
+
+        public void destroy() {
+        }
+    }
+}
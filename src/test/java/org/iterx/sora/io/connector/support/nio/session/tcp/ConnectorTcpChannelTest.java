@@ -0,0 +1,434 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.io.connector.multiplexor.EventLoopMultiplexor;
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.AbstractChannelCallback;
+import org.iterx.sora.io.connector.session.BufferSizing;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
+import org.iterx.sora.io.connector.session.ReadBacklog;
+import org.iterx.sora.io.connector.support.nio.multiplexor.selector.SelectableChannelNioSelectorFactory;
+import org.iterx.sora.io.connector.support.nio.session.NioChannel;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectorTcpChannelTest {
+
+    private static final int BUFFERS = 100;
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+    private final Multiplexor<? super TcpChannel> multiplexor =
+            EventLoopMultiplexor.newEventLoopMultiplexor(kernelThreadFactory, new SelectableChannelNioSelectorFactory(), 1);
+
+    private ServerSocketChannel serverSocketChannel;
+    private SocketChannel peerSocketChannel;
+    private StubChannelCallback channelCallback;
+    private ConnectorTcpChannel connectorTcpChannel;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+
+        final SocketChannel socketChannel = SocketChannel.open();
+        socketChannel.configureBlocking(false);
+        channelCallback = new StubChannelCallback();
+        connectorTcpChannel = new ConnectorTcpChannel(multiplexor, channelCallback, socketChannel, serverSocketChannel.getLocalAddress());
+        connectorTcpChannel.open();
+        peerSocketChannel = serverSocketChannel.accept();
+        Assert.assertTrue(channelCallback.openSignal.await(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connectorTcpChannel.close();
+        peerSocketChannel.close();
+        serverSocketChannel.close();
+        multiplexor.destroy();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldGatherPendingWritesInOrder() throws Exception {
+        final ByteBuffer[] buffers = new ByteBuffer[BUFFERS];
+        for(int i = 0; i != BUFFERS; i++) {
+            buffers[i] = ByteBuffer.allocate(4).putInt(0, i);
+            connectorTcpChannel.write(buffers[i]);
+        }
+        connectorTcpChannel.flush();
+
+        final ByteBuffer received = receive(BUFFERS * 4);
+        for(int i = 0; i != BUFFERS; i++) Assert.assertEquals(i, received.getInt());
+        Assert.assertEquals(BUFFERS, channelCallback.writes.size());
+        for(int i = 0; i != BUFFERS; i++) Assert.assertSame(buffers[i], channelCallback.writes.get(i));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldCompleteBuffersOnlyOnceFullyWritten() throws Exception {
+        final ByteBuffer large = fill(ByteBuffer.allocate(8 * 1024 * 1024));
+        final ByteBuffer small = fill(ByteBuffer.allocate(16));
+        connectorTcpChannel.setWriteLimit(1024);
+        connectorTcpChannel.write(large);
+        connectorTcpChannel.write(small);
+        Thread.sleep(50);
+        Assert.assertTrue(large.hasRemaining());
+        Assert.assertTrue(channelCallback.writes.isEmpty());
+
+        final ByteBuffer received = receive(large.capacity() + small.capacity());
+        connectorTcpChannel.flush();
+        Assert.assertEquals(large.rewind(), received.limit(large.capacity()));
+        Assert.assertEquals(small.rewind(), received.limit(received.capacity()).position(large.capacity()));
+        Assert.assertEquals(2, channelCallback.writes.size());
+        Assert.assertSame(large, channelCallback.writes.get(0));
+        Assert.assertSame(small, channelCallback.writes.get(1));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldScatterReadsIntoReceiveBufferRing() throws Exception {
+        connectorTcpChannel.setReceiveBufferRing(1024, 4, 4);
+        final ByteBuffer sent = fill(ByteBuffer.allocate(64 * 1024));
+        send(sent.duplicate());
+
+        final ByteBuffer received = ByteBuffer.allocate(sent.capacity());
+        while(received.hasRemaining()) {
+            final ByteBuffer buffer = channelCallback.reads.take();
+            received.put(buffer);
+            connectorTcpChannel.release(buffer);
+        }
+        Assert.assertEquals(sent, received.flip());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSuspendReadsUntilBuffersReleased() throws Exception {
+        connectorTcpChannel.setReceiveBufferRing(1024, 1, 2);
+        send(fill(ByteBuffer.allocate(4 * 1024)));
+
+        final ByteBuffer first = channelCallback.reads.take();
+        final ByteBuffer second = channelCallback.reads.take();
+        Thread.sleep(50);
+        Assert.assertTrue(channelCallback.reads.isEmpty());
+
+        connectorTcpChannel.release(first);
+        connectorTcpChannel.release(second);
+        Assert.assertEquals(1024, channelCallback.reads.take().remaining());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSuspendReadsWhileBacklogAboveHighWatermark() throws Exception {
+        final ReadBacklog readBacklog = new ReadBacklog(0, 1024);
+        channelCallback.readBacklog = readBacklog;
+        connectorTcpChannel.setReceiveBufferRing(1024, 8, 8);
+        connectorTcpChannel.setReadBacklog(readBacklog);
+        final ByteBuffer sent = fill(ByteBuffer.allocate(64 * 1024));
+        send(sent.duplicate());
+
+        final ByteBuffer first = channelCallback.reads.take();
+        Thread.sleep(50);
+        Assert.assertFalse(readBacklog.isReadable());
+        Assert.assertTrue(readBacklog.getBacklog() < sent.capacity());
+
+        final ByteBuffer received = ByteBuffer.allocate(sent.capacity());
+        for(ByteBuffer buffer = first; ; buffer = channelCallback.reads.take()) {
+            final int length = buffer.remaining();
+            received.put(buffer);
+            connectorTcpChannel.release(buffer);
+            readBacklog.decrement(length);
+            if(!received.hasRemaining()) break;
+        }
+        Assert.assertEquals(sent, received.flip());
+        Assert.assertTrue(readBacklog.isReadable());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldTransferFileInOrderWithWrites() throws Exception {
+        final ByteBuffer contents = fill(ByteBuffer.allocate(1024 * 1024));
+        final FileChannel fileChannel = newFileChannel(contents.duplicate());
+        try {
+            final ByteBuffer header = fill(ByteBuffer.allocate(100));
+            final ByteBuffer trailer = fill(ByteBuffer.allocate(10));
+            final StubTransferCallback transferCallback = new StubTransferCallback();
+            connectorTcpChannel.write(header);
+            connectorTcpChannel.transferFrom(fileChannel, 10, contents.capacity() - 10, transferCallback);
+            connectorTcpChannel.write(trailer);
+
+            final ByteBuffer received = receive(header.capacity() + contents.capacity() - 10 + trailer.capacity());
+            connectorTcpChannel.flush();
+            Assert.assertEquals(header.rewind(), received.limit(header.capacity()));
+            Assert.assertEquals(contents.position(10),
+                                received.limit(header.capacity() + contents.capacity() - 10).position(header.capacity()));
+            Assert.assertEquals(trailer.rewind(), received.limit(received.capacity()).position(received.capacity() - trailer.capacity()));
+            Assert.assertTrue(transferCallback.transferSignal.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(10, transferCallback.position);
+            Assert.assertEquals(contents.capacity() - 10, transferCallback.count);
+            Assert.assertEquals(2, channelCallback.writes.size());
+        }
+        finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void shouldKeepWritesAfterTransferWhenRacingMultiplexor() throws Exception {
+        final ByteBuffer contents = fill(ByteBuffer.allocate(16));
+        final FileChannel fileChannel = newFileChannel(contents.duplicate());
+        try {
+            final int iterations = 5000;
+            final StubTransferCallback transferCallback = new StubTransferCallback();
+            final Thread producer = new Thread(new Runnable() {
+                public void run() {
+                    for(int i = 0; i != iterations; i++) {
+                        connectorTcpChannel.write(ByteBuffer.allocate(4).putInt(0, i));
+                        connectorTcpChannel.transferFrom(fileChannel, 0, contents.capacity(), transferCallback);
+                        connectorTcpChannel.write(ByteBuffer.allocate(4).putInt(0, ~i));
+                    }
+                }
+            });
+            producer.start();
+
+            for(int i = 0; i != iterations; i++) {
+                final ByteBuffer received = receive(4 + contents.capacity() + 4);
+                Assert.assertEquals(i, received.getInt());
+                Assert.assertEquals(contents.duplicate(), received.slice().limit(contents.capacity()));
+                Assert.assertEquals(~i, received.getInt(4 + contents.capacity()));
+            }
+            producer.join();
+            Assert.assertEquals(1, channelCallback.abortSignal.getCount());
+        }
+        finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldCompleteTransferAtEndOfFile() throws Exception {
+        final ByteBuffer contents = fill(ByteBuffer.allocate(1024));
+        final FileChannel fileChannel = newFileChannel(contents.duplicate());
+        try {
+            final StubTransferCallback transferCallback = new StubTransferCallback();
+            connectorTcpChannel.transferFrom(fileChannel, 0, Long.MAX_VALUE, transferCallback);
+
+            Assert.assertEquals(contents, receive(contents.capacity()));
+            Assert.assertTrue(transferCallback.transferSignal.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(contents.capacity(), transferCallback.count);
+        }
+        finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldAbortOnlyTransferWhenFileClosed() throws Exception {
+        final FileChannel fileChannel = newFileChannel(fill(ByteBuffer.allocate(1024)));
+        fileChannel.close();
+        final StubTransferCallback transferCallback = new StubTransferCallback();
+        connectorTcpChannel.transferFrom(fileChannel, 0, 1024, transferCallback);
+        final ByteBuffer trailer = fill(ByteBuffer.allocate(10));
+        connectorTcpChannel.write(trailer.duplicate());
+
+        Assert.assertEquals(trailer, receive(trailer.capacity()));
+        Assert.assertTrue(transferCallback.abortSignal.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(transferCallback.abortCause.getCause() instanceof ClosedChannelException);
+        Assert.assertEquals(1, transferCallback.transferSignal.getCount());
+        Assert.assertEquals(1, channelCallback.closeSignal.getCount());
+        Assert.assertTrue(connectorTcpChannel.getChannel().isOpen());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldRejectTryWriteAboveHighWatermark() throws Exception {
+        connectorTcpChannel.setWriteWatermarks(1024, 4096);
+        connectorTcpChannel.setWriteLimit(1024);
+        final ByteBuffer large = fill(ByteBuffer.allocate(8 * 1024 * 1024));
+        Assert.assertTrue(connectorTcpChannel.tryWrite(large));
+        Assert.assertFalse(connectorTcpChannel.isWritable());
+        Assert.assertFalse(connectorTcpChannel.tryWrite(fill(ByteBuffer.allocate(16))));
+        Assert.assertFalse(channelCallback.writabilityChanges.take());
+
+        receive(large.capacity());
+        Assert.assertTrue(channelCallback.writabilityChanges.take());
+        Assert.assertTrue(connectorTcpChannel.isWritable());
+        Assert.assertTrue(connectorTcpChannel.tryWrite(fill(ByteBuffer.allocate(16))));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSetSocketOptions() throws Exception {
+        connectorTcpChannel.setOption(ChannelOption.TCP_NODELAY, true)
+                           .setOption(ChannelOption.SO_KEEPALIVE, true)
+                           .setOption(ChannelOption.SO_SNDBUF, 128 * 1024);
+        Assert.assertTrue(connectorTcpChannel.getOption(ChannelOption.TCP_NODELAY));
+        Assert.assertTrue(connectorTcpChannel.getChannel().socket().getTcpNoDelay());
+        Assert.assertTrue(connectorTcpChannel.getOption(ChannelOption.SO_KEEPALIVE));
+        Assert.assertTrue(connectorTcpChannel.getOption(ChannelOption.SO_SNDBUF) >= 128 * 1024);
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSizeBuffersBeforeConnect() throws Exception {
+        final BufferSizing bufferSizing = new BufferSizing(10 * 1024 * 1024, 10, TimeUnit.MILLISECONDS);
+        final SocketChannel socketChannel = SocketChannel.open();
+        socketChannel.configureBlocking(false);
+        final StubChannelCallback sizedChannelCallback = new StubChannelCallback();
+        final TcpChannel sizedTcpChannel = new ConnectorTcpChannel(multiplexor, sizedChannelCallback, socketChannel, serverSocketChannel.getLocalAddress())
+                .setOption(ChannelOption.BUFFER_SIZING, bufferSizing);
+        Assert.assertSame(bufferSizing, sizedTcpChannel.getOption(ChannelOption.BUFFER_SIZING));
+        Assert.assertTrue(sizedTcpChannel.getOption(ChannelOption.SO_RCVBUF) >= bufferSizing.getBufferSize());
+        Assert.assertTrue(sizedTcpChannel.getOption(ChannelOption.SO_SNDBUF) >= bufferSizing.getBufferSize());
+
+        sizedTcpChannel.open();
+        final SocketChannel sizedPeerSocketChannel = serverSocketChannel.accept();
+        try {
+            Assert.assertTrue(sizedChannelCallback.openSignal.await(5, TimeUnit.SECONDS));
+            sizedTcpChannel.setOption(ChannelOption.BUFFER_SIZING, bufferSizing);
+            Assert.fail();
+        }
+        catch(final IllegalStateException e) {
+        }
+        finally {
+            sizedTcpChannel.close();
+            sizedPeerSocketChannel.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldAbortChannelOnReadIdleTimeout() throws Exception {
+        final SocketChannel socketChannel = SocketChannel.open();
+        socketChannel.configureBlocking(false);
+        final StubChannelCallback idleChannelCallback = new StubChannelCallback();
+        final TcpChannel idleTcpChannel = new ConnectorTcpChannel(multiplexor, idleChannelCallback, socketChannel, serverSocketChannel.getLocalAddress())
+                .setChannelTimeouts(new ChannelTimeouts(0, 200, 0, 0, TimeUnit.MILLISECONDS));
+        idleTcpChannel.open();
+        final SocketChannel idlePeerSocketChannel = serverSocketChannel.accept();
+        try {
+            Assert.assertTrue(idleChannelCallback.openSignal.await(5, TimeUnit.SECONDS));
+            idlePeerSocketChannel.write(fill(ByteBuffer.allocate(16)));
+            idleTcpChannel.read(ByteBuffer.allocate(16));
+            Assert.assertEquals(16, idleChannelCallback.reads.take().remaining());
+            Assert.assertEquals(1, idleChannelCallback.abortSignal.getCount());
+
+            Assert.assertTrue(idleChannelCallback.abortSignal.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(idleChannelCallback.abortCause.getCause() instanceof SocketTimeoutException);
+            Assert.assertTrue(idleChannelCallback.closeSignal.await(5, TimeUnit.SECONDS));
+            Assert.assertFalse(socketChannel.isOpen());
+        }
+        finally {
+            idlePeerSocketChannel.close();
+        }
+    }
+
+    private static FileChannel newFileChannel(final ByteBuffer contents) throws IOException {
+        final File file = File.createTempFile("transfer", ".tmp");
+        file.deleteOnExit();
+        final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        while(contents.hasRemaining()) fileChannel.write(contents);
+        return fileChannel;
+    }
+
+    private void send(final ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) peerSocketChannel.write(buffer);
+    }
+
+    private ByteBuffer receive(final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()) {
+            if(peerSocketChannel.read(buffer) == -1) throw new IOException("closed");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer fill(final ByteBuffer buffer) {
+        for(int i = 0; buffer.hasRemaining(); i++) buffer.put((byte) i);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class StubTransferCallback implements NioChannel.TransferCallback {
+
+        private final CountDownLatch transferSignal = new CountDownLatch(1);
+        private final CountDownLatch abortSignal = new CountDownLatch(1);
+        private volatile long position;
+        private volatile long count;
+        private volatile Throwable abortCause;
+
+        public void onTransfer(final Channel<ByteBuffer, ByteBuffer> channel,
+                               final FileChannel fileChannel,
+                               final long position,
+                               final long count) {
+            this.position = position;
+            this.count = count;
+            transferSignal.countDown();
+        }
+
+        public void onAbort(final Channel<ByteBuffer, ByteBuffer> channel,
+                            final FileChannel fileChannel,
+                            final long position,
+                            final long count,
+                            final Throwable throwable) {
+            this.abortCause = throwable;
+            abortSignal.countDown();
+        }
+    }
+
+    private static final class StubChannelCallback extends AbstractChannelCallback<TcpChannel, ByteBuffer, ByteBuffer> {
+
+        private final CountDownLatch openSignal = new CountDownLatch(1);
+        private final CountDownLatch abortSignal = new CountDownLatch(1);
+        private final CountDownLatch closeSignal = new CountDownLatch(1);
+        private final List<ByteBuffer> writes = new CopyOnWriteArrayList<ByteBuffer>();
+        private final BlockingQueue<ByteBuffer> reads = new LinkedBlockingQueue<ByteBuffer>();
+        private final BlockingQueue<Boolean> writabilityChanges = new LinkedBlockingQueue<Boolean>();
+        private volatile ReadBacklog readBacklog;
+        private volatile Throwable abortCause;
+
+        @Override
+        public void onOpen(final TcpChannel channel) {
+            openSignal.countDown();
+        }
+
+        @Override
+        public void onAbort(final TcpChannel channel, final Throwable throwable) {
+            abortCause = throwable;
+            abortSignal.countDown();
+        }
+
+        @Override
+        public void onClose(final TcpChannel channel) {
+            closeSignal.countDown();
+        }
+
+        @Override
+        public void onRead(final TcpChannel channel, final ByteBuffer buffer) {
+            if(readBacklog != null) readBacklog.increment(buffer.remaining());
+            reads.add(buffer);
+        }
+
+        @Override
+        public void onWrite(final TcpChannel channel, final ByteBuffer buffer) {
+            writes.add(buffer);
+        }
+
+        @Override
+        public void onWritabilityChanged(final TcpChannel channel, final boolean writable) {
+            writabilityChanges.add(writable);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.kernel.memory.ByteBufferPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ReceiveBufferRingTest {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final ReceiveBufferRing receiveBufferRing = new ReceiveBufferRing(new ByteBufferPool(), BUFFER_SIZE, 2, 4);
+
+    @After
+    public void tearDown() {
+        receiveBufferRing.destroy();
+    }
+
+    @Test
+    public void shouldClaimBuffersUpToLimit() {
+        Assert.assertEquals(1, receiveBufferRing.claim(1));
+        Assert.assertEquals(1, receiveBufferRing.claim(4 * BUFFER_SIZE));
+        Assert.assertEquals(BUFFER_SIZE, receiveBufferRing.getBuffers()[0].remaining());
+    }
+
+    @Test
+    public void shouldGrowUpToMaxBuffers() {
+        Assert.assertEquals(2, receiveBufferRing.claim(8 * BUFFER_SIZE));
+        Assert.assertEquals(2, receiveBufferRing.claim(8 * BUFFER_SIZE));
+        Assert.assertFalse(receiveBufferRing.isAvailable());
+        Assert.assertEquals(0, receiveBufferRing.claim(8 * BUFFER_SIZE));
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffers() {
+        Assert.assertEquals(2, receiveBufferRing.claim(2 * BUFFER_SIZE));
+        final ByteBuffer buffer = receiveBufferRing.getBuffers()[1];
+        buffer.put((byte) 1).flip();
+        Assert.assertEquals(2, receiveBufferRing.claim(8 * BUFFER_SIZE));
+        Assert.assertTrue(receiveBufferRing.release(buffer));
+        Assert.assertEquals(BUFFER_SIZE, buffer.remaining());
+        Assert.assertTrue(receiveBufferRing.isAvailable());
+        Assert.assertEquals(1, receiveBufferRing.claim(8 * BUFFER_SIZE));
+        Assert.assertSame(buffer, receiveBufferRing.getBuffers()[0]);
+    }
+
+    @Test
+    public void shouldReturnUnfilledBuffersOnUnclaim() {
+        Assert.assertEquals(2, receiveBufferRing.claim(2 * BUFFER_SIZE));
+        final ByteBuffer buffer = receiveBufferRing.getBuffers()[1];
+        receiveBufferRing.unclaim(1);
+        Assert.assertEquals(1, receiveBufferRing.claim(BUFFER_SIZE));
+        Assert.assertSame(buffer, receiveBufferRing.getBuffers()[0]);
+    }
+
+    @Test
+    public void shouldRejectForeignBuffers() {
+        Assert.assertFalse(receiveBufferRing.release(ByteBuffer.allocate(BUFFER_SIZE)));
+    }
+}
@@ -0,0 +1,111 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.io.Uri;
+import org.iterx.sora.io.connector.endpoint.AcceptorEndpoint;
+import org.iterx.sora.io.connector.multiplexor.EventLoopMultiplexor;
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.AbstractChannelCallback;
+import org.iterx.sora.io.connector.session.AbstractSessionCallback;
+import org.iterx.sora.io.connector.session.Channel;
+import org.iterx.sora.io.connector.support.nio.multiplexor.selector.SelectableChannelNioSelectorFactory;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class TcpAcceptBenchmark {
+
+    private static final String HOST = "127.0.0.1";
+    private static final int PORT = 17017;
+    private static final int COUNT = 20000;
+    private static final int CLIENTS = 4;
+    private static final int RUNS = 3;
+    private static final int[] ACCEPTORS = { 1, 2, 4 };
+
+    private TcpAcceptBenchmark() {
+    }
+
+    public static void main(final String[] arguments) throws Exception {
+        for(final int acceptors : ACCEPTORS) {
+            for(final boolean dispatch : new boolean[]{ false, true }) {
+                long best = Long.MAX_VALUE;
+                for(int i = RUNS; i-- != 0;) best = Math.min(best, run(acceptors, dispatch));
+                System.out.printf("%-10s acceptors=%-3d %,12d connections/s%n",
+                                  (dispatch)? "dispatch" : "queue", acceptors, (COUNT * 1000000000L) / best);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long run(final int acceptors, final boolean dispatch) throws Exception {
+        final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("acceptor");
+        final Multiplexor<? super TcpChannel>[] multiplexors = (Multiplexor<? super TcpChannel>[]) new Multiplexor<?>[acceptors];
+        for(int i = 0; i != acceptors; i++) {
+            multiplexors[i] = EventLoopMultiplexor.newEventLoopMultiplexor(kernelThreadFactory, new SelectableChannelNioSelectorFactory(), 1);
+        }
+        final CountDownLatch openSignal = new CountDownLatch(COUNT);
+        final Channel.ChannelCallback<TcpChannel, ByteBuffer, ByteBuffer> channelCallback = new AbstractChannelCallback<TcpChannel, ByteBuffer, ByteBuffer>() {
+
+            @Override
+            public void onOpen(final TcpChannel channel) {
+                try {
+                    channel.getChannel().close();
+                }
+                catch(final IOException e) {
+                    throw new RuntimeException(e);
+                }
+                openSignal.countDown();
+            }
+        };
+        final TcpSession[] tcpSession = new TcpSession[1];
+        tcpSession[0] = new TcpSession(multiplexors,
+                                       new AbstractSessionCallback<TcpSession>() {
+
+                                           @Override
+                                           public void onAccept(final TcpSession session) {
+                                               final TcpChannel channel = session.newChannel(channelCallback);
+                                               if(channel != null) channel.open();
+                                           }
+                                       },
+                                       new AcceptorEndpoint(new Uri("tcp://" + HOST + ":" + PORT)),
+                                       acceptors,
+                                       (dispatch)? channelCallback : null);
+        tcpSession[0].open();
+        try {
+            final AtomicInteger remaining = new AtomicInteger(COUNT);
+            final Thread[] clients = new Thread[CLIENTS];
+            final long start = System.nanoTime();
+            for(int i = 0; i != CLIENTS; i++) {
+                clients[i] = kernelThreadFactory.newThread(new Runnable() {
+
+                    public void run() {
+                        try {
+                            while(remaining.getAndDecrement() > 0) {
+                                final SocketChannel socketChannel = SocketChannel.open(new InetSocketAddress(HOST, PORT));
+                                socketChannel.close();
+                            }
+                        }
+                        catch(final IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                clients[i].start();
+            }
+            if(!openSignal.await(60, TimeUnit.SECONDS)) throw new IllegalStateException("timeout (" + openSignal.getCount() + " remaining)");
+            final long time = System.nanoTime() - start;
+            for(final Thread client : clients) client.join();
+            return time;
+        }
+        finally {
+            tcpSession[0].close();
+            for(final Multiplexor<? super TcpChannel> multiplexor : multiplexors) multiplexor.destroy();
+            kernelThreadFactory.destroy();
+        }
+    }
+}
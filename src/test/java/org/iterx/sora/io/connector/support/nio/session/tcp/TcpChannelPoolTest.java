@@ -0,0 +1,273 @@
+package org.iterx.sora.io.connector.support.nio.session.tcp;
+
+import org.iterx.sora.io.Uri;
+import org.iterx.sora.io.connector.Connector;
+import org.iterx.sora.io.connector.endpoint.ConnectorEndpoint;
+import org.iterx.sora.io.connector.multiplexor.EventLoopMultiplexor;
+import org.iterx.sora.io.connector.multiplexor.Multiplexor;
+import org.iterx.sora.io.connector.session.AbstractChannelCallback;
+import org.iterx.sora.io.connector.session.AbstractSessionCallback;
+import org.iterx.sora.io.connector.session.BufferSizing;
+import org.iterx.sora.io.connector.session.ChannelOption;
+import org.iterx.sora.io.connector.session.ChannelPoolPolicy;
+import org.iterx.sora.io.connector.session.ChannelTimeouts;
+import org.iterx.sora.io.connector.support.nio.multiplexor.selector.SelectableChannelNioSelectorFactory;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TcpChannelPoolTest {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("multiplexor");
+    private final Multiplexor<? super TcpChannel> multiplexor =
+            EventLoopMultiplexor.newEventLoopMultiplexor(kernelThreadFactory, new SelectableChannelNioSelectorFactory(), 1);
+
+    private ServerSocketChannel serverSocketChannel;
+    private TcpChannelPool tcpChannelPool;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+        final int port = ((InetSocketAddress) serverSocketChannel.getLocalAddress()).getPort();
+        tcpChannelPool = new TcpChannelPool(multiplexor,
+                                            new ConnectorEndpoint(new Uri("tcp://127.0.0.1:" + port)),
+                                            new ChannelPoolPolicy(1, 0, 60, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        tcpChannelPool.close();
+        serverSocketChannel.close();
+        multiplexor.destroy();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldReuseReleasedChannel() throws Exception {
+        final StubChannelCallback firstCallback = new StubChannelCallback();
+        final TcpChannel first = open(firstCallback);
+        final SocketChannel peerSocketChannel = serverSocketChannel.accept();
+        first.close();
+        Assert.assertTrue(firstCallback.closeSignal.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, tcpChannelPool.getIdleCount());
+
+        final TcpChannel second = open(new StubChannelCallback());
+        Assert.assertSame(first.getChannel(), second.getChannel());
+        Assert.assertEquals(0, tcpChannelPool.getIdleCount());
+        Assert.assertEquals(1, tcpChannelPool.getLeasedCount());
+        second.close();
+        peerSocketChannel.close();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldResetLeaseStateOnRelease() throws Exception {
+        final ReadingChannelCallback firstCallback = new ReadingChannelCallback();
+        final TcpConnectorChannel first = open(firstCallback);
+        final SocketChannel peerSocketChannel = serverSocketChannel.accept();
+        first.setOption(ChannelOption.TCP_NODELAY, true);
+        first.setChannelTimeouts(ChannelTimeouts.newDefaultChannelTimeouts());
+        first.setReceiveBufferRing(64, 1, 1);
+        Assert.assertTrue(first.getOption(ChannelOption.TCP_NODELAY));
+
+        peerSocketChannel.write(ByteBuffer.wrap(new byte[] { 1 }));
+        Assert.assertTrue(firstCallback.readSignal.await(5, TimeUnit.SECONDS));
+        first.close();
+        first.release(firstCallback.buffer);
+        Assert.assertEquals(1, tcpChannelPool.getIdleCount());
+
+        final ReadingChannelCallback secondCallback = new ReadingChannelCallback();
+        final TcpChannel second = open(secondCallback);
+        Assert.assertSame(first.getChannel(), second.getChannel());
+        Assert.assertFalse(second.getOption(ChannelOption.TCP_NODELAY));
+        second.read(ByteBuffer.allocate(1));
+        peerSocketChannel.write(ByteBuffer.wrap(new byte[] { 2 }));
+        Assert.assertTrue(secondCallback.readSignal.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, secondCallback.buffer.get(0));
+        second.close();
+        peerSocketChannel.close();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldReleaseFromCallbackWithPendingWrites() throws Exception {
+        final ClosingChannelCallback channelCallback = new ClosingChannelCallback();
+        final TcpConnectorChannel tcpChannel = open(channelCallback);
+        final SocketChannel peerSocketChannel = serverSocketChannel.accept();
+        final ByteBuffer large = ByteBuffer.allocate(8 * 1024 * 1024);
+        tcpChannel.setWriteLimit(1024);
+        tcpChannel.write(large);
+        tcpChannel.read(ByteBuffer.allocate(1));
+
+        peerSocketChannel.write(ByteBuffer.wrap(new byte[] { 1 }));
+        Assert.assertTrue(channelCallback.releaseSignal.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, tcpChannelPool.getIdleCount());
+
+        final ByteBuffer received = ByteBuffer.allocate(large.capacity());
+        while(received.hasRemaining()) peerSocketChannel.read(received);
+        Assert.assertTrue(((StubChannelCallback) channelCallback).closeSignal.await(5, TimeUnit.SECONDS));
+        awaitIdleCount(tcpChannelPool, 1);
+        Assert.assertEquals(0, tcpChannelPool.getLeasedCount());
+
+        final TcpChannel second = open(new StubChannelCallback());
+        Assert.assertSame(tcpChannel.getChannel(), second.getChannel());
+        second.close();
+        peerSocketChannel.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectBufferSizingOnLease() throws Exception {
+        final TcpChannel tcpChannel = tcpChannelPool.lease(new StubChannelCallback());
+        try {
+            tcpChannel.setOption(ChannelOption.BUFFER_SIZING, new BufferSizing(1000000L, 1L, TimeUnit.MILLISECONDS));
+        }
+        finally {
+            tcpChannel.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldCloseChannelsAboveMaxIdle() throws Exception {
+        final TcpChannel first = open(new StubChannelCallback());
+        final SocketChannel firstPeerSocketChannel = serverSocketChannel.accept();
+        final TcpChannel second = open(new StubChannelCallback());
+        final SocketChannel secondPeerSocketChannel = serverSocketChannel.accept();
+
+        first.close();
+        second.close();
+        Assert.assertEquals(1, tcpChannelPool.getIdleCount());
+        Assert.assertEquals(0, tcpChannelPool.getLeasedCount());
+        Assert.assertFalse(second.getChannel().isOpen());
+        firstPeerSocketChannel.close();
+        secondPeerSocketChannel.close();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldEvictChannelClosedByPeer() throws Exception {
+        final TcpChannel first = open(new StubChannelCallback());
+        final SocketChannel peerSocketChannel = serverSocketChannel.accept();
+        first.close();
+        Assert.assertEquals(1, tcpChannelPool.getIdleCount());
+
+        peerSocketChannel.close();
+        Thread.sleep(50);
+
+        final TcpChannel second = open(new StubChannelCallback());
+        Assert.assertNotSame(first.getChannel(), second.getChannel());
+        serverSocketChannel.accept().close();
+        second.close();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldKeepMinIdleAfterEvictingWarmedChannel() throws Exception {
+        final TcpChannelPool warmTcpChannelPool = new TcpChannelPool(multiplexor,
+                                                                     new ConnectorEndpoint(new Uri("tcp://127.0.0.1:" + serverSocketChannel.socket().getLocalPort())),
+                                                                     new ChannelPoolPolicy(4, 1, 60, TimeUnit.SECONDS));
+        try {
+            warmTcpChannelPool.open();
+            awaitIdleCount(warmTcpChannelPool, 1);
+            serverSocketChannel.accept().close();
+            Thread.sleep(50);
+
+            final StubChannelCallback channelCallback = new StubChannelCallback();
+            final TcpChannel tcpChannel = warmTcpChannelPool.lease(channelCallback);
+            tcpChannel.open();
+            Assert.assertTrue(channelCallback.openSignal.await(5, TimeUnit.SECONDS));
+            final SocketChannel firstPeerSocketChannel = serverSocketChannel.accept();
+            final SocketChannel secondPeerSocketChannel = serverSocketChannel.accept();
+            awaitIdleCount(warmTcpChannelPool, 1);
+
+            serverSocketChannel.configureBlocking(false);
+            Thread.sleep(100);
+            Assert.assertNull(serverSocketChannel.accept());
+            Assert.assertEquals(1, warmTcpChannelPool.getIdleCount());
+            Assert.assertEquals(1, warmTcpChannelPool.getLeasedCount());
+            tcpChannel.close();
+            firstPeerSocketChannel.close();
+            secondPeerSocketChannel.close();
+        }
+        finally {
+            warmTcpChannelPool.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void shouldCloseIdleChannelsWhenConnectorIsDestroyed() throws Exception {
+        final Connector connector = new Connector(new TcpSessionFactory(multiplexor, new ChannelPoolPolicy(1, 0, 60, TimeUnit.SECONDS)));
+        final TcpSession tcpSession = connector.newSession(new AbstractSessionCallback<TcpSession>() {},
+                                                           new ConnectorEndpoint(new Uri("tcp://127.0.0.1:" + serverSocketChannel.socket().getLocalPort())));
+        tcpSession.open();
+        final StubChannelCallback channelCallback = new StubChannelCallback();
+        final TcpChannel tcpChannel = tcpSession.newChannel(channelCallback);
+        tcpChannel.open();
+        Assert.assertTrue(channelCallback.openSignal.await(5, TimeUnit.SECONDS));
+        final SocketChannel peerSocketChannel = serverSocketChannel.accept();
+        tcpChannel.close();
+        Assert.assertTrue(tcpChannel.getChannel().isOpen());
+
+        connector.destroy();
+        Assert.assertFalse(tcpChannel.getChannel().isOpen());
+        Assert.assertEquals(-1, peerSocketChannel.read(ByteBuffer.allocate(1)));
+        peerSocketChannel.close();
+    }
+
+    private static void awaitIdleCount(final TcpChannelPool tcpChannelPool, final int idleCount) throws InterruptedException {
+        while(tcpChannelPool.getIdleCount() < idleCount) Thread.sleep(1);
+    }
+
+    private TcpConnectorChannel open(final StubChannelCallback channelCallback) throws InterruptedException {
+        final TcpConnectorChannel tcpChannel = tcpChannelPool.lease(channelCallback);
+        tcpChannel.open();
+        Assert.assertTrue(channelCallback.openSignal.await(5, TimeUnit.SECONDS));
+        return tcpChannel;
+    }
+
+    private static final class ClosingChannelCallback extends StubChannelCallback {
+
+        private final CountDownLatch releaseSignal = new CountDownLatch(1);
+
+        @Override
+        public void onRead(final TcpChannel channel, final ByteBuffer buffer) {
+            channel.close();
+            releaseSignal.countDown();
+        }
+    }
+
+    private static final class ReadingChannelCallback extends StubChannelCallback {
+
+        private final CountDownLatch readSignal = new CountDownLatch(1);
+        private volatile ByteBuffer buffer;
+
+        @Override
+        public void onRead(final TcpChannel channel, final ByteBuffer buffer) {
+            this.buffer = buffer;
+            readSignal.countDown();
+        }
+    }
+
+    private static class StubChannelCallback extends AbstractChannelCallback<TcpChannel, ByteBuffer, ByteBuffer> {
+
+        private final CountDownLatch openSignal = new CountDownLatch(1);
+        private final CountDownLatch closeSignal = new CountDownLatch(1);
+
+        @Override
+        public void onOpen(final TcpChannel channel) {
+            openSignal.countDown();
+        }
+
+        @Override
+        public void onClose(final TcpChannel channel) {
+            closeSignal.countDown();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.iterx.sora.kernel.actor;
+
+import org.iterx.sora.kernel.actor.receiver.AbstractReceiver;
+import org.iterx.sora.kernel.actor.receiver.Receiver;
+import org.iterx.sora.kernel.memory.Recycler;
+import org.iterx.sora.util.Watermarks;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public abstract class ActorTestCase {
+
+    public static final int CAPACITY = 64;
+    public static final int COUNT = 100000;
+
+    public abstract <T> Actor<T> newActor(final Receiver<? super T> receiver, final int capacity, final int workers);
+
+    @Test(timeout = 60000)
+    public void shouldReceiveAllMessages() {
+        final Counter counter = new Counter();
+        final Actor<Integer> actor = newActor(counter, CAPACITY, 1);
+        actor.start();
+        try {
+            for(int i = 0; i != COUNT; i++) actor.send(i);
+            actor.flush();
+            awaitCount(counter, COUNT);
+            Assert.assertEquals(((long) COUNT * (COUNT - 1)) / 2, counter.sum.get());
+        }
+        finally {
+            actor.destroy();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void shouldReceiveAllMessagesWithMultipleWorkers() {
+        final Counter counter = new Counter();
+        final Actor<Integer> actor = newActor(counter, CAPACITY, 4);
+        actor.start();
+        try {
+            for(int i = 0; i != COUNT; i++) actor.send(i);
+            actor.flush();
+            awaitCount(counter, COUNT);
+            Assert.assertEquals(((long) COUNT * (COUNT - 1)) / 2, counter.sum.get());
+        }
+        finally {
+            actor.destroy();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void shouldRestartAfterStop() {
+        final Counter counter = new Counter();
+        final Actor<Integer> actor = newActor(counter, CAPACITY, 1);
+        try {
+            actor.start();
+            actor.send(1);
+            awaitCount(counter, 1);
+            actor.stop();
+            actor.start();
+            actor.send(2);
+            awaitCount(counter, 2);
+            Assert.assertEquals(3L, counter.sum.get());
+        }
+        finally {
+            actor.destroy();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void shouldPublishMailboxDepthToBacklog() throws InterruptedException {
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final CountDownLatch releaseSignal = new CountDownLatch(1);
+        final Counter counter = new Counter() {
+            @Override
+            public void receive(final Integer object) {
+                try {
+                    startSignal.countDown();
+                    releaseSignal.await();
+                }
+                catch(final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.receive(object);
+            }
+        };
+        final List<Boolean> changes = new CopyOnWriteArrayList<Boolean>();
+        final Watermarks backlog = new Watermarks(2, 4) {
+            protected void onChanged(final boolean open) {
+                changes.add(open);
+            }
+        };
+        final Actor<Integer> actor = newActor(counter, CAPACITY, 1);
+        actor.setBacklog(backlog);
+        actor.start();
+        try {
+            actor.send(0);
+            startSignal.await();
+            for(int i = 1; i != 6; i++) actor.send(i);
+            Assert.assertFalse(backlog.isOpen());
+            Assert.assertEquals(6L, backlog.getLevel());
+            Assert.assertEquals(5, actor.getBacklog());
+
+            releaseSignal.countDown();
+            awaitCount(counter, 6);
+            while(!backlog.isOpen()) Thread.yield();
+            Assert.assertEquals(0, actor.getBacklog());
+            Assert.assertEquals(2, changes.size());
+            Assert.assertFalse(changes.get(0));
+            Assert.assertTrue(changes.get(1));
+        }
+        finally {
+            actor.destroy();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void shouldDrainMailboxInBatches() throws InterruptedException {
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final CountDownLatch releaseSignal = new CountDownLatch(1);
+        final BatchRecorder batchRecorder = new BatchRecorder(startSignal, releaseSignal);
+        final Actor<Integer> actor = newActor(batchRecorder, CAPACITY, 1);
+        actor.start();
+        try {
+            actor.send(0);
+            startSignal.await();
+            for(int i = 1; i != CAPACITY; i++) actor.send(i);
+            releaseSignal.countDown();
+            actor.flush();
+            while(batchRecorder.flushes.get() == 0 || batchRecorder.objects.size() != CAPACITY) Thread.yield();
+
+            Assert.assertEquals(2, batchRecorder.sizes.size());
+            Assert.assertEquals(1, (int) batchRecorder.sizes.get(0));
+            Assert.assertEquals(CAPACITY - 1, (int) batchRecorder.sizes.get(1));
+            for(int i = 0; i != CAPACITY; i++) Assert.assertEquals(i, (int) batchRecorder.objects.get(i));
+        }
+        finally {
+            actor.destroy();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void shouldRecycleMessagesFromReceiver() {
+        final AtomicLong allocations = new AtomicLong();
+        final Recycler<long[]> recycler = new Recycler<long[]>(CAPACITY) {
+            protected long[] newObject() {
+                allocations.incrementAndGet();
+                return new long[1];
+            }
+
+            @Override
+            protected void reset(final long[] object) {
+                object[0] = 0;
+            }
+        };
+        final Counter counter = new Counter();
+        final Actor<long[]> actor = newActor(new AbstractReceiver<long[]>() {
+            public void receive(final long[] object) {
+                counter.receive((int) object[0]);
+                recycler.recycle(object);
+            }
+        }, CAPACITY, 1);
+        actor.start();
+        try {
+            for(int i = 0; i != COUNT; i++) {
+                final long[] object = recycler.get();
+                Assert.assertEquals(0, object[0]);
+                object[0] = i;
+                actor.send(object);
+            }
+            actor.flush();
+            awaitCount(counter, COUNT);
+            Assert.assertEquals(((long) COUNT * (COUNT - 1)) / 2, counter.sum.get());
+            Assert.assertTrue(allocations.get() < COUNT / 10);
+        }
+        finally {
+            actor.destroy();
+        }
+    }
+
+    private static void awaitCount(final Counter counter, final long count) {
+        while(counter.count.get() != count) Thread.yield();
+    }
+
+    private static class Counter extends AbstractReceiver<Integer> {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+
+        public void receive(final Integer object) {
+            sum.addAndGet(object);
+            count.incrementAndGet();
+        }
+    }
+
+    private static final class BatchRecorder implements Receiver<Integer> {
+
+        private final List<Integer> sizes = new CopyOnWriteArrayList<Integer>();
+        private final List<Integer> objects = new CopyOnWriteArrayList<Integer>();
+        private final AtomicLong flushes = new AtomicLong();
+        private final CountDownLatch startSignal;
+        private final CountDownLatch releaseSignal;
+
+        private BatchRecorder(final CountDownLatch startSignal, final CountDownLatch releaseSignal) {
+            this.startSignal = startSignal;
+            this.releaseSignal = releaseSignal;
+        }
+
+        public void receive(final Integer object) {
+            objects.add(object);
+        }
+
+        public void receive(final List<? extends Integer> batch) {
+            sizes.add(batch.size());
+            objects.addAll(batch);
+            if(startSignal.getCount() != 0) {
+                startSignal.countDown();
+                try {
+                    releaseSignal.await();
+                }
+                catch(final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        public void flush() {
+            flushes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.iterx.sora.kernel.actor;
+
+import org.iterx.sora.collection.queue.WaitStrategies;
+import org.iterx.sora.kernel.actor.receiver.Receiver;
+import org.iterx.sora.kernel.fiber.KernelFiberScheduler;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+
+public class KernelFiberActorTest extends ActorTestCase {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("carrier");
+    private final KernelFiberScheduler kernelFiberScheduler = new KernelFiberScheduler(kernelThreadFactory, 2);
+
+    public <T> Actor<T> newActor(final Receiver<? super T> receiver, final int capacity, final int workers) {
+        return new Actor<T>(kernelFiberScheduler, receiver, capacity, workers, WaitStrategies.newSpinParkWaitStrategy());
+    }
+
+    @After
+    public void tearDown() {
+        kernelFiberScheduler.destroy();
+        kernelThreadFactory.destroy();
+    }
+}
@@ -0,0 +1,19 @@
+package org.iterx.sora.kernel.actor;
+
+import org.iterx.sora.kernel.actor.receiver.Receiver;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+
+public class KernelThreadActorTest extends ActorTestCase {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("actor");
+
+    public <T> Actor<T> newActor(final Receiver<? super T> receiver, final int capacity, final int workers) {
+        return new Actor<T>(kernelThreadFactory, receiver, capacity, workers);
+    }
+
+    @After
+    public void tearDown() {
+        kernelThreadFactory.destroy();
+    }
+}
@@ -0,0 +1,82 @@
+package org.iterx.sora.kernel.actor.receiver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class AbstractBatchReceiverTest {
+
+    private static final int CAPACITY = 4;
+
+    private final BatchRecorder batchRecorder = new BatchRecorder(CAPACITY);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectZeroCapacity() {
+        new BatchRecorder(0);
+    }
+
+    @Test
+    public void shouldHoldPartialBatchUntilFlush() {
+        for(int i = 0; i != CAPACITY - 1; i++) batchRecorder.receive(i);
+        Assert.assertTrue(batchRecorder.batches.isEmpty());
+
+        batchRecorder.flush();
+        Assert.assertEquals(Collections.singletonList(Arrays.asList(0, 1, 2)), batchRecorder.batches);
+    }
+
+    @Test
+    public void shouldDeliverBatchAtCapacity() {
+        for(int i = 0; i != CAPACITY * 2 + 1; i++) batchRecorder.receive(i);
+        Assert.assertEquals(Arrays.asList(Arrays.asList(0, 1, 2, 3), Arrays.asList(4, 5, 6, 7)), batchRecorder.batches);
+
+        batchRecorder.flush();
+        Assert.assertEquals(3, batchRecorder.batches.size());
+        Assert.assertEquals(Collections.singletonList(8), batchRecorder.batches.get(2));
+    }
+
+    @Test
+    public void shouldNotDeliverEmptyBatchOnFlush() {
+        batchRecorder.flush();
+        batchRecorder.receive(Collections.<Integer>emptyList());
+        Assert.assertTrue(batchRecorder.batches.isEmpty());
+
+        batchRecorder.receive(0);
+        batchRecorder.flush();
+        batchRecorder.flush();
+        Assert.assertEquals(1, batchRecorder.batches.size());
+    }
+
+    @Test
+    public void shouldFlushPendingObjectsBeforeBatch() {
+        batchRecorder.receive(0);
+        batchRecorder.receive(Arrays.asList(1, 2));
+        Assert.assertEquals(Arrays.asList(Collections.singletonList(0), Arrays.asList(1, 2)), batchRecorder.batches);
+    }
+
+    @Test
+    public void shouldSplitBatchesAtCapacity() {
+        batchRecorder.receive(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        Assert.assertEquals(Arrays.asList(Arrays.asList(0, 1, 2, 3), Arrays.asList(4, 5, 6, 7), Arrays.asList(8, 9)), batchRecorder.batches);
+
+        batchRecorder.receive(Arrays.asList(0, 1, 2, 3));
+        Assert.assertEquals(4, batchRecorder.batches.size());
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3), batchRecorder.batches.get(3));
+    }
+
+    private static final class BatchRecorder extends AbstractBatchReceiver<Integer> {
+
+        private final List<List<Integer>> batches = new ArrayList<List<Integer>>();
+
+        private BatchRecorder(final int capacity) {
+            super(capacity);
+        }
+
+        protected void onReceive(final List<? extends Integer> batch) {
+            batches.add(new ArrayList<Integer>(batch));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.iterx.sora.kernel.fiber;
+
+import org.iterx.sora.kernel.thread.KernelThread;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class KernelFiberSchedulerTest {
+
+    public static final int CARRIERS = 2;
+    public static final int FIBERS = 10000;
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("carrier");
+    private final KernelFiberScheduler kernelFiberScheduler = new KernelFiberScheduler(kernelThreadFactory, CARRIERS);
+
+    @After
+    public void tearDown() {
+        kernelFiberScheduler.destroy();
+        kernelThreadFactory.destroy();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldRunOnKernelThread() throws InterruptedException {
+        final AtomicReference<KernelThread> kernelThread = new AtomicReference<KernelThread>();
+        final AtomicReference<KernelFiber> kernelFiber = new AtomicReference<KernelFiber>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final KernelFiber fiber = new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                kernelThread.set(KernelThread.currentThread());
+                kernelFiber.set(KernelFiber.currentFiber());
+                latch.countDown();
+            }
+        };
+        fiber.start();
+        latch.await();
+        Assert.assertNotNull(kernelThread.get());
+        Assert.assertSame(fiber, kernelFiber.get());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldParkUntilUnparked() throws InterruptedException {
+        final Semaphore runs = new Semaphore(0);
+        final KernelFiber fiber = new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                runs.release();
+            }
+        };
+        fiber.start();
+        runs.acquire();
+        Assert.assertFalse(runs.tryAcquire(10, TimeUnit.MILLISECONDS));
+        fiber.unpark();
+        runs.acquire();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldRescheduleWhenYielded() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(100);
+        new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                latch.countDown();
+                if(latch.getCount() != 0) yieldFiber();
+            }
+        }.start();
+        latch.await();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldStealFromBusyCarrier() throws InterruptedException {
+        final CountDownLatch stolen = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                new KernelFiber(kernelFiberScheduler) {
+                    protected void run() {
+                        stolen.countDown();
+                    }
+                }.start();
+                try {
+                    stolen.await();
+                    done.countDown();
+                }
+                catch(final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.start();
+        done.await();
+    }
+
+    @Test(timeout = 30000)
+    public void shouldMultiplexFibersOnCarriers() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(FIBERS);
+        final KernelFiber[] fibers = new KernelFiber[FIBERS];
+        for(int i = 0; i != FIBERS; i++) {
+            fibers[i] = new KernelFiber(kernelFiberScheduler) {
+                private int count;
+
+                protected void run() {
+                    runs.incrementAndGet();
+                    if(++count == 2) latch.countDown();
+                }
+            };
+            fibers[i].start();
+        }
+        for(final KernelFiber fiber : fibers) {
+            while(!fiber.isParked()) Thread.yield();
+            fiber.unpark();
+        }
+        latch.await();
+        Assert.assertEquals(2 * FIBERS, runs.get());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDestroyParkedFiber() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final KernelFiber fiber = new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                latch.countDown();
+            }
+        };
+        fiber.start();
+        latch.await();
+        fiber.destroy();
+        Assert.assertTrue(fiber.isDestroyed());
+        fiber.unpark();
+        Assert.assertTrue(fiber.isDestroyed());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDestroyFiberAfterSchedulerDestroyed() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final KernelFiber parkedFiber = new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                latch.countDown();
+            }
+        };
+        parkedFiber.start();
+        latch.await();
+        while(!parkedFiber.isParked()) Thread.yield();
+        kernelFiberScheduler.destroy();
+
+        parkedFiber.destroy();
+        Assert.assertTrue(parkedFiber.isDestroyed());
+
+        final KernelFiber scheduledFiber = new KernelFiber(kernelFiberScheduler) {
+            protected void run() {
+                Assert.fail();
+            }
+        };
+        scheduledFiber.start();
+        scheduledFiber.destroy();
+        Assert.assertTrue(scheduledFiber.isDestroyed());
+    }
+}
@@ -0,0 +1,83 @@
+package org.iterx.sora.kernel.memory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void shouldLeaseDirectBufferOfSizeClass() {
+        final ByteBufferPool byteBufferPool = new ByteBufferPool();
+        final ByteBuffer byteBuffer = byteBufferPool.lease(1000).getByteBuffer();
+        Assert.assertTrue(byteBuffer.isDirect());
+        Assert.assertEquals(1024, byteBuffer.capacity());
+        Assert.assertEquals(1000, byteBuffer.limit());
+        Assert.assertEquals(ByteBufferPool.MIN_BUFFER_SIZE, byteBufferPool.lease(1).getByteBuffer().capacity());
+        Assert.assertEquals(ByteBufferPool.MAX_BUFFER_SIZE + 1, byteBufferPool.lease(ByteBufferPool.MAX_BUFFER_SIZE + 1).getByteBuffer().capacity());
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffer() {
+        final ByteBufferPool byteBufferPool = new ByteBufferPool();
+        final PooledByteBuffer first = byteBufferPool.lease(4096);
+        first.getByteBuffer().put((byte) 1);
+        Assert.assertTrue(first.release());
+        final PooledByteBuffer second = byteBufferPool.lease(4096);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(0, second.getByteBuffer().position());
+        Assert.assertNotSame(second, byteBufferPool.lease(4096));
+    }
+
+    @Test
+    public void shouldReleaseOnLastReference() {
+        final ByteBufferPool byteBufferPool = new ByteBufferPool();
+        final PooledByteBuffer pooledByteBuffer = byteBufferPool.lease(512).retain();
+        Assert.assertEquals(2, pooledByteBuffer.getReferenceCount());
+        Assert.assertFalse(pooledByteBuffer.release());
+        Assert.assertTrue(pooledByteBuffer.release());
+        Assert.assertEquals(0, pooledByteBuffer.getReferenceCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectReleaseOfReleasedBuffer() {
+        final PooledByteBuffer pooledByteBuffer = new ByteBufferPool().lease(512);
+        pooledByteBuffer.release();
+        pooledByteBuffer.release();
+    }
+
+    @Test
+    public void shouldShareBuffersBetweenThreads() throws InterruptedException {
+        final ByteBufferPool byteBufferPool = new ByteBufferPool(16, 0);
+        final PooledByteBuffer pooledByteBuffer = byteBufferPool.lease(2048);
+        pooledByteBuffer.release();
+        final AtomicReference<PooledByteBuffer> leased = new AtomicReference<PooledByteBuffer>();
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                leased.set(byteBufferPool.lease(2048));
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertSame(pooledByteBuffer, leased.get());
+    }
+
+    @Test
+    public void shouldReturnCachedBuffersToSharedPoolOnReleaseCache() throws InterruptedException {
+        final ByteBufferPool byteBufferPool = new ByteBufferPool(16, 4);
+        final AtomicReference<PooledByteBuffer> released = new AtomicReference<PooledByteBuffer>();
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                final PooledByteBuffer pooledByteBuffer = byteBufferPool.lease(2048);
+                pooledByteBuffer.release();
+                released.set(pooledByteBuffer);
+                byteBufferPool.releaseCache();
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertSame(released.get(), byteBufferPool.lease(2048));
+    }
+}
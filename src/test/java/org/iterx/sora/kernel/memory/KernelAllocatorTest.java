@@ -0,0 +1,87 @@
+package org.iterx.sora.kernel.memory;
+
+import org.iterx.sora.kernel.thread.KernelThread;
+import org.iterx.sora.kernel.thread.KernelThreadFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class KernelAllocatorTest {
+
+    private final KernelThreadFactory kernelThreadFactory = new KernelThreadFactory("allocator");
+
+    @After
+    public void tearDown() {
+        kernelThreadFactory.destroy();
+    }
+
+    @Test
+    public void shouldRecycleObjectsOnKernelThread() throws InterruptedException {
+        final StringBuilderRecycler recycler = new StringBuilderRecycler();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final KernelThread kernelThread = kernelThreadFactory.newThread(new Runnable() {
+            public void run() {
+                try {
+                    final StringBuilder first = recycler.get();
+                    first.append("value");
+                    recycler.recycle(first);
+                    final StringBuilder second = recycler.get();
+                    Assert.assertSame(first, second);
+                    Assert.assertEquals(0, second.length());
+                    Assert.assertNotSame(second, recycler.get());
+                    Assert.assertSame(KernelThread.currentThread().getAllocator(), KernelAllocator.currentAllocator());
+                }
+                catch(final Throwable throwable) {
+                    failure.set(throwable);
+                }
+            }
+        });
+        kernelThread.start();
+        kernelThread.join();
+        Assert.assertNull(failure.get());
+    }
+
+    @Test
+    public void shouldReturnRecycledObjectsToSharedQueueOnThreadExit() throws InterruptedException {
+        final StringBuilderRecycler recycler = new StringBuilderRecycler();
+        final AtomicReference<StringBuilder> recycled = new AtomicReference<StringBuilder>();
+        final KernelThread kernelThread = kernelThreadFactory.newThread(new Runnable() {
+            public void run() {
+                final StringBuilder stringBuilder = recycler.get();
+                recycler.recycle(stringBuilder);
+                recycled.set(stringBuilder);
+            }
+        });
+        kernelThread.start();
+        kernelThread.join();
+        Assert.assertNull(KernelAllocator.currentAllocator());
+        Assert.assertSame(recycled.get(), recycler.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectAccessFromOtherThread() throws Throwable {
+        final AtomicReference<KernelAllocator> kernelAllocator = new AtomicReference<KernelAllocator>();
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                kernelAllocator.set(new KernelAllocator());
+            }
+        });
+        thread.start();
+        thread.join();
+        kernelAllocator.get().destroy();
+    }
+
+    private static final class StringBuilderRecycler extends Recycler<StringBuilder> {
+
+        protected StringBuilder newObject() {
+            return new StringBuilder();
+        }
+
+        @Override
+        protected void reset(final StringBuilder object) {
+            object.setLength(0);
+        }
+    }
+}
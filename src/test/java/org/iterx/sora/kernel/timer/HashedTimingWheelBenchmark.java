@@ -0,0 +1,50 @@
+package org.iterx.sora.kernel.timer;
+
+import org.iterx.sora.util.clock.Clock;
+
+import java.util.concurrent.TimeUnit;
+
+public final class HashedTimingWheelBenchmark {
+
+    private static final int TIMEOUTS = 1000000;
+    private static final int RUNS = 3;
+    private static final long MAX_DELAY = TimeUnit.SECONDS.toMillis(60);
+
+    private HashedTimingWheelBenchmark() {
+    }
+
+    public static void main(final String[] arguments) {
+        for(int i = RUNS; i-- != 0;) run();
+    }
+
+    private static void run() {
+        final HashedTimingWheel timingWheel = new HashedTimingWheel();
+        final HashedTimingWheel.Timeout[] timeouts = new HashedTimingWheel.Timeout[TIMEOUTS];
+        final HashedTimingWheel.Task task = new HashedTimingWheel.Task() {
+            public void onTimeout(final HashedTimingWheel.Timeout timeout) {
+            }
+        };
+
+        final long scheduleStart = System.nanoTime();
+        for(int i = 0; i != TIMEOUTS; i++) timeouts[i] = timingWheel.schedule(task, i % MAX_DELAY, TimeUnit.MILLISECONDS);
+        final long scheduleNanos = System.nanoTime() - scheduleStart;
+
+        final long cancelStart = System.nanoTime();
+        for(int i = 0; i < TIMEOUTS; i += 2) timeouts[i].cancel();
+        final long cancelNanos = System.nanoTime() - cancelStart;
+
+        final long now = Clock.currentTime(TimeUnit.MILLISECONDS);
+        final long expireStart = System.nanoTime();
+        int expired = 0;
+        for(long time = now; time <= now + MAX_DELAY + HashedTimingWheel.DEFAULT_TICK_DURATION * 2; time += HashedTimingWheel.DEFAULT_TICK_DURATION) {
+            expired += timingWheel.expire(time);
+        }
+        final long expireNanos = System.nanoTime() - expireStart;
+
+        System.out.printf("schedule %,15d ops/s cancel %,15d ops/s expire %,15d ops/s (expired=%d)%n",
+                          (TIMEOUTS * 1000000000L) / scheduleNanos,
+                          ((TIMEOUTS / 2) * 1000000000L) / cancelNanos,
+                          (expired * 1000000000L) / expireNanos,
+                          expired);
+    }
+}
@@ -0,0 +1,77 @@
+package org.iterx.sora.kernel.timer;
+
+import org.iterx.sora.util.clock.Clock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class HashedTimingWheelTest {
+
+    private static final int TIMEOUTS = 100000;
+
+    private final List<HashedTimingWheel.Timeout> expired = new CopyOnWriteArrayList<HashedTimingWheel.Timeout>();
+    private final HashedTimingWheel.Task task = new HashedTimingWheel.Task() {
+        public void onTimeout(final HashedTimingWheel.Timeout timeout) {
+            expired.add(timeout);
+        }
+    };
+
+    @Test
+    public void shouldExpireTimeoutsOnceDeadlinePassed() {
+        final HashedTimingWheel timingWheel = new HashedTimingWheel();
+        final long now = Clock.currentTime(TimeUnit.MILLISECONDS);
+        final HashedTimingWheel.Timeout timeout = timingWheel.schedule(task, 100, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, timingWheel.expire(now + 50));
+        Assert.assertEquals(1, timingWheel.expire(now + 200));
+        Assert.assertTrue(timeout.isExpired());
+        Assert.assertSame(timeout, expired.get(0));
+        Assert.assertTrue(timingWheel.isEmpty());
+    }
+
+    @Test
+    public void shouldExpireTimeoutsBeyondOneRotation() {
+        final HashedTimingWheel timingWheel = new HashedTimingWheel(10, 4, TimeUnit.MILLISECONDS);
+        final long now = Clock.currentTime(TimeUnit.MILLISECONDS);
+        timingWheel.schedule(task, 100, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, timingWheel.expire(now + 50));
+        Assert.assertEquals(0, timingWheel.expire(now + 90));
+        Assert.assertEquals(1, timingWheel.expire(now + 130));
+    }
+
+    @Test
+    public void shouldNotExpireCancelledTimeouts() {
+        final HashedTimingWheel timingWheel = new HashedTimingWheel();
+        final long now = Clock.currentTime(TimeUnit.MILLISECONDS);
+        final HashedTimingWheel.Timeout cancelled = timingWheel.schedule(task, 10, TimeUnit.MILLISECONDS);
+        timingWheel.schedule(task, 10, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertFalse(cancelled.cancel());
+        Assert.assertEquals(1, timingWheel.size());
+        Assert.assertEquals(1, timingWheel.expire(now + 100));
+        Assert.assertTrue(cancelled.isCancelled());
+        Assert.assertFalse(expired.contains(cancelled));
+    }
+
+    @Test
+    public void shouldExpireLargeNumberOfTimeouts() {
+        final HashedTimingWheel timingWheel = new HashedTimingWheel();
+        final long now = Clock.currentTime(TimeUnit.MILLISECONDS);
+        final HashedTimingWheel.Timeout[] timeouts = new HashedTimingWheel.Timeout[TIMEOUTS];
+        for(int i = 0; i != TIMEOUTS; i++) timeouts[i] = timingWheel.schedule(task, i % 10000, TimeUnit.MILLISECONDS);
+        for(int i = 0; i < TIMEOUTS; i += 2) timeouts[i].cancel();
+        Assert.assertEquals(TIMEOUTS / 2, timingWheel.size());
+        Assert.assertEquals(TIMEOUTS / 2, timingWheel.expire(now + 20000));
+        Assert.assertTrue(timingWheel.isEmpty());
+    }
+
+    @Test
+    public void shouldBoundWaitByNextTick() {
+        final HashedTimingWheel timingWheel = new HashedTimingWheel();
+        Assert.assertEquals(TimeUnit.SECONDS.toNanos(1), timingWheel.nextTickNanos(TimeUnit.SECONDS.toNanos(1)));
+        timingWheel.schedule(task, 1, TimeUnit.SECONDS);
+        Assert.assertTrue(timingWheel.nextTickNanos(TimeUnit.SECONDS.toNanos(1)) <= TimeUnit.MILLISECONDS.toNanos(HashedTimingWheel.DEFAULT_TICK_DURATION));
+    }
+}